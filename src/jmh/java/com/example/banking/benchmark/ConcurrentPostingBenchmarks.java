@@ -0,0 +1,96 @@
+package com.example.banking.benchmark;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.*;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import com.example.banking.BankingApp;
+import com.example.banking.service.AccountBalanceService;
+import com.example.banking.service.JournalService;
+import com.example.banking.service.JournalService.EntryLine;
+
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * Stress test for concurrent posting: 64 threads post two-leg transfers between
+ * random pairs drawn from a pool of {@code hotAccounts} accounts, in random
+ * direction, so transfers A->B and B->A constantly race for the same balance
+ * rows. With ordered row locking the throughput should stay flat as the pool
+ * shrinks to 2 (every posting contends) and no posting should fail; the trial
+ * teardown prints the retry counters and checks the balances against the ledger.
+ *
+ * <pre>
+ * mvn -Pjmh test-compile exec:exec -Djmh.args="ConcurrentPostingBenchmarks"
+ * mvn -Pjmh test-compile exec:exec -Djmh.args="ConcurrentPostingBenchmarks -t 128 -p hotAccounts=2"
+ * </pre>
+ */
+@BenchmarkMode({ Mode.Throughput, Mode.SampleTime })
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 3)
+@Measurement(iterations = 5, time = 5)
+@Threads(64)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ConcurrentPostingBenchmarks {
+
+    @Param({ "2", "8", "64" })
+    public int hotAccounts;
+
+    ConfigurableApplicationContext context;
+    JournalService journalService;
+    MeterRegistry meterRegistry;
+    List<UUID> accounts;
+
+    @Setup(Level.Trial)
+    public void startAndSeed() {
+        context = new SpringApplicationBuilder(BankingApp.class)
+            .properties(
+                "server.port=0",
+                "spring.datasource.url=jdbc:h2:mem:jmh-posting",
+                "spring.datasource.hikari.maximum-pool-size=64",
+                "banking.ledger.startup-check=none",
+                "logging.level.root=WARN")
+            .run();
+        journalService = context.getBean(JournalService.class);
+        meterRegistry = context.getBean(MeterRegistry.class);
+
+        // internal USD accounts so the transfers need no customer
+        JdbcTemplate jdbc = context.getBean(JdbcTemplate.class);
+        accounts = new ArrayList<>(hotAccounts);
+        List<Object[]> rows = new ArrayList<>(hotAccounts);
+        for (int i = 0; i < hotAccounts; i++) {
+            UUID id = UUID.randomUUID();
+            accounts.add(id);
+            rows.add(new Object[] { id });
+        }
+        jdbc.batchUpdate("INSERT INTO account (id, kind, currency, is_active) VALUES (?, 'internal', 'USD', TRUE)", rows);
+        jdbc.batchUpdate("INSERT INTO account_balance (account_id, balance_cents, currency) VALUES (?, 0, 'USD')", rows);
+    }
+
+    @TearDown(Level.Trial)
+    public void stop() {
+        var verification = context.getBean(AccountBalanceService.class).verify();
+        System.out.printf("%nretries=%.0f exhausted=%.0f balancesConsistent=%s%n",
+            meterRegistry.counter("banking.posting.retries").count(),
+            meterRegistry.counter("banking.posting.retries.exhausted").count(),
+            verification.consistent());
+        context.close();
+    }
+
+    @Benchmark
+    public Object postTransfer() {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        int from = random.nextInt(hotAccounts);
+        int to = (from + 1 + random.nextInt(hotAccounts - 1)) % hotAccounts;
+        return journalService.submitJournal("jmh transfer", null, List.of(
+            new EntryLine(accounts.get(from), "debit", "USD", 100),
+            new EntryLine(accounts.get(to), "credit", "USD", 100)), true);
+    }
+}
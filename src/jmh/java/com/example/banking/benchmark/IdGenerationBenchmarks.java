@@ -0,0 +1,118 @@
+package com.example.banking.benchmark;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+import org.openjdk.jmh.annotations.*;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.example.banking.BankingApp;
+import com.example.banking.entity.UuidV7Generator;
+
+/**
+ * Bulk-insert throughput of posted two-leg journals with random (v4) versus
+ * time-ordered (v7) primary keys. The database is a file-backed H2 with a
+ * page cache of {@code cacheKb}, so once journal and ledger_entry outgrow it
+ * a random key sends nearly every insert to a different, probably evicted,
+ * primary key leaf, while v7 keys keep appending to the rightmost one. One
+ * operation commits {@code BATCH} journals (2 * BATCH entries); the tables
+ * keep growing across iterations on top of {@code preloadJournals}.
+ *
+ * <pre>
+ * mvn -Pjmh test-compile exec:exec -Djmh.args="IdGenerationBenchmarks"
+ * mvn -Pjmh test-compile exec:exec -Djmh.args="IdGenerationBenchmarks -p preloadJournals=2000000 -p cacheKb=16384"
+ * </pre>
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 5, time = 10)
+@Fork(1)
+@State(Scope.Benchmark)
+public class IdGenerationBenchmarks {
+
+    // seed accounts from data.sql
+    static final UUID HOT_ACCOUNT = UUID.fromString("aaaaaaa1-aaaa-aaaa-aaaa-aaaaaaaaaaa1"); // Alice checking
+    static final UUID CASH_ACCOUNT = UUID.fromString("ccccccc1-cccc-cccc-cccc-ccccccccccc1"); // internal USD
+    static final int BATCH = 500;
+
+    @Param({ "random", "v7" })
+    public String ids;
+
+    @Param({ "500000" })
+    public int preloadJournals;
+
+    @Param({ "8192" })
+    public int cacheKb;
+
+    ConfigurableApplicationContext context;
+    JdbcTemplate jdbc;
+    TransactionTemplate tx;
+    Supplier<UUID> nextId;
+
+    @Setup(Level.Trial)
+    public void startAndPreload() throws IOException {
+        Path dir = Path.of("target", "jmh-ids");
+        Files.createDirectories(dir);
+        Path db = dir.resolve(ids);
+        Files.deleteIfExists(Path.of(db + ".mv.db"));
+        Files.deleteIfExists(Path.of(db + ".trace.db"));
+
+        context = new SpringApplicationBuilder(BankingApp.class)
+            .properties(
+                "server.port=0",
+                "spring.datasource.url=jdbc:h2:file:" + db.toAbsolutePath() + ";CACHE_SIZE=" + cacheKb,
+                "banking.ledger.startup-check=none",
+                "logging.level.root=WARN")
+            .run();
+        jdbc = context.getBean(JdbcTemplate.class);
+        tx = new TransactionTemplate(context.getBean(PlatformTransactionManager.class));
+        nextId = ids.equals("v7") ? UuidV7Generator::next : UUID::randomUUID;
+
+        for (int done = 0; done < preloadJournals; done += BATCH) {
+            insertBatch();
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void stop() {
+        context.close();
+    }
+
+    @Benchmark
+    public int insertJournals() {
+        return insertBatch();
+    }
+
+    private int insertBatch() {
+        Timestamp now = new Timestamp(System.currentTimeMillis());
+        List<Object[]> journals = new ArrayList<>(BATCH);
+        List<Object[]> entries = new ArrayList<>(BATCH * 2);
+        for (int i = 0; i < BATCH; i++) {
+            UUID journalId = nextId.get();
+            journals.add(new Object[] { journalId, now, now });
+            entries.add(new Object[] { nextId.get(), journalId, CASH_ACCOUNT, "debit", now });
+            entries.add(new Object[] { nextId.get(), journalId, HOT_ACCOUNT, "credit", now });
+        }
+        return tx.execute(status -> {
+            jdbc.batchUpdate("""
+                INSERT INTO journal (id, status, created_at, posted_at, currency, debit_total_cents, credit_total_cents)
+                VALUES (?, 'posted', ?, ?, 'USD', 100, 100)""", journals);
+            jdbc.batchUpdate("""
+                INSERT INTO ledger_entry (id, journal_id, account_id, side, amount_cents, currency, created_at)
+                VALUES (?, ?, ?, ?, 100, 'USD', ?)""", entries);
+            return entries.size();
+        });
+    }
+}
@@ -0,0 +1,178 @@
+package com.example.banking.benchmark;
+
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import com.example.banking.BankingApp;
+import com.example.banking.model.HistoryCursor;
+import com.example.banking.model.JournalSearch;
+import com.example.banking.model.JournalStatus;
+import com.example.banking.service.AccountBalanceService;
+import com.example.banking.service.AccountService;
+import com.example.banking.service.JournalService;
+import com.example.banking.service.JournalService.EntryLine;
+import com.example.banking.service.LedgerEntryService;
+
+/**
+ * Service-layer throughput of the ledger hot paths against an in-memory H2
+ * database seeded with {@code historySize} posted entries on one hot account.
+ *
+ * <pre>
+ * mvn -Pjmh test-compile exec:exec
+ * mvn -Pjmh test-compile exec:exec -Djmh.args="LedgerBenchmarks.accountHistory -p historySize=10000000 -prof gc"
+ * </pre>
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class LedgerBenchmarks {
+
+    // seed accounts from data.sql
+    static final UUID HOT_ACCOUNT = UUID.fromString("aaaaaaa1-aaaa-aaaa-aaaa-aaaaaaaaaaa1"); // Alice checking
+    static final UUID CASH_ACCOUNT = UUID.fromString("ccccccc1-cccc-cccc-cccc-ccccccccccc1"); // internal USD
+    static final int PAGE_SIZE = 20;
+    static final int SEED_BATCH = 10_000;
+    static final JournalSearch POSTED = new JournalSearch(JournalStatus.POSTED, null, null, null, null, null);
+
+    @Param({ "1000", "100000", "1000000" })
+    public int historySize;
+
+    ConfigurableApplicationContext context;
+    JournalService journalService;
+    AccountService accountService;
+    LedgerEntryService ledgerEntryService;
+
+    UUID seededJournalId;
+    UUID pendingJournalId;
+    int deepPage;
+    HistoryCursor deepCursor;
+
+    @Setup(Level.Trial)
+    public void startAndSeed() {
+        context = new SpringApplicationBuilder(BankingApp.class)
+            .properties(
+                "server.port=0",
+                "spring.datasource.url=jdbc:h2:mem:jmh",
+                "banking.ledger.startup-check=none",
+                "logging.level.root=WARN")
+            .run();
+        journalService = context.getBean(JournalService.class);
+        accountService = context.getBean(AccountService.class);
+        ledgerEntryService = context.getBean(LedgerEntryService.class);
+
+        seed(context.getBean(JdbcTemplate.class));
+        context.getBean(AccountBalanceService.class).rebuild();
+
+        deepPage = Math.max(0, historySize / PAGE_SIZE / 2);
+        var walk = ledgerEntryService.accountHistory(HOT_ACCOUNT, deepPage, PAGE_SIZE);
+        var last = walk.get(walk.size() - 1);
+        deepCursor = new HistoryCursor(last.createdAt(), last.id());
+    }
+
+    // historySize posted two-leg journals (cash -> hot account), one millisecond apart
+    private void seed(JdbcTemplate jdbc) {
+        Instant base = Instant.now().minusMillis(historySize + 1000L);
+        List<Object[]> journals = new ArrayList<>(SEED_BATCH);
+        List<Object[]> entries = new ArrayList<>(SEED_BATCH * 2);
+        for (int i = 0; i < historySize; i++) {
+            UUID journalId = UUID.randomUUID();
+            Timestamp at = Timestamp.from(base.plusMillis(i));
+            journals.add(new Object[] { journalId, at, at });
+            entries.add(new Object[] { UUID.randomUUID(), journalId, CASH_ACCOUNT, "debit", at });
+            entries.add(new Object[] { UUID.randomUUID(), journalId, HOT_ACCOUNT, "credit", at });
+            if (journals.size() == SEED_BATCH || i == historySize - 1) {
+                jdbc.batchUpdate("""
+                    INSERT INTO journal (id, status, created_at, posted_at, currency, debit_total_cents, credit_total_cents)
+                    VALUES (?, 'posted', ?, ?, 'USD', 100, 100)""", journals);
+                jdbc.batchUpdate("""
+                    INSERT INTO ledger_entry (id, journal_id, account_id, side, amount_cents, currency, created_at)
+                    VALUES (?, ?, ?, ?, 100, 'USD', ?)""", entries);
+                journals.clear();
+                entries.clear();
+            }
+        }
+        seededJournalId = jdbc.queryForObject("SELECT id FROM journal WHERE status = 'posted' LIMIT 1", UUID.class);
+    }
+
+    @TearDown(Level.Trial)
+    public void stop() {
+        context.close();
+    }
+
+    @Setup(Level.Iteration)
+    public void newPendingJournal() {
+        pendingJournalId = journalService.createJournal("jmh addEntry", null).getId();
+    }
+
+    /** A balanced, unposted two-leg journal for each postJournal invocation. */
+    @State(Scope.Thread)
+    public static class PendingTransfer {
+        UUID journalId;
+
+        @Setup(Level.Invocation)
+        public void create(LedgerBenchmarks bench) {
+            journalId = bench.journalService.submitJournal("jmh post", null, List.of(
+                new EntryLine(CASH_ACCOUNT, "debit", "USD", 100),
+                new EntryLine(HOT_ACCOUNT, "credit", "USD", 100)), false).journal().getId();
+        }
+    }
+
+    @Benchmark
+    public Object addEntry() {
+        return journalService.addEntry(pendingJournalId, CASH_ACCOUNT, "debit", "USD", 100);
+    }
+
+    @Benchmark
+    public Object postJournal(PendingTransfer transfer) {
+        return journalService.postJournal(transfer.journalId);
+    }
+
+    @Benchmark
+    public Object transfer() {
+        return journalService.transfer(CASH_ACCOUNT, HOT_ACCOUNT, "USD", 100, "jmh transfer", null);
+    }
+
+    @Benchmark
+    public Object diagnostics() {
+        return journalService.diagnostics(seededJournalId);
+    }
+
+    @Benchmark
+    public long computeBalance() {
+        return accountService.computeBalance(HOT_ACCOUNT);
+    }
+
+    @Benchmark
+    public void accountHistoryFirstPage(Blackhole bh) {
+        bh.consume(ledgerEntryService.accountHistory(HOT_ACCOUNT, 0, PAGE_SIZE));
+    }
+
+    @Benchmark
+    public void accountHistoryDeepPage(Blackhole bh) {
+        bh.consume(ledgerEntryService.accountHistory(HOT_ACCOUNT, deepPage, PAGE_SIZE));
+    }
+
+    @Benchmark
+    public void accountHistoryDeepCursor(Blackhole bh) {
+        bh.consume(ledgerEntryService.accountHistory(HOT_ACCOUNT, deepCursor, PAGE_SIZE));
+    }
+
+    // seeded journals share the entries' timestamps, so the same cursor lands mid-table
+    @Benchmark
+    public void journalSearchDeepCursor(Blackhole bh) {
+        bh.consume(journalService.searchJournals(POSTED, deepCursor, PAGE_SIZE));
+    }
+}
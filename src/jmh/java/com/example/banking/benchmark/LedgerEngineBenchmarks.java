@@ -0,0 +1,96 @@
+package com.example.banking.benchmark;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+import org.openjdk.jmh.annotations.*;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import com.example.banking.BankingApp;
+import com.example.banking.service.AccountBalanceService;
+import com.example.banking.service.JournalService;
+
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * POST /transfers at the service layer with {@code engine=false} (a JPA
+ * transaction locking both balance rows) versus {@code engine=true} (the
+ * in-memory ledger engine: funds check in memory, one log append, database
+ * write behind). Every transfer moves money from the internal cash account to
+ * the same customer account, the worst case for row locking. The trial
+ * teardown prints how many engine transfers were written and checks the
+ * balances after the writer has drained.
+ *
+ * <pre>
+ * mvn -Pjmh test-compile exec:exec -Djmh.args="LedgerEngineBenchmarks"
+ * mvn -Pjmh test-compile exec:exec -Djmh.args="LedgerEngineBenchmarks -p engine=true -p force=true"
+ * </pre>
+ */
+@BenchmarkMode({ Mode.Throughput, Mode.SampleTime })
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 3)
+@Measurement(iterations = 5, time = 5)
+@Threads(8)
+@Fork(1)
+@State(Scope.Benchmark)
+public class LedgerEngineBenchmarks {
+
+    // seed accounts from data.sql
+    static final UUID HOT_ACCOUNT = UUID.fromString("aaaaaaa1-aaaa-aaaa-aaaa-aaaaaaaaaaa1"); // Alice checking
+    static final UUID CASH_ACCOUNT = UUID.fromString("ccccccc1-cccc-cccc-cccc-ccccccccccc1"); // internal USD
+
+    @Param({ "false", "true" })
+    public boolean engine;
+
+    @Param({ "false" })
+    public boolean force;
+
+    ConfigurableApplicationContext context;
+    JournalService journalService;
+
+    @Setup(Level.Trial)
+    public void start() throws IOException {
+        Path dir = Path.of("target", "jmh-engine");
+        if (Files.exists(dir)) {
+            try (Stream<Path> files = Files.walk(dir)) {
+                files.sorted(Comparator.reverseOrder()).forEach(f -> f.toFile().delete());
+            }
+        }
+        context = new SpringApplicationBuilder(BankingApp.class)
+            .properties(
+                "server.port=0",
+                "spring.datasource.url=jdbc:h2:mem:jmh-engine",
+                "banking.ledger.startup-check=none",
+                "banking.ledger.engine.enabled=" + engine,
+                "banking.ledger.engine.dir=" + dir.toAbsolutePath(),
+                "banking.ledger.engine.wal.force=" + force,
+                "logging.level.root=WARN")
+            .run();
+        journalService = context.getBean(JournalService.class);
+    }
+
+    @TearDown(Level.Trial)
+    public void stop() throws InterruptedException {
+        if (engine) {
+            MeterRegistry meterRegistry = context.getBean(MeterRegistry.class);
+            Thread.sleep(2000); // let the writer catch up
+            System.out.printf("%nwritten=%.0f refConflicts=%.0f",
+                meterRegistry.counter("banking.ledger.engine.written").count(),
+                meterRegistry.counter("banking.ledger.engine.ref.conflicts").count());
+        }
+        System.out.printf("%nbalancesConsistent=%s%n",
+            context.getBean(AccountBalanceService.class).verify().consistent());
+        context.close();
+    }
+
+    @Benchmark
+    public Object transfer() {
+        return journalService.transfer(CASH_ACCOUNT, HOT_ACCOUNT, "USD", 1, "jmh transfer", null);
+    }
+}
@@ -0,0 +1,115 @@
+package com.example.banking.benchmark;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.*;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import com.example.banking.BankingApp;
+
+/**
+ * End-to-end HTTP throughput and latency percentiles (p99 in the SampleTime
+ * output) at high concurrency, with more clients than Tomcat's platform
+ * worker pool, comparing thread-per-request on that pool with the
+ * virtual-threads profile. The virtual run needs the Java 21 build:
+ *
+ * <pre>
+ * JAVA_HOME=/path/to/jdk-21 mvn -Pjmh,virtual-threads test-compile exec:exec -Djmh.args="RequestThreadingBenchmarks"
+ * </pre>
+ */
+@BenchmarkMode({ Mode.Throughput, Mode.SampleTime })
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 3, time = 10)
+@Threads(400) // more concurrent clients than Tomcat's default 200 platform workers
+@Fork(1)
+@State(Scope.Benchmark)
+public class RequestThreadingBenchmarks {
+
+    static final String HOT_ACCOUNT = "aaaaaaa1-aaaa-aaaa-aaaa-aaaaaaaaaaa1";
+    static final String PASSWORD = "LoadTest-Pass1!";
+
+    @Param({ "platform", "virtual" })
+    public String threading;
+
+    ConfigurableApplicationContext context;
+    HttpClient client;
+    String baseUrl;
+    String username;
+    String bearer;
+
+    @Setup(Level.Trial)
+    public void start() throws IOException, InterruptedException {
+        var app = new SpringApplicationBuilder(BankingApp.class)
+            .properties(
+                "server.port=0",
+                "spring.datasource.url=jdbc:h2:mem:jmh-http",
+                "banking.ledger.startup-check=none",
+                // in both modes: with open-in-view a login keeps its connection through BCrypt and
+                // 400 clients exhaust the pool, which would measure the pool instead of the threads
+                "spring.jpa.open-in-view=false",
+                "logging.level.root=WARN");
+        if (threading.equals("virtual")) {
+            if (Runtime.version().feature() < 21) {
+                throw new IllegalStateException("threading=virtual needs Java 21+ (-Pvirtual-threads on a JDK 21)");
+            }
+            app.profiles("virtual-threads");
+        }
+        context = app.run();
+        baseUrl = "http://localhost:" + context.getEnvironment().getProperty("local.server.port");
+        client = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).build();
+
+        username = "load_" + UUID.randomUUID().toString().replace("-", "").substring(0, 12);
+        send(post("/auth/register", """
+            {"username":"%s","firstName":"Load","lastName":"Test","email":"%s@example.com","password":"%s"}
+            """.formatted(username, username, PASSWORD)));
+        String login = send(post("/auth/login", loginBody()));
+        bearer = "Bearer " + login.replaceAll(".*\"accessToken\":\"([^\"]+)\".*", "$1");
+    }
+
+    @TearDown(Level.Trial)
+    public void stop() {
+        context.close();
+    }
+
+    private String loginBody() {
+        return "{\"identifier\":\"" + username + "\",\"password\":\"" + PASSWORD + "\"}";
+    }
+
+    private HttpRequest post(String path, String json) {
+        return HttpRequest.newBuilder(URI.create(baseUrl + path))
+            .header("Content-Type", "application/json")
+            .POST(HttpRequest.BodyPublishers.ofString(json))
+            .build();
+    }
+
+    private String send(HttpRequest request) throws IOException, InterruptedException {
+        HttpResponse<String> response = client.send(request, HttpResponse.BodyHandlers.ofString());
+        if (response.statusCode() >= 400) {
+            throw new IllegalStateException(request.uri() + " -> " + response.statusCode() + " " + response.body());
+        }
+        return response.body();
+    }
+
+    /** CPU-heavy path: one BCrypt verification per call. */
+    @Benchmark
+    public String login() throws IOException, InterruptedException {
+        return send(post("/auth/login", loginBody()));
+    }
+
+    /** JDBC-bound path: bearer-authenticated keyset history page. */
+    @Benchmark
+    public String history() throws IOException, InterruptedException {
+        return send(HttpRequest.newBuilder(URI.create(baseUrl + "/accounts/" + HOT_ACCOUNT + "/entries?cursor=&size=20"))
+            .header("Authorization", bearer)
+            .GET()
+            .build());
+    }
+}
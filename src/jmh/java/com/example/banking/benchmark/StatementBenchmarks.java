@@ -0,0 +1,123 @@
+package com.example.banking.benchmark;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+import org.openjdk.jmh.annotations.*;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import com.example.banking.BankingApp;
+import com.example.banking.entity.UuidV7Generator;
+import com.example.banking.service.StatementService;
+
+/**
+ * One full statement run over {@code accounts} accounts, each with
+ * {@code entriesPerAccount} posted entries in the period, with the ranges
+ * written by 1 thread versus {@code parallelism} threads. Every invocation
+ * starts from an empty statement directory, so nothing is resumed.
+ *
+ * <pre>
+ * mvn -Pjmh test-compile exec:exec -Djmh.args="StatementBenchmarks"
+ * mvn -Pjmh test-compile exec:exec -Djmh.args="StatementBenchmarks -p accounts=1000000 -p parallelism=16"
+ * </pre>
+ */
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 1)
+@Measurement(iterations = 3)
+@Fork(1)
+@State(Scope.Benchmark)
+public class StatementBenchmarks {
+
+    // internal USD account from data.sql, the other side of every seeded entry
+    static final UUID CASH_ACCOUNT = UUID.fromString("ccccccc1-cccc-cccc-cccc-ccccccccccc1");
+    static final Path DIR = Path.of("target", "jmh-statements");
+
+    @Param({ "100000" })
+    public int accounts;
+
+    @Param({ "4" })
+    public int entriesPerAccount;
+
+    @Param({ "1", "8" })
+    public int parallelism;
+
+    ConfigurableApplicationContext context;
+    StatementService statementService;
+    Instant from;
+    Instant to;
+
+    @Setup(Level.Trial)
+    public void startAndSeed() {
+        from = Instant.now().minusSeconds(60);
+        // as arguments: application.properties sets banking.statements.* and would win over default properties
+        context = new SpringApplicationBuilder(BankingApp.class)
+            .run(
+                "--server.port=0",
+                "--spring.datasource.url=jdbc:h2:mem:jmh-statements",
+                "--spring.datasource.hikari.maximum-pool-size=" + (parallelism + 2),
+                "--banking.ledger.startup-check=none",
+                "--banking.statements.dir=" + DIR.toAbsolutePath(),
+                "--banking.statements.parallelism=" + parallelism,
+                "--logging.level.root=WARN");
+        statementService = context.getBean(StatementService.class);
+
+        // posted journals crediting each account from cash, inserted directly (no balances needed)
+        JdbcTemplate jdbc = context.getBean(JdbcTemplate.class);
+        Timestamp at = Timestamp.from(Instant.now());
+        for (int start = 0; start < accounts; start += 1000) {
+            List<Object[]> accountRows = new ArrayList<>();
+            List<Object[]> journals = new ArrayList<>();
+            List<Object[]> entries = new ArrayList<>();
+            for (int i = start; i < Math.min(accounts, start + 1000); i++) {
+                UUID account = UuidV7Generator.next();
+                accountRows.add(new Object[] { account });
+                for (int j = 0; j < entriesPerAccount; j++) {
+                    UUID journal = UuidV7Generator.next();
+                    journals.add(new Object[] { journal, at, at });
+                    entries.add(new Object[] { UuidV7Generator.next(), journal, CASH_ACCOUNT, "debit", at });
+                    entries.add(new Object[] { UuidV7Generator.next(), journal, account, "credit", at });
+                }
+            }
+            jdbc.batchUpdate("INSERT INTO account (id, kind, currency, is_active) VALUES (?, 'internal', 'USD', TRUE)",
+                accountRows);
+            jdbc.batchUpdate("""
+                INSERT INTO journal (id, status, created_at, posted_at, currency, debit_total_cents, credit_total_cents)
+                VALUES (?, 'posted', ?, ?, 'USD', 100, 100)""", journals);
+            jdbc.batchUpdate("""
+                INSERT INTO ledger_entry (id, journal_id, account_id, side, amount_cents, currency, created_at)
+                VALUES (?, ?, ?, ?, 100, 'USD', ?)""", entries);
+        }
+        to = Instant.now().plusSeconds(60);
+    }
+
+    @Setup(Level.Invocation)
+    public void clearStatements() throws IOException {
+        if (Files.exists(DIR)) {
+            try (Stream<Path> files = Files.walk(DIR)) {
+                files.sorted(Comparator.reverseOrder()).forEach(f -> f.toFile().delete());
+            }
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void stop() {
+        context.close();
+    }
+
+    @Benchmark
+    public Object generate() {
+        return statementService.generate(from, to);
+    }
+}
@@ -0,0 +1,57 @@
+package com.example.banking.config;
+
+import java.net.URI;
+import java.time.Duration;
+import java.util.OptionalLong;
+import java.util.UUID;
+
+import javax.cache.CacheManager;
+import javax.cache.Caching;
+
+import org.hibernate.cache.jcache.ConfigSettings;
+import org.hibernate.cfg.CacheSettings;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import com.example.banking.entity.Account;
+import com.example.banking.entity.Customer;
+import com.github.benmanes.caffeine.jcache.configuration.CaffeineConfiguration;
+import com.github.benmanes.caffeine.jcache.spi.CaffeineCachingProvider;
+
+@Configuration
+public class EntityCacheConfig {
+
+  // Second-level cache for reference rows read on every posting (account active
+  // check, owner lookups). Entries are bounded and expire after the TTL; updates
+  // made through the persistence context (setActive, updateProfile) replace the
+  // cached entry on commit. Hit/miss counts are published by hibernate-micrometer
+  // as hibernate.second.level.cache.requests{region,result}.
+  @Bean(destroyMethod = "close")
+  public CacheManager entityCacheManager(
+      @Value("${banking.entity-cache.max-size:10000}") long maxSize,
+      @Value("${banking.entity-cache.ttl:10m}") Duration ttl) {
+    var provider = Caching.getCachingProvider(CaffeineCachingProvider.class.getName());
+    // a private manager per application context, so test contexts do not share regions
+    var manager = provider.getCacheManager(URI.create("banking-entity-cache:" + UUID.randomUUID()),
+        getClass().getClassLoader());
+    for (String region : new String[] { Account.CACHE_REGION, Customer.CACHE_REGION }) {
+      var config = new CaffeineConfiguration<Object, Object>();
+      config.setMaximumSize(OptionalLong.of(maxSize));
+      config.setExpireAfterWrite(OptionalLong.of(ttl.toNanos()));
+      manager.createCache(region, config);
+    }
+    return manager;
+  }
+
+  @Bean
+  public HibernatePropertiesCustomizer entityCacheProperties(CacheManager entityCacheManager) {
+    return props -> {
+      props.put(CacheSettings.USE_SECOND_LEVEL_CACHE, true);
+      props.put(CacheSettings.CACHE_REGION_FACTORY, "jcache");
+      props.put(ConfigSettings.CACHE_MANAGER, entityCacheManager);
+      props.put(ConfigSettings.MISSING_CACHE_STRATEGY, "fail");
+    };
+  }
+}
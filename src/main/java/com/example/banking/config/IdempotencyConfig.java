@@ -0,0 +1,23 @@
+package com.example.banking.config;
+
+import org.springframework.boot.autoconfigure.security.SecurityProperties;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import com.example.banking.controller.filter.IdempotencyFilter;
+import com.example.banking.service.IdempotencyService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+@Configuration
+public class IdempotencyConfig {
+
+  // Registered behind the security chain so the authenticated caller is part of the key
+  @Bean
+  public FilterRegistrationBean<IdempotencyFilter> idempotencyFilter(IdempotencyService idempotencyService,
+      ObjectMapper objectMapper) {
+    var registration = new FilterRegistrationBean<>(new IdempotencyFilter(idempotencyService, objectMapper));
+    registration.setOrder(SecurityProperties.DEFAULT_FILTER_ORDER + 1);
+    return registration;
+  }
+}
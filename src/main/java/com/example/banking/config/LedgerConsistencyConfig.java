@@ -0,0 +1,54 @@
+package com.example.banking.config;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import com.example.banking.service.AccountBalanceService;
+import com.example.banking.service.BalanceCheckpointService;
+import com.example.banking.service.JournalService;
+
+@Configuration
+public class LedgerConsistencyConfig {
+
+  private static final Logger log = LoggerFactory.getLogger(LedgerConsistencyConfig.class);
+
+  // Checks the denormalized ledger data (account_balance, journal running totals)
+  // against ledger_entry on startup; off unless banking.ledger.startup-check is set,
+  // since either mode scans the whole ledger. After restoring the ledger from a
+  // backup, set it to rebuild to recompute them (and the balance checkpoints);
+  // "verify" only reports drift.
+  @Bean
+  public ApplicationRunner ledgerConsistencyStartup(AccountBalanceService balances, JournalService journals,
+      BalanceCheckpointService checkpoints, @Value("${banking.ledger.startup-check:none}") String mode) {
+    return args -> {
+      switch (mode) {
+        case "rebuild" -> {
+          int rows = journals.rebuildTotals();
+          log.info("Rebuilt running totals for {} journals", rows);
+          balances.rebuild();
+          checkpoints.rebuild();
+        }
+        case "verify" -> {
+          var result = balances.verify();
+          if (result.consistent()) {
+            log.info("account_balance is consistent with the ledger");
+          } else {
+            log.warn("account_balance drift: {} mismatched, {} missing rows",
+                result.drift().size(), result.missingAccounts().size());
+          }
+          var totals = journals.verifyTotals();
+          if (totals.isEmpty()) {
+            log.info("journal running totals are consistent with the ledger");
+          } else {
+            log.warn("journal running totals drift on {} journals", totals.size());
+          }
+        }
+        default -> { /* none */ }
+      }
+    };
+  }
+}
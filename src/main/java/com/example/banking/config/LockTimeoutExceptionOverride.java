@@ -0,0 +1,27 @@
+package com.example.banking.config;
+
+import java.sql.SQLException;
+import java.sql.SQLTimeoutException;
+
+import com.zaxxer.hikari.SQLExceptionOverride;
+
+/*
+ * Hikari treats every SQLTimeoutException as a dead connection and evicts it.
+ * H2 reports a row-lock wait that ran out (error 50200, HYT00) the same way, but
+ * the connection is fine: evicting it makes the rollback fail and turns a
+ * retryable lock conflict into a JpaSystemException. Keep those connections so
+ * the transaction rolls back normally and ConcurrencyRetry can run it again.
+ *
+ * Registered by class name: spring.datasource.hikari.exception-override-class-name
+ */
+public class LockTimeoutExceptionOverride implements SQLExceptionOverride {
+
+  static final int H2_LOCK_TIMEOUT = 50200;
+
+  @java.lang.Override
+  public Override adjudicate(SQLException e) {
+    return e instanceof SQLTimeoutException && e.getErrorCode() == H2_LOCK_TIMEOUT
+        ? Override.DO_NOT_EVICT
+        : Override.CONTINUE_EVICT;
+  }
+}
@@ -0,0 +1,95 @@
+package com.example.banking.config;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.stereotype.Component;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordedFrame;
+import jdk.jfr.consumer.RecordingStream;
+
+/*
+ * Guard against carrier pinning when requests run on virtual threads: streams
+ * the JDK's jdk.VirtualThreadPinned events (a virtual thread that blocked for
+ * longer than banking.threads.pinned-threshold while it could not unmount,
+ * typically inside a synchronized block) into banking.threads.virtual.pinned,
+ * and logs the stack the first time each blocking site is seen. On runtimes
+ * without the event the stream simply stays empty.
+ */
+@Component
+@ConditionalOnProperty(name = "spring.threads.virtual.enabled", havingValue = "true")
+public class PinnedThreadMonitor implements SmartLifecycle {
+
+  private static final Logger log = LoggerFactory.getLogger(PinnedThreadMonitor.class);
+
+  private static final String PINNED_EVENT = "jdk.VirtualThreadPinned";
+  private static final int LOGGED_FRAMES = 12;
+
+  private final Duration threshold;
+  private final Counter pinned;
+  private final Set<String> reportedSites = ConcurrentHashMap.newKeySet();
+  private RecordingStream stream;
+
+  public PinnedThreadMonitor(@Value("${banking.threads.pinned-threshold:20ms}") Duration threshold,
+      MeterRegistry meterRegistry) {
+    this.threshold = threshold;
+    this.pinned = Counter.builder("banking.threads.virtual.pinned")
+        .description("Virtual threads that blocked while pinned to their carrier")
+        .register(meterRegistry);
+  }
+
+  @Override
+  public void start() {
+    stream = new RecordingStream();
+    stream.enable(PINNED_EVENT).withThreshold(threshold).withStackTrace();
+    stream.onEvent(PINNED_EVENT, this::onPinned);
+    stream.startAsync();
+  }
+
+  private void onPinned(RecordedEvent event) {
+    pinned.increment();
+    List<RecordedFrame> frames = event.getStackTrace() == null ? List.of() : event.getStackTrace().getFrames();
+    // the top frames are the JDK parking the thread; start at the blocking call just below them
+    int from = 0;
+    while (from < frames.size() && isJdkFrame(frames.get(from))) {
+      from++;
+    }
+    from = from == frames.size() ? 0 : Math.max(0, from - 1);
+    StringBuilder stack = new StringBuilder();
+    for (RecordedFrame frame : frames.subList(from, Math.min(from + LOGGED_FRAMES, frames.size()))) {
+      stack.append("\n\tat ").append(frame.getMethod().getType().getName()).append('.')
+          .append(frame.getMethod().getName()).append(':').append(frame.getLineNumber());
+    }
+    if (reportedSites.add(stack.toString())) {
+      log.warn("Virtual thread pinned to its carrier for {} ms{}", event.getDuration().toMillis(), stack);
+    }
+  }
+
+  private static boolean isJdkFrame(RecordedFrame frame) {
+    String type = frame.getMethod().getType().getName();
+    return type.startsWith("java.") || type.startsWith("jdk.") || type.startsWith("sun.");
+  }
+
+  @Override
+  public void stop() {
+    if (stream != null) {
+      stream.close();
+      stream = null;
+    }
+  }
+
+  @Override
+  public boolean isRunning() {
+    return stream != null;
+  }
+}
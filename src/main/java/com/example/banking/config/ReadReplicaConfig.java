@@ -0,0 +1,88 @@
+package com.example.banking.config;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+import javax.sql.DataSource;
+
+import org.hibernate.cfg.JdbcSettings;
+import org.hibernate.resource.jdbc.spi.PhysicalConnectionHandlingMode;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.metrics.micrometer.MicrometerMetricsTrackerFactory;
+
+import io.micrometer.core.instrument.MeterRegistry;
+
+@Configuration
+@ConditionalOnProperty(prefix = "banking.datasource.replica", name = "urls")
+public class ReadReplicaConfig {
+
+  // Read replicas. The application DataSource routes each connection to the
+  // primary pool (spring.datasource.*) or, inside a @Transactional(readOnly =
+  // true) transaction, to a replica. The lazy proxy in front defers fetching
+  // the real connection to the first statement, when the transaction manager
+  // has already published the read-only flag that routing looks at.
+  @Bean
+  @ConfigurationProperties("spring.datasource.hikari")
+  public HikariDataSource primaryDataSource(DataSourceProperties properties) {
+    HikariDataSource primary = properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+    primary.setPoolName("primary");
+    return primary;
+  }
+
+  @Bean(destroyMethod = "close")
+  public ReplicaRoutingDataSource replicaRoutingDataSource(HikariDataSource primaryDataSource,
+      DataSourceProperties properties,
+      @Value("${banking.datasource.replica.urls}") List<String> urls,
+      @Value("${banking.datasource.replica.maximum-pool-size:10}") int maxPoolSize,
+      ObjectProvider<ReadYourWrites> readYourWrites, MeterRegistry meterRegistry) {
+    List<HikariDataSource> replicas = new ArrayList<>(urls.size());
+    for (String url : urls) {
+      HikariDataSource replica = properties.initializeDataSourceBuilder()
+          .type(HikariDataSource.class).url(url.trim()).build();
+      replica.setPoolName("replica-" + replicas.size());
+      replica.setReadOnly(true);
+      replica.setMaximumPoolSize(maxPoolSize);
+      replica.setExceptionOverrideClassName(primaryDataSource.getExceptionOverrideClassName());
+      replica.setMetricsTrackerFactory(new MicrometerMetricsTrackerFactory(meterRegistry)); // hikaricp.* {pool}
+      replicas.add(replica);
+    }
+    return new ReplicaRoutingDataSource(primaryDataSource, replicas, readYourWrites.getIfAvailable(), meterRegistry);
+  }
+
+  @Bean
+  @Primary
+  public DataSource dataSource(ReplicaRoutingDataSource replicaRoutingDataSource) {
+    return new LazyConnectionDataSourceProxy(replicaRoutingDataSource);
+  }
+
+  // Spring holds a JPA connection for the whole session by default, so with
+  // open-in-view a request would keep the first connection it got, replica or
+  // primary, for every later transaction; take a fresh one per transaction
+  // (lazy loading after a transaction then reads from the primary).
+  @Bean
+  public HibernatePropertiesCustomizer replicaConnectionHandling() {
+    return props -> props.put(JdbcSettings.CONNECTION_HANDLING,
+        PhysicalConnectionHandlingMode.DELAYED_ACQUISITION_AND_RELEASE_AFTER_TRANSACTION);
+  }
+
+  // Registered on the transaction manager as a TransactionExecutionListener
+  @Bean
+  @ConditionalOnProperty(prefix = "banking.datasource.replica", name = "read-your-writes", havingValue = "true")
+  public ReadYourWrites readYourWrites(
+      @Value("${banking.datasource.replica.sticky-window:5s}") Duration stickyWindow,
+      @Value("${banking.datasource.replica.sticky-principals:100000}") long maxPrincipals) {
+    return new ReadYourWrites(stickyWindow, maxPrincipals);
+  }
+}
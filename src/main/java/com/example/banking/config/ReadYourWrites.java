@@ -0,0 +1,64 @@
+package com.example.banking.config;
+
+import java.time.Duration;
+
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.transaction.TransactionExecution;
+import org.springframework.transaction.TransactionExecutionListener;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+/*
+ * Read-your-writes for replica routing. Every committed read-write transaction
+ * marks the current request, and the authenticated principal for the sticky
+ * window; read-only transactions of a marked request, or of that principal in
+ * a later request within the window, are served by the primary. Set the window
+ * to at least the replicas' typical lag. Background threads (async posting,
+ * scheduled jobs) have neither, so their reads always go to a replica.
+ */
+public class ReadYourWrites implements TransactionExecutionListener {
+
+  private static final String WROTE = ReadYourWrites.class.getName() + ".wrote";
+
+  private final Cache<String, Boolean> recentWriters;
+
+  public ReadYourWrites(Duration stickyWindow, long maxPrincipals) {
+    this.recentWriters = Caffeine.newBuilder()
+        .expireAfterWrite(stickyWindow)
+        .maximumSize(maxPrincipals)
+        .build();
+  }
+
+  @Override
+  public void afterCommit(TransactionExecution transaction, Throwable commitFailure) {
+    if (commitFailure != null || transaction.isReadOnly() || !transaction.isNewTransaction()) {
+      return;
+    }
+    RequestAttributes request = RequestContextHolder.getRequestAttributes();
+    if (request != null) {
+      request.setAttribute(WROTE, Boolean.TRUE, RequestAttributes.SCOPE_REQUEST);
+    }
+    String principal = principal();
+    if (principal != null) {
+      recentWriters.put(principal, Boolean.TRUE);
+    }
+  }
+
+  boolean pinnedToPrimary() {
+    RequestAttributes request = RequestContextHolder.getRequestAttributes();
+    if (request != null && request.getAttribute(WROTE, RequestAttributes.SCOPE_REQUEST) != null) {
+      return true;
+    }
+    String principal = principal();
+    return principal != null && recentWriters.getIfPresent(principal) != null;
+  }
+
+  private static String principal() {
+    Authentication auth = SecurityContextHolder.getContext().getAuthentication();
+    return auth == null || !auth.isAuthenticated() ? null : auth.getName();
+  }
+}
@@ -0,0 +1,74 @@
+package com.example.banking.config;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import javax.sql.DataSource;
+
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import com.zaxxer.hikari.HikariDataSource;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+
+/*
+ * The application DataSource when replicas are configured (see
+ * ReadReplicaConfig). A connection fetched inside a read-only transaction comes
+ * from the next replica pool in turn, or from the primary when ReadYourWrites
+ * says the caller has just written and a replica might not have caught up yet;
+ * every other connection comes from the primary.
+ */
+public class ReplicaRoutingDataSource extends AbstractRoutingDataSource implements AutoCloseable {
+
+  static final String PRIMARY = "primary";
+
+  private final List<HikariDataSource> replicas;
+  private final ReadYourWrites readYourWrites; // null: always a replica
+  private final AtomicInteger next = new AtomicInteger();
+  private final Counter toReplica;
+  private final Counter toPrimary;
+
+  public ReplicaRoutingDataSource(DataSource primary, List<HikariDataSource> replicas,
+      ReadYourWrites readYourWrites, MeterRegistry meterRegistry) {
+    this.replicas = replicas;
+    this.readYourWrites = readYourWrites;
+    Map<Object, Object> targets = new HashMap<>();
+    targets.put(PRIMARY, primary);
+    for (int i = 0; i < replicas.size(); i++) {
+      targets.put(i, replicas.get(i));
+    }
+    setTargetDataSources(targets);
+    setDefaultTargetDataSource(primary);
+    setLenientFallback(false);
+    this.toReplica = routedCounter(meterRegistry, "replica");
+    this.toPrimary = routedCounter(meterRegistry, "primary");
+  }
+
+  private static Counter routedCounter(MeterRegistry meterRegistry, String target) {
+    return Counter.builder("banking.datasource.read.routed")
+        .description("Read-only connections by the pool that served them")
+        .tag("target", target).register(meterRegistry);
+  }
+
+  @Override
+  protected Object determineCurrentLookupKey() {
+    if (!TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+      return PRIMARY;
+    }
+    if (readYourWrites != null && readYourWrites.pinnedToPrimary()) {
+      toPrimary.increment();
+      return PRIMARY;
+    }
+    toReplica.increment();
+    return Math.floorMod(next.getAndIncrement(), replicas.size());
+  }
+
+  @Override
+  public void close() {
+    replicas.forEach(HikariDataSource::close);
+  }
+}
@@ -1,9 +1,12 @@
 package com.example.banking.config;
 
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.http.HttpStatus;
 import org.springframework.security.config.Customizer;
 import org.springframework.security.config.annotation.web.builders.HttpSecurity;
+import org.springframework.security.config.http.SessionCreationPolicy;
 import org.springframework.security.core.userdetails.User;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.core.userdetails.UserDetailsService;
@@ -12,6 +15,11 @@ import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.security.provisioning.InMemoryUserDetailsManager;
 import org.springframework.security.web.SecurityFilterChain;
+import org.springframework.security.web.authentication.HttpStatusEntryPoint;
+import org.springframework.security.web.authentication.www.BasicAuthenticationFilter;
+
+import com.example.banking.security.AccessTokenFilter;
+import com.example.banking.security.AccessTokenService;
 
 @Configuration
 public class SecurityConfig {
@@ -31,18 +39,27 @@ public class SecurityConfig {
   }
 
   @Bean
-  public SecurityFilterChain filterChain(HttpSecurity http) throws Exception {
+  public SecurityFilterChain filterChain(HttpSecurity http, AccessTokenService accessTokens,
+      @Value("${banking.auth.http-basic:false}") boolean httpBasic) throws Exception {
     http
         .csrf(csrf -> csrf.disable()) // Disable CSRF for H2 console access in dev
         .headers(h -> h.frameOptions(f -> f.sameOrigin())) // Allow H2 console to load in a frame
+        .sessionManagement(s -> s.sessionCreationPolicy(SessionCreationPolicy.STATELESS))
         .authorizeHttpRequests(auth -> auth
             .requestMatchers(
                 "/auth/**", // allow ALL auth endpoints (register, login)
                 "/h2-console/**",
+                "/actuator/health",
                 "/v3/api-docs/**", "/swagger-ui/**", "/swagger-ui.html")
             .permitAll() // Permit access to H2 console and auth endpoints
             .anyRequest().authenticated())
-        .httpBasic(Customizer.withDefaults());
+        // Bearer tokens from /auth/login: HMAC check per request instead of BCrypt
+        .addFilterBefore(new AccessTokenFilter(accessTokens), BasicAuthenticationFilter.class);
+    if (httpBasic) {
+      http.httpBasic(Customizer.withDefaults()); // dev fallback for the in-memory user
+    } else {
+      http.exceptionHandling(e -> e.authenticationEntryPoint(new HttpStatusEntryPoint(HttpStatus.UNAUTHORIZED)));
+    }
     // .formLogin(Customizer.withDefaults());
     return http.build();
   }
@@ -0,0 +1,40 @@
+package com.example.banking.config;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableAsync;
+import org.springframework.scheduling.annotation.EnableScheduling;
+
+/*
+ * Request threads: Tomcat's platform worker pool by default; with
+ * spring.threads.virtual.enabled (the virtual-threads profile, Java 21+) Tomcat
+ * requests, @Async work (Boot's applicationTaskExecutor) and @Scheduled jobs
+ * run on virtual threads instead.
+ *
+ * Pinning: a virtual thread that blocks inside a synchronized block holds its
+ * carrier. Application code uses java.util.concurrent locks only; drivers and
+ * libraries are watched by PinnedThreadMonitor.
+ */
+@Configuration
+@EnableAsync
+@EnableScheduling // idempotency purge, balance checkpoints, hold and pending-journal expiry, archival, engine snapshots, statements
+public class ThreadingConfig {
+
+  private static final Logger log = LoggerFactory.getLogger(ThreadingConfig.class);
+
+  @Bean
+  public ApplicationRunner threadingModeReport(@Value("${spring.threads.virtual.enabled:false}") boolean virtual) {
+    return args -> {
+      int feature = Runtime.version().feature();
+      if (virtual && feature < 21) {
+        log.warn("spring.threads.virtual.enabled is set but Java {} has no virtual threads; using platform threads", feature);
+      } else {
+        log.info("Request execution: {} threads", virtual ? "virtual" : "platform");
+      }
+    };
+  }
+}
@@ -1,8 +1,10 @@
 package com.example.banking.controller;
 
+import java.time.Instant;
 import java.util.List;
 import java.util.UUID;
 
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.HttpStatus;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
@@ -13,6 +15,7 @@ import org.springframework.web.bind.annotation.RestController;
 
 import com.example.banking.dto.OpenAccountRequestDTO;
 import com.example.banking.dto.AccountResponseDTO;
+import com.example.banking.dto.BalanceResponseDTO;
 import com.example.banking.dto.ToggleActiveRequestDTO;
 import com.example.banking.service.AccountService;
 
@@ -55,6 +58,13 @@ public class AccountController {
         return AccountResponseDTO.of(accountService.getAccount(accountId, customerId));
     }
 
+    @Operation(summary = "Get account balance", description = "Returns the current balance, or with asOf (ISO-8601 instant) the balance of posted entries created before that instant.")
+    @GetMapping("/accounts/{accountId}/balance")
+    public BalanceResponseDTO balance(@PathVariable UUID accountId,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) Instant asOf) {
+        return BalanceResponseDTO.of(accountService.balance(accountId, asOf));
+    }
+
     @Operation(summary = "Activate or deactivate an account", description = "Sets the active status of a specified bank account.")
     @PatchMapping("/accounts/{accountId}/active")
     @ResponseStatus(HttpStatus.NO_CONTENT)
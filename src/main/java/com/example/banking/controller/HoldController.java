@@ -0,0 +1,63 @@
+package com.example.banking.controller;
+
+import java.util.List;
+import java.util.UUID;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.ResponseStatus;
+import org.springframework.web.bind.annotation.RestController;
+
+import com.example.banking.dto.AuthorizeHoldRequestDTO;
+import com.example.banking.dto.CaptureHoldRequestDTO;
+import com.example.banking.dto.HoldResponseDTO;
+import com.example.banking.service.HoldService;
+
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.validation.Valid;
+
+@RestController
+@Tag(name = "Holds", description = "Endpoints for authorizing, capturing and releasing funds holds")
+public class HoldController {
+
+    private final HoldService holdService;
+
+    public HoldController(HoldService holdService) {
+        this.holdService = holdService;
+    }
+
+    @Operation(summary = "Authorize a hold", description = "Reserves funds on an account; fails when the available balance (balance minus active holds) is too low.")
+    @PostMapping("/accounts/{accountId}/holds")
+    @ResponseStatus(HttpStatus.CREATED)
+    public HoldResponseDTO authorize(@PathVariable UUID accountId, @Valid @RequestBody AuthorizeHoldRequestDTO req) {
+        return HoldResponseDTO.of(holdService.authorize(accountId, req.amountCents(), req.currency(),
+            req.description(), req.expiresAt()));
+    }
+
+    @Operation(summary = "List active holds", description = "Lists the holds currently reducing an account's available balance.")
+    @GetMapping("/accounts/{accountId}/holds")
+    public List<HoldResponseDTO> activeHolds(@PathVariable UUID accountId) {
+        return holdService.activeHolds(accountId).stream().map(HoldResponseDTO::of).toList();
+    }
+
+    @GetMapping("/holds/{holdId}")
+    public HoldResponseDTO get(@PathVariable UUID holdId) {
+        return HoldResponseDTO.of(holdService.getHold(holdId));
+    }
+
+    @Operation(summary = "Capture a hold", description = "Posts the held amount (or part of it) to a counterparty account and releases the rest.")
+    @PostMapping("/holds/{holdId}/capture")
+    public HoldResponseDTO capture(@PathVariable UUID holdId, @Valid @RequestBody CaptureHoldRequestDTO req) {
+        return HoldResponseDTO.of(holdService.capture(holdId, req.creditAccountId(), req.amountCents()));
+    }
+
+    @Operation(summary = "Release a hold", description = "Returns the held amount to the available balance.")
+    @PostMapping("/holds/{holdId}/release")
+    public HoldResponseDTO release(@PathVariable UUID holdId) {
+        return HoldResponseDTO.of(holdService.release(holdId));
+    }
+}
@@ -1,9 +1,16 @@
 package com.example.banking.controller;
 
+import java.net.URI;
+import java.time.Duration;
+import java.time.Instant;
 import java.util.List;
 import java.util.UUID;
+import java.util.function.Supplier;
 
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.CacheControl;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
@@ -12,13 +19,24 @@ import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.ResponseStatus;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.WebRequest;
 
 import com.example.banking.dto.AddEntryRequestDTO;
 import com.example.banking.dto.JournalResponseDTO;
+import com.example.banking.dto.JournalSubmissionResponseDTO;
 import com.example.banking.dto.LedgerEntryResponseDTO;
+import com.example.banking.dto.PostingStatusResponseDTO;
+import com.example.banking.dto.SubmitJournalRequestDTO;
 import com.example.banking.entity.Journal;
 import com.example.banking.entity.LedgerEntry;
+import com.example.banking.model.HistoryCursor;
+import com.example.banking.model.JournalSearch;
+import com.example.banking.model.JournalStatus;
+import com.example.banking.service.AsyncPostingService;
 import com.example.banking.service.JournalService;
+import com.example.banking.service.JournalService.EntryLine;
+import com.example.banking.service.JournalService.JournalDiagnostics;
+import com.example.banking.service.JournalService.JournalTag;
 
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.tags.Tag;
@@ -29,9 +47,11 @@ import jakarta.validation.Valid;
 @Tag(name = "Journals", description = "Endpoints for managing financial journals")
 public class JournalController {
     private final JournalService journalService;
+    private final AsyncPostingService asyncPostingService;
 
-    public JournalController(JournalService journalService) {
+    public JournalController(JournalService journalService, AsyncPostingService asyncPostingService) {
         this.journalService = journalService;
+        this.asyncPostingService = asyncPostingService;
     }
 
     @Operation(summary = "Create a new journal", description = "Creates a new financial journal with optional description and external reference.")
@@ -40,10 +60,52 @@ public class JournalController {
     public JournalResponseDTO create(@RequestParam(required = false) String description,
             @RequestParam(required = false) String externalRef) {
         Journal j = journalService.createJournal(description, externalRef);
-        var diag = journalService.diagnostics(j.getId());
+        var diag = JournalDiagnostics.of(j);
         return JournalResponseDTO.of(j, diag.balanced(), diag.currency(), diag.debitTotalCents(), diag.creditTotalCents(), diag.netCents());
     }
 
+    @Operation(summary = "Search journals", description = "Lists journals newest first, filtered by status, created/posted range "
+            + "(ISO-8601, from inclusive, to exclusive) and externalRef prefix. Keyset paginated: pass the X-Next-Cursor "
+            + "header of a page as cursor to get the next one.")
+    @GetMapping
+    public ResponseEntity<List<JournalResponseDTO>> search(
+            @RequestParam(required = false) JournalStatus status,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) Instant createdFrom,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) Instant createdTo,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) Instant postedFrom,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) Instant postedTo,
+            @RequestParam(required = false) String externalRefPrefix,
+            @RequestParam(defaultValue = "20") int size,
+            @RequestParam(required = false) String cursor) {
+        var filter = new JournalSearch(status, createdFrom, createdTo, postedFrom, postedTo,
+            externalRefPrefix == null || externalRefPrefix.isEmpty() ? null : externalRefPrefix);
+        var result = journalService.searchJournals(filter,
+            cursor == null || cursor.isBlank() ? null : HistoryCursor.decode(cursor), size);
+        var response = ResponseEntity.ok();
+        if (result.nextCursor() != null) {
+            response.header(LedgerEntryController.NEXT_CURSOR_HEADER, result.nextCursor());
+        }
+        return response.body(result.journals().stream().map(j -> {
+            var diag = JournalDiagnostics.of(j);
+            return JournalResponseDTO.of(j, diag.balanced(), diag.currency(), diag.debitTotalCents(), diag.creditTotalCents(), diag.netCents());
+        }).toList());
+    }
+
+    @Operation(summary = "Submit a complete journal", description = "Creates a journal with all of its entries in one transaction and optionally posts it.")
+    @PostMapping("/submit")
+    @ResponseStatus(HttpStatus.CREATED)
+    public JournalSubmissionResponseDTO submit(@Valid @RequestBody SubmitJournalRequestDTO req) {
+        var lines = req.entries().stream()
+            .map(e -> new EntryLine(e.accountId(), e.side(), e.currency(), e.amountCents()))
+            .toList();
+        var result = journalService.submitJournal(req.description(), req.externalRef(), lines, req.post());
+        Journal j = result.journal();
+        var diag = JournalDiagnostics.of(j);
+        return new JournalSubmissionResponseDTO(
+            JournalResponseDTO.of(j, diag.balanced(), diag.currency(), diag.debitTotalCents(), diag.creditTotalCents(), diag.netCents()),
+            result.entries().stream().map(LedgerEntryResponseDTO::of).toList());
+    }
+
     @Operation(summary = "Add an entry to a journal", description = "Adds a ledger entry to a specified journal.")
     @PostMapping("/{journalId}/entries")
     @ResponseStatus(HttpStatus.CREATED)
@@ -55,19 +117,50 @@ public class JournalController {
     @PostMapping("/{journalId}/post")
     public JournalResponseDTO post(@PathVariable UUID journalId) {
         Journal j = journalService.postJournal(journalId);
-        var diag = journalService.diagnostics(journalId);
+        var diag = JournalDiagnostics.of(j);
         return JournalResponseDTO.of(j, diag.balanced(), diag.currency(), diag.debitTotalCents(), diag.creditTotalCents(), diag.netCents());
     }
 
+    @Operation(summary = "Queue a journal for posting", description = "Accepts a pending journal for asynchronous posting; poll the returned Location for the outcome.")
+    @PostMapping("/{journalId}/post-async")
+    public ResponseEntity<PostingStatusResponseDTO> postAsync(@PathVariable UUID journalId) {
+        var status = asyncPostingService.submit(journalId);
+        return ResponseEntity.accepted()
+            .location(URI.create("/journals/" + journalId + "/posting"))
+            .body(PostingStatusResponseDTO.of(status));
+    }
+
+    @GetMapping("/{journalId}/posting")
+    public PostingStatusResponseDTO postingStatus(@PathVariable UUID journalId) {
+        return PostingStatusResponseDTO.of(asyncPostingService.status(journalId));
+    }
+
     @GetMapping("/{journalId}/entries")
-    public List<LedgerEntryResponseDTO> listEntries(@PathVariable UUID journalId) {
-        return journalService.listEntries(journalId).stream().map(LedgerEntryResponseDTO::of).toList();
+    public ResponseEntity<List<LedgerEntryResponseDTO>> listEntries(@PathVariable UUID journalId, WebRequest request) {
+        return conditional(journalId, request,
+            () -> journalService.listEntries(journalId).stream().map(LedgerEntryResponseDTO::of).toList());
     }
 
     @GetMapping("/{journalId}")
-    public JournalResponseDTO get(@PathVariable UUID journalId) {
-        Journal j = journalService.getJournal(journalId);
-        var diag = journalService.diagnostics(journalId);
-        return JournalResponseDTO.of(j, diag.balanced(), diag.currency(), diag.debitTotalCents(), diag.creditTotalCents(), diag.netCents());
+    public ResponseEntity<JournalResponseDTO> get(@PathVariable UUID journalId, WebRequest request) {
+        return conditional(journalId, request, () -> {
+            Journal j = journalService.getJournal(journalId);
+            var diag = JournalDiagnostics.of(j);
+            return JournalResponseDTO.of(j, diag.balanced(), diag.currency(), diag.debitTotalCents(), diag.creditTotalCents(), diag.netCents());
+        });
+    }
+
+    // Answers If-None-Match from the journal's tag alone; the body is only built on a miss.
+    // The tag is read before the body, so a concurrent entry can only make it older than the
+    // body, which costs the client one extra full response but never a stale one.
+    private <T> ResponseEntity<T> conditional(UUID journalId, WebRequest request, Supplier<T> body) {
+        JournalTag tag = journalService.journalTag(journalId);
+        CacheControl cacheControl = tag.immutable()
+            ? CacheControl.maxAge(Duration.ofDays(365)).cachePrivate().immutable()
+            : CacheControl.noCache().cachePrivate();
+        if (request.checkNotModified(tag.etag())) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(tag.etag()).cacheControl(cacheControl).build();
+        }
+        return ResponseEntity.ok().eTag(tag.etag()).cacheControl(cacheControl).body(body.get());
     }
 }
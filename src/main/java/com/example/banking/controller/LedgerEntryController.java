@@ -1,8 +1,17 @@
 package com.example.banking.controller;
 
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
 import java.util.List;
 import java.util.UUID;
 
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.RequestMapping;
@@ -10,28 +19,88 @@ import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 
 import com.example.banking.dto.LedgerEntryResponseDTO;
+import com.example.banking.model.ExportFormat;
+import com.example.banking.model.HistoryCursor;
 import com.example.banking.service.LedgerEntryService;
+import com.fasterxml.jackson.databind.ObjectMapper;
 
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.servlet.http.HttpServletResponse;
 
 @RestController
 @RequestMapping("/accounts/{accountId}/entries")
 @Tag(name = "Ledger Entries", description = "Endpoints for retrieving ledger entries for accounts")
 public class LedgerEntryController {
+    static final String NEXT_CURSOR_HEADER = "X-Next-Cursor";
+
+    private static final byte[] CSV_HEADER =
+        "id,journalId,accountId,side,amountCents,currency,createdAt,balanceAfterCents\n".getBytes(StandardCharsets.UTF_8);
+
     private final LedgerEntryService ledgerEntryService;
+    private final ObjectMapper objectMapper;
 
-    public LedgerEntryController(LedgerEntryService ledgerEntryService) {
+    public LedgerEntryController(LedgerEntryService ledgerEntryService, ObjectMapper objectMapper) {
         this.ledgerEntryService = ledgerEntryService;
+        this.objectMapper = objectMapper;
     }
 
-    @Operation(summary = "Get account ledger history", description = "Retrieves a paginated list of ledger entries for a specified account.")
+    @Operation(summary = "Get account ledger history", description = "Retrieves a paginated list of ledger entries for a specified account. "
+            + "Pass cursor (empty for the first page) for keyset pagination; the next cursor is returned in the X-Next-Cursor header.")
     @GetMapping
-    public List<LedgerEntryResponseDTO> history(@PathVariable UUID accountId,
+    public ResponseEntity<List<LedgerEntryResponseDTO>> history(@PathVariable UUID accountId,
             @RequestParam(defaultValue = "0") int page,
-            @RequestParam(defaultValue = "20") int size) {
-        return ledgerEntryService.accountHistory(accountId, page, size).stream()
-            .map(LedgerEntryResponseDTO::of)
-            .toList();
+            @RequestParam(defaultValue = "20") int size,
+            @RequestParam(required = false) String cursor) {
+        if (cursor == null) {
+            // offset mode, kept for existing clients
+            return ResponseEntity.ok(ledgerEntryService.accountHistory(accountId, page, size));
+        }
+        var result = ledgerEntryService.accountHistory(accountId,
+            cursor.isBlank() ? null : HistoryCursor.decode(cursor), size);
+        var response = ResponseEntity.ok();
+        if (result.nextCursor() != null) {
+            response.header(NEXT_CURSOR_HEADER, result.nextCursor());
+        }
+        return response.body(result.entries());
+    }
+
+    @Operation(summary = "Export account ledger history", description = "Streams every ledger entry of the account, oldest first, as NDJSON or CSV. "
+            + "Optional from (inclusive) / to (exclusive) ISO-8601 instants bound the range.")
+    @GetMapping("/export")
+    public void export(@PathVariable UUID accountId,
+            @RequestParam(defaultValue = "NDJSON") ExportFormat format,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) Instant from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) Instant to,
+            HttpServletResponse response) throws IOException {
+        boolean csv = format == ExportFormat.CSV;
+        response.setContentType(csv ? "text/csv" : "application/x-ndjson");
+        response.setCharacterEncoding(StandardCharsets.UTF_8.name());
+        response.setHeader(HttpHeaders.CONTENT_DISPOSITION,
+            "attachment; filename=\"ledger-" + accountId + (csv ? ".csv" : ".ndjson") + "\"");
+
+        OutputStream out = new BufferedOutputStream(response.getOutputStream(), 16 * 1024);
+        if (csv) out.write(CSV_HEADER);
+        ledgerEntryService.exportAccountHistory(accountId, from, to, e -> {
+            try {
+                if (csv) {
+                    out.write(toCsvLine(e).getBytes(StandardCharsets.UTF_8));
+                } else {
+                    out.write(objectMapper.writeValueAsBytes(e));
+                    out.write('\n');
+                }
+            } catch (IOException ex) {
+                throw new UncheckedIOException(ex);
+            }
+        });
+        out.flush();
+    }
+
+    // every field is a UUID, enum-like token, number or ISO instant, so no quoting is needed
+    // (balanceAfterCents is empty while the entry's journal is pending)
+    private static String toCsvLine(LedgerEntryResponseDTO e) {
+        return e.id() + "," + e.journalId() + "," + e.accountId() + "," + e.side() + ","
+            + e.amountCents() + "," + e.currency() + "," + e.createdAt() + ","
+            + (e.balanceAfterCents() == null ? "" : e.balanceAfterCents()) + "\n";
     }
 }
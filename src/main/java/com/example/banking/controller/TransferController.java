@@ -0,0 +1,36 @@
+package com.example.banking.controller;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.ResponseStatus;
+import org.springframework.web.bind.annotation.RestController;
+
+import com.example.banking.dto.TransferRequestDTO;
+import com.example.banking.dto.TransferResponseDTO;
+import com.example.banking.service.JournalService;
+
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.validation.Valid;
+
+@RestController
+@RequestMapping("/transfers")
+@Tag(name = "Transfers", description = "Endpoint for simple account-to-account transfers")
+public class TransferController {
+
+    private final JournalService journalService;
+
+    public TransferController(JournalService journalService) {
+        this.journalService = journalService;
+    }
+
+    @Operation(summary = "Transfer between two accounts", description = "Debits the source and credits the destination account as one posted two-leg journal.")
+    @PostMapping
+    @ResponseStatus(HttpStatus.CREATED)
+    public TransferResponseDTO transfer(@Valid @RequestBody TransferRequestDTO req) {
+        return TransferResponseDTO.of(journalService.transfer(req.sourceAccountId(), req.destinationAccountId(),
+            req.currency(), req.amountCents(), req.description(), req.externalRef()));
+    }
+}
@@ -6,10 +6,10 @@ import jakarta.validation.ConstraintViolationException;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.slf4j.MDC;
+import org.springframework.dao.ConcurrencyFailureException;
 import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.http.*;
 import org.springframework.http.converter.HttpMessageNotReadableException;
-import org.springframework.orm.ObjectOptimisticLockingFailureException;
 import org.springframework.security.access.AccessDeniedException;
 import org.springframework.web.bind.MethodArgumentNotValidException;
 import org.springframework.web.bind.MissingRequestHeaderException;
@@ -46,7 +46,8 @@ public class GlobalExceptionHandler {
   }
 
   // ---------- 404: Not Found ----------
-  @ExceptionHandler({ CustomerNotFoundException.class, AccountNotFoundException.class, JournalNotFoundException.class })
+  @ExceptionHandler({ CustomerNotFoundException.class, AccountNotFoundException.class, JournalNotFoundException.class,
+      HoldNotFoundException.class })
   public ResponseEntity<ProblemDetail> handleNotFound(BankingException ex, HttpServletRequest req) {
     log.info("Not found: {}", ex.getMessage());
     return ResponseEntity.status(HttpStatus.NOT_FOUND)
@@ -62,7 +63,11 @@ public class GlobalExceptionHandler {
       InvalidTransactionSideException.class,
       InvalidAmountException.class,
       InvalidCurrencyCodeException.class,
-      InvalidAccountKindException.class
+      InvalidAccountKindException.class,
+      InvalidCursorException.class,
+      PageTooDeepException.class,
+      InvalidTransferException.class,
+      InvalidHoldExpiryException.class
   })
   public ResponseEntity<ProblemDetail> handleBadRequest(BankingException ex, HttpServletRequest req) {
     log.debug("Bad request: {}", ex.getMessage());
@@ -107,7 +112,8 @@ public class GlobalExceptionHandler {
   }
 
   // ---------- 422: Business rule violations ----------
-  @ExceptionHandler({ JournalNotPendingException.class, InactiveAccountException.class, UnbalancedJournalException.class })
+  @ExceptionHandler({ JournalNotPendingException.class, InactiveAccountException.class, UnbalancedJournalException.class,
+      InsufficientFundsException.class, HoldNotActiveException.class })
   public ResponseEntity<ProblemDetail> handleUnprocessable(BankingException ex, HttpServletRequest req) {
     log.debug("Business rule violation: {}", ex.getMessage());
     return ResponseEntity.unprocessableEntity()
@@ -130,10 +136,12 @@ public class GlobalExceptionHandler {
             "FORBIDDEN", req, Map.of()));
   }
 
-  // ---------- 409: Conflicts (DB + optimistic locking) ----------
-  @ExceptionHandler(ObjectOptimisticLockingFailureException.class)
-  public ResponseEntity<ProblemDetail> handleOptimisticLock(ObjectOptimisticLockingFailureException ex, HttpServletRequest req) {
+  // ---------- 409: Conflicts (DB + optimistic/pessimistic locking) ----------
+  // Reached only once ConcurrencyRetry has given up (or for writes that are not retried)
+  @ExceptionHandler(ConcurrencyFailureException.class)
+  public ResponseEntity<ProblemDetail> handleOptimisticLock(ConcurrencyFailureException ex, HttpServletRequest req) {
     return ResponseEntity.status(HttpStatus.CONFLICT)
+        .header(HttpHeaders.RETRY_AFTER, "1")
         .body(problem(HttpStatus.CONFLICT, "Concurrency conflict",
             "The resource was modified by another request. Please retry.",
             "CONCURRENCY_CONFLICT", req, Map.of()));
@@ -147,6 +155,15 @@ public class GlobalExceptionHandler {
             "DATA_INTEGRITY_VIOLATION", req, Map.of("detail", ex.getMostSpecificCause().getMessage())));
   }
 
+  // ---------- 503: Back-pressure ----------
+  @ExceptionHandler(PostingQueueFullException.class)
+  public ResponseEntity<ProblemDetail> handleQueueFull(PostingQueueFullException ex, HttpServletRequest req) {
+    return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+        .header(HttpHeaders.RETRY_AFTER, "1")
+        .body(problem(HttpStatus.SERVICE_UNAVAILABLE, "Service unavailable", ex.getMessage(),
+            ex.getCode().name(), req, ex.getMetadata()));
+  }
+
   // ---------- 500: Fallback ----------
   @ExceptionHandler(Exception.class)
   public ResponseEntity<ProblemDetail> handleUnknown(Exception ex, HttpServletRequest req) {
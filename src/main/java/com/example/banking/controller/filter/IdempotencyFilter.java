@@ -0,0 +1,247 @@
+package com.example.banking.controller.filter;
+
+import java.io.BufferedReader;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Instant;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ProblemDetail;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.util.AntPathMatcher;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.util.ContentCachingResponseWrapper;
+
+import com.example.banking.service.IdempotencyService;
+import com.example.banking.service.IdempotencyService.Reservation;
+import com.example.banking.service.IdempotencyService.StoredResponse;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ReadListener;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.ServletInputStream;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletRequestWrapper;
+import jakarta.servlet.http.HttpServletResponse;
+
+/**
+ * Honours the Idempotency-Key header on the endpoints that create journals,
+ * entries, postings and accounts. The first request with a key runs normally
+ * and its response is stored; a retry with the same key (same caller, method
+ * and path) gets the stored response back without reaching the controller.
+ * Reusing a key with a different request is rejected with 422, and a retry
+ * that arrives while the first request is still running gets 409 (until the
+ * reservation's lease runs out, see IdempotencyService).
+ *
+ * Runs after the Spring Security chain so keys are scoped to the caller.
+ */
+public class IdempotencyFilter extends OncePerRequestFilter {
+
+    public static final String HEADER = "Idempotency-Key";
+    private static final int MAX_KEY_LENGTH = 255;
+
+    private static final List<String> PATTERNS = List.of(
+        "/journals",
+        "/journals/submit",
+        "/journals/*/entries",
+        "/journals/*/post",
+        "/journals/*/post-async",
+        "/transfers",
+        "/customers/*/accounts",
+        "/accounts/*/holds",
+        "/holds/*/capture",
+        "/holds/*/release");
+    private static final AntPathMatcher MATCHER = new AntPathMatcher();
+
+    // Response headers the controllers set that belong to the stored response; security,
+    // framing and per-request headers are written afresh by the filter chain on replay
+    private static final List<String> REPLAYED_HEADERS = List.of(
+        HttpHeaders.LOCATION,
+        HttpHeaders.CONTENT_LOCATION,
+        HttpHeaders.ETAG,
+        HttpHeaders.LAST_MODIFIED,
+        HttpHeaders.CACHE_CONTROL,
+        HttpHeaders.CONTENT_DISPOSITION);
+
+    private final IdempotencyService idempotencyService;
+    private final ObjectMapper objectMapper;
+
+    public IdempotencyFilter(IdempotencyService idempotencyService, ObjectMapper objectMapper) {
+        this.idempotencyService = idempotencyService;
+        this.objectMapper = objectMapper;
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        if (!"POST".equals(request.getMethod()) || request.getHeader(HEADER) == null) {
+            return true;
+        }
+        String path = request.getRequestURI().substring(request.getContextPath().length());
+        return PATTERNS.stream().noneMatch(p -> MATCHER.match(p, path));
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        String key = request.getHeader(HEADER).trim();
+        if (key.isEmpty() || key.length() > MAX_KEY_LENGTH) {
+            writeProblem(request, response, HttpStatus.BAD_REQUEST, "Bad request",
+                HEADER + " must be 1-" + MAX_KEY_LENGTH + " characters.", "INVALID_IDEMPOTENCY_KEY");
+            return;
+        }
+
+        BufferedBodyRequest buffered = new BufferedBodyRequest(request);
+        String cacheKey = sha256(principal(), request.getMethod(), request.getRequestURI(), key);
+        String fingerprint = sha256(String.valueOf(request.getQueryString()),
+            new String(buffered.body, StandardCharsets.UTF_8));
+
+        Reservation reservation = idempotencyService.reserve(cacheKey, fingerprint);
+        switch (reservation.outcome()) {
+            case REPLAY -> {
+                StoredResponse stored = reservation.response();
+                if (!stored.fingerprint().equals(fingerprint)) {
+                    writeProblem(request, response, HttpStatus.UNPROCESSABLE_ENTITY, "Idempotency key reused",
+                        HEADER + " was already used for a different request.", "IDEMPOTENCY_KEY_REUSED");
+                    return;
+                }
+                response.setStatus(stored.statusCode());
+                if (stored.contentType() != null) response.setContentType(stored.contentType());
+                stored.headers().forEach(response::setHeader);
+                response.setHeader("Idempotent-Replayed", "true");
+                if (stored.body() != null) response.getOutputStream().write(stored.body());
+                return;
+            }
+            case IN_PROGRESS -> {
+                writeProblem(request, response, HttpStatus.CONFLICT, "Request in progress",
+                    "A request with this " + HEADER + " is still being processed. Please retry.",
+                    "IDEMPOTENCY_KEY_IN_PROGRESS");
+                return;
+            }
+            case ACQUIRED -> { /* run the request below */ }
+        }
+
+        ContentCachingResponseWrapper wrapped = new ContentCachingResponseWrapper(response);
+        boolean stored = false;
+        try {
+            chain.doFilter(buffered, wrapped);
+            int status = wrapped.getStatus();
+            if (isFinal(status)) {
+                idempotencyService.complete(cacheKey, reservation,
+                    new StoredResponse(fingerprint, status, wrapped.getContentType(), replayedHeaders(wrapped),
+                        wrapped.getContentAsByteArray()));
+                stored = true;
+            }
+        } finally {
+            if (!stored) {
+                idempotencyService.release(cacheKey, reservation);
+            }
+            wrapped.copyBodyToResponse();
+        }
+    }
+
+    // Success and client errors are replayed; conflicts, throttling and server errors may succeed on retry
+    private static boolean isFinal(int status) {
+        return status < 500 && status != HttpStatus.CONFLICT.value() && status != HttpStatus.TOO_MANY_REQUESTS.value();
+    }
+
+    private static Map<String, String> replayedHeaders(HttpServletResponse response) {
+        Map<String, String> headers = new LinkedHashMap<>();
+        for (String name : REPLAYED_HEADERS) {
+            if (response.containsHeader(name)) {
+                headers.put(name, String.join(", ", response.getHeaders(name)));
+            }
+        }
+        return headers;
+    }
+
+    private static String principal() {
+        Authentication auth = SecurityContextHolder.getContext().getAuthentication();
+        return auth == null ? "" : auth.getName();
+    }
+
+    private static String sha256(String... parts) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            for (String part : parts) {
+                digest.update(part.getBytes(StandardCharsets.UTF_8));
+                digest.update((byte) 0); // separator, so ("ab","c") != ("a","bc")
+            }
+            return HexFormat.of().formatHex(digest.digest());
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+
+    // same shape as GlobalExceptionHandler's ProblemDetail, which filters cannot reach
+    private void writeProblem(HttpServletRequest request, HttpServletResponse response, HttpStatus status,
+            String title, String detail, String code) throws IOException {
+        ProblemDetail pd = ProblemDetail.forStatus(status);
+        pd.setTitle(title);
+        pd.setDetail(detail);
+        pd.setProperty("timestamp", Instant.now().toString());
+        pd.setProperty("path", request.getRequestURI());
+        pd.setProperty("code", code);
+        response.setStatus(status.value());
+        response.setContentType(MediaType.APPLICATION_PROBLEM_JSON_VALUE);
+        objectMapper.writeValue(response.getOutputStream(), pd);
+    }
+
+    /** Reads the body once so it can be fingerprinted and still be read by the controller. */
+    private static final class BufferedBodyRequest extends HttpServletRequestWrapper {
+
+        private final byte[] body;
+
+        BufferedBodyRequest(HttpServletRequest request) throws IOException {
+            super(request);
+            this.body = request.getInputStream().readAllBytes();
+        }
+
+        @Override
+        public ServletInputStream getInputStream() {
+            ByteArrayInputStream in = new ByteArrayInputStream(body);
+            return new ServletInputStream() {
+                @Override
+                public int read() {
+                    return in.read();
+                }
+
+                @Override
+                public int read(byte[] b, int off, int len) {
+                    return in.read(b, off, len);
+                }
+
+                @Override
+                public boolean isFinished() {
+                    return in.available() == 0;
+                }
+
+                @Override
+                public boolean isReady() {
+                    return true;
+                }
+
+                @Override
+                public void setReadListener(ReadListener listener) {
+                    throw new UnsupportedOperationException();
+                }
+            };
+        }
+
+        @Override
+        public BufferedReader getReader() {
+            return new BufferedReader(new InputStreamReader(getInputStream(), StandardCharsets.UTF_8));
+        }
+    }
+}
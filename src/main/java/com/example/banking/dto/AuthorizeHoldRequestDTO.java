@@ -0,0 +1,13 @@
+package com.example.banking.dto;
+
+import java.time.Instant;
+
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.Size;
+
+public record AuthorizeHoldRequestDTO(
+    @Min(1) long amountCents,
+    @Size(min=3, max=3) String currency, // defaults to the account currency
+    @Size(max=500) String description,
+    Instant expiresAt // defaults to banking.holds.default-ttl from now
+) {}
@@ -0,0 +1,24 @@
+package com.example.banking.dto;
+
+import java.time.Instant;
+import java.util.UUID;
+
+import com.example.banking.service.AccountService.Balance;
+
+public record BalanceResponseDTO(
+    UUID accountId,
+    String currency,
+    long balanceCents,
+    Long availableCents, // balance minus active holds; null for as-of queries
+    Instant asOf
+) {
+    public static BalanceResponseDTO of(Balance b) {
+        return new BalanceResponseDTO(
+            b.accountId(),
+            b.currency(),
+            b.balanceCents(),
+            b.availableCents(),
+            b.asOf()
+        );
+    }
+}
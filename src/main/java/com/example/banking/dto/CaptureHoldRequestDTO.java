@@ -0,0 +1,11 @@
+package com.example.banking.dto;
+
+import java.util.UUID;
+
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotNull;
+
+public record CaptureHoldRequestDTO(
+    @NotNull UUID creditAccountId,
+    @Min(1) Long amountCents // the whole hold when omitted; the remainder is released
+) {}
@@ -0,0 +1,36 @@
+package com.example.banking.dto;
+
+import java.time.Instant;
+import java.util.UUID;
+
+import com.example.banking.entity.FundsHold;
+
+public record HoldResponseDTO(
+    UUID id,
+    UUID accountId,
+    long amountCents,
+    String currency,
+    String status,
+    String description,
+    Instant createdAt,
+    Instant expiresAt,
+    Instant closedAt,
+    Long capturedCents,
+    UUID journalId
+) {
+    public static HoldResponseDTO of(FundsHold h) {
+        return new HoldResponseDTO(
+            h.getId(),
+            h.getAccountId(),
+            h.getAmountCents(),
+            h.getCurrency(),
+            h.getStatus().name(),
+            h.getDescription(),
+            h.getCreatedAt(),
+            h.getExpiresAt(),
+            h.getClosedAt(),
+            h.getCapturedCents(),
+            h.getJournalId()
+        );
+    }
+}
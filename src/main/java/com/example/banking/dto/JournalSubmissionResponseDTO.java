@@ -0,0 +1,8 @@
+package com.example.banking.dto;
+
+import java.util.List;
+
+public record JournalSubmissionResponseDTO(
+    JournalResponseDTO journal,
+    List<LedgerEntryResponseDTO> entries
+) {}
@@ -12,7 +12,8 @@ public record LedgerEntryResponseDTO(
     String side,
     long amountCents,
     String currency,
-    Instant createdAt
+    Instant createdAt,
+    Long balanceAfterCents
 ) {
     public static LedgerEntryResponseDTO of(LedgerEntry e) {
         return new LedgerEntryResponseDTO(
@@ -22,7 +23,8 @@ public record LedgerEntryResponseDTO(
             e.getSide(),
             e.getAmountCents(),
             e.getCurrency(),
-            e.getCreatedAt()
+            e.getCreatedAt(),
+            e.getBalanceAfterCents()
         );
     }
 }
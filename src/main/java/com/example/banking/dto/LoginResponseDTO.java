@@ -20,9 +20,17 @@ public record LoginResponseDTO(
     String firstName,
 
     @NotNull(message = "Last name cannot be null")
-    String lastName//,
+    String lastName,
 
-    // TODO: Implement tokens
+    // Send as "Authorization: Bearer <accessToken>" until expiresAt
+    @NotNull(message = "Access token cannot be null")
+    String accessToken,
+
+    @NotNull(message = "Token type cannot be null")
+    String tokenType,
+
+    @NotNull(message = "Expiry cannot be null")
+    Instant expiresAt
 ) {
     // Helper method to create a new instance
     public static LoginResponseDTO of(
@@ -30,14 +38,19 @@ public record LoginResponseDTO(
             String username,
             String email,
             String firstName,
-            String lastName
+            String lastName,
+            String accessToken,
+            Instant expiresAt
     ) {
         return new LoginResponseDTO(
                 userId,
                 username,
                 email,
                 firstName,
-                lastName
+                lastName,
+                accessToken,
+                "Bearer",
+                expiresAt
         );
     }
 }
\ No newline at end of file
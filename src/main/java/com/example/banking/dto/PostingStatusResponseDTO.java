@@ -0,0 +1,21 @@
+package com.example.banking.dto;
+
+import java.util.UUID;
+
+import com.example.banking.service.AsyncPostingService.PostingStatus;
+
+public record PostingStatusResponseDTO(
+    UUID journalId,
+    String state,
+    String errorCode,
+    String detail
+) {
+    public static PostingStatusResponseDTO of(PostingStatus s) {
+        return new PostingStatusResponseDTO(
+            s.journalId(),
+            s.state().name(),
+            s.code(),
+            s.detail()
+        );
+    }
+}
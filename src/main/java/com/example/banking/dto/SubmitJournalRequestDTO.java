@@ -0,0 +1,14 @@
+package com.example.banking.dto;
+
+import java.util.List;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.Size;
+
+public record SubmitJournalRequestDTO(
+    @Size(max = 500) String description,
+    @Size(max = 120) String externalRef,
+    @NotEmpty @Size(max = 500) List<@Valid AddEntryRequestDTO> entries,
+    boolean post // post immediately once the entries are written
+) {}
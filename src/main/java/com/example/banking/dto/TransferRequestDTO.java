@@ -0,0 +1,17 @@
+package com.example.banking.dto;
+
+import java.util.UUID;
+
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+
+public record TransferRequestDTO(
+    @NotNull UUID sourceAccountId,      // debited
+    @NotNull UUID destinationAccountId, // credited
+    @Min(1) long amountCents,
+    @NotBlank @Size(min=3, max=3) String currency,
+    @Size(max = 500) String description,
+    @Size(max = 120) String externalRef
+) {}
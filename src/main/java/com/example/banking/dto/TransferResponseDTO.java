@@ -0,0 +1,29 @@
+package com.example.banking.dto;
+
+import java.time.Instant;
+import java.util.UUID;
+
+import com.example.banking.service.JournalService.Submission;
+
+public record TransferResponseDTO(
+    UUID journalId,
+    String externalRef,
+    long amountCents,
+    String currency,
+    Instant postedAt,
+    LedgerEntryResponseDTO debit,
+    LedgerEntryResponseDTO credit
+) {
+    public static TransferResponseDTO of(Submission s) {
+        var j = s.journal();
+        return new TransferResponseDTO(
+            j.getId(),
+            j.getExternalRef(),
+            j.getDebitTotalCents(),
+            j.getCurrency(),
+            j.getPostedAt(),
+            LedgerEntryResponseDTO.of(s.entries().get(0)),
+            LedgerEntryResponseDTO.of(s.entries().get(1))
+        );
+    }
+}
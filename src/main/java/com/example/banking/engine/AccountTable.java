@@ -0,0 +1,137 @@
+package com.example.banking.engine;
+
+import java.util.Arrays;
+import java.util.UUID;
+
+/**
+ * Balances and held amounts of the accounts the engine has seen, in parallel
+ * primitive arrays: a UUID is stored as its two longs, and an open-addressing
+ * index (linear probing, at most half full) maps it to the account's slot.
+ * Nothing is boxed, so a lookup is a couple of array reads and the table can
+ * hold millions of accounts without GC pressure. Not thread-safe: the engine
+ * only touches it while holding its lock.
+ */
+final class AccountTable {
+
+    private static final int EMPTY = -1;
+
+    // dense, in insertion order
+    private long[] msb;
+    private long[] lsb;
+    private long[] balance;
+    private long[] held;
+    private int size;
+
+    // open-addressing index: probe position -> slot, EMPTY when free
+    private int[] index;
+    private int mask;
+
+    AccountTable(int expectedAccounts) {
+        int capacity = Math.max(16, expectedAccounts);
+        msb = new long[capacity];
+        lsb = new long[capacity];
+        balance = new long[capacity];
+        held = new long[capacity];
+        index = new int[Integer.highestOneBit(capacity * 2 - 1) << 1];
+        Arrays.fill(index, EMPTY);
+        mask = index.length - 1;
+    }
+
+    int size() {
+        return size;
+    }
+
+    /** Slot of the account, or -1 when it is not in the table. */
+    int find(UUID id) {
+        return find(id.getMostSignificantBits(), id.getLeastSignificantBits());
+    }
+
+    int find(long hi, long lo) {
+        for (int i = hash(hi, lo) & mask; ; i = (i + 1) & mask) {
+            int slot = index[i];
+            if (slot == EMPTY) {
+                return -1;
+            }
+            if (msb[slot] == hi && lsb[slot] == lo) {
+                return slot;
+            }
+        }
+    }
+
+    /** Adds the account with the given amounts unless it is already present; returns its slot. */
+    int putIfAbsent(UUID id, long balanceCents, long heldCents) {
+        long hi = id.getMostSignificantBits();
+        long lo = id.getLeastSignificantBits();
+        int existing = find(hi, lo);
+        if (existing >= 0) {
+            return existing;
+        }
+        if (size == msb.length) {
+            grow();
+        }
+        int slot = size++;
+        msb[slot] = hi;
+        lsb[slot] = lo;
+        balance[slot] = balanceCents;
+        held[slot] = heldCents;
+        insertIndex(slot);
+        return slot;
+    }
+
+    long balance(int slot) {
+        return balance[slot];
+    }
+
+    long held(int slot) {
+        return held[slot];
+    }
+
+    void add(int slot, long balanceDelta, long heldDelta) {
+        balance[slot] += balanceDelta;
+        held[slot] += heldDelta;
+    }
+
+    void set(int slot, long balanceCents, long heldCents) {
+        balance[slot] = balanceCents;
+        held[slot] = heldCents;
+    }
+
+    UUID id(int slot) {
+        return new UUID(msb[slot], lsb[slot]);
+    }
+
+    /** Copy of the first {@code size} rows, for a snapshot taken outside the lock. */
+    long[][] copy() {
+        return new long[][] {
+            Arrays.copyOf(msb, size), Arrays.copyOf(lsb, size),
+            Arrays.copyOf(balance, size), Arrays.copyOf(held, size) };
+    }
+
+    private void grow() {
+        int capacity = msb.length * 2;
+        msb = Arrays.copyOf(msb, capacity);
+        lsb = Arrays.copyOf(lsb, capacity);
+        balance = Arrays.copyOf(balance, capacity);
+        held = Arrays.copyOf(held, capacity);
+        index = new int[index.length * 2];
+        Arrays.fill(index, EMPTY);
+        mask = index.length - 1;
+        for (int slot = 0; slot < size; slot++) {
+            insertIndex(slot);
+        }
+    }
+
+    private void insertIndex(int slot) {
+        int i = hash(msb[slot], lsb[slot]) & mask;
+        while (index[i] != EMPTY) {
+            i = (i + 1) & mask;
+        }
+        index[i] = slot;
+    }
+
+    // v4 and v7 ids both have random low bits; mix anyway so sequential test ids spread too
+    private static int hash(long hi, long lo) {
+        long h = (hi ^ lo) * 0x9E3779B97F4A7C15L;
+        return (int) (h ^ (h >>> 32));
+    }
+}
@@ -0,0 +1,576 @@
+package com.example.banking.engine;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.stream.Stream;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.util.unit.DataSize;
+
+import com.example.banking.entity.UuidV7Generator;
+import com.example.banking.exceptions.BankingExceptions.ExternalReferenceAlreadyExistsException;
+import com.example.banking.exceptions.BankingExceptions.InsufficientFundsException;
+import com.example.banking.exceptions.BankingExceptions.PostingQueueFullException;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
+/**
+ * Optional in-memory ledger engine (banking.ledger.engine.enabled). When it is
+ * on, JournalService.transfer posts here instead of through JPA: the funds
+ * check and both balance updates happen on primitive arrays (AccountTable),
+ * the transfer is appended to a memory-mapped write-ahead log, and only then
+ * acknowledged; a single write-behind writer puts the journal, its two entries
+ * and the balance deltas into the database shortly after. Nothing on the
+ * request path touches the database unless the transfer has an external
+ * reference (one uniqueness probe) or an account is seen for the first time.
+ *
+ * The engine is the authority for available funds. The other posting paths
+ * (post, submit, holds) keep their JPA transactions but report their balance
+ * changes through {@link #adjust}: reductions (and hold releases) are applied
+ * at once and undone on rollback, credits are applied on commit, so no
+ * interleaving lets the two paths spend the same money.
+ *
+ * On start the engine loads the newest snapshot, replays the log after it and
+ * writes any logged transfers the database does not have yet (tracked in
+ * ledger_engine_offset). Snapshots are taken every snapshot-interval; log
+ * segments that a snapshot and the database both cover are deleted. A
+ * database without an offset row (a new or restored database) discards the
+ * engine directory and starts from the database.
+ */
+@Component
+@ConditionalOnProperty(prefix = "banking.ledger.engine", name = "enabled", havingValue = "true")
+public class LedgerEngine implements SmartLifecycle {
+
+    private static final Logger log = LoggerFactory.getLogger(LedgerEngine.class);
+
+    private final Path dir;
+    private final int segmentBytes;
+    private final boolean force;
+    private final boolean reconcileOnStart;
+    private final JdbcTemplate jdbc;
+    private final TransactionTemplate tx;
+    private final MeterRegistry meterRegistry;
+    private final Timer transferTimer;
+
+    // guards everything below; held for microseconds, never across I/O other than the log append
+    private final ReentrantLock lock = new ReentrantLock();
+    private AccountTable accounts;
+    private WriteAheadLog wal;
+    private final ByteBuffer record = ByteBuffer.allocate(64 * 1024);
+    private long seq;
+    private long lastTransferSeq;
+
+    private final BlockingQueue<Transfer> unwritten;
+    private final int writeBatchSize;
+    private WriteBehindWriter writer;
+    private Thread writerThread;
+
+    // external refs of transfers not yet in the database (or of JPA journals not yet committed), then for a while after
+    private final Set<String> pendingRefs = ConcurrentHashMap.newKeySet();
+    private final Cache<String, Boolean> writtenRefs;
+
+    private volatile boolean running;
+
+    public LedgerEngine(JdbcTemplate jdbc, PlatformTransactionManager transactionManager,
+            @Value("${banking.ledger.engine.dir:data/ledger-engine}") Path dir,
+            @Value("${banking.ledger.engine.wal.segment-size:64MB}") DataSize segmentSize,
+            @Value("${banking.ledger.engine.wal.force:false}") boolean force,
+            @Value("${banking.ledger.engine.write-behind.capacity:100000}") int capacity,
+            @Value("${banking.ledger.engine.write-behind.batch-size:500}") int writeBatchSize,
+            @Value("${banking.ledger.engine.reconcile-on-start:false}") boolean reconcileOnStart,
+            MeterRegistry meterRegistry) {
+        this.jdbc = jdbc;
+        this.tx = new TransactionTemplate(transactionManager);
+        this.dir = dir;
+        this.segmentBytes = Math.toIntExact(segmentSize.toBytes());
+        this.force = force;
+        this.reconcileOnStart = reconcileOnStart;
+        this.unwritten = new ArrayBlockingQueue<>(capacity);
+        this.writeBatchSize = writeBatchSize;
+        this.meterRegistry = meterRegistry;
+        this.writtenRefs = Caffeine.newBuilder().expireAfterWrite(Duration.ofMinutes(1)).build();
+        this.transferTimer = Timer.builder("banking.ledger.engine.transfer")
+            .description("Time to accept a transfer in the ledger engine (log append included)")
+            .publishPercentiles(0.5, 0.99).register(meterRegistry);
+        Gauge.builder("banking.ledger.engine.unwritten", unwritten, BlockingQueue::size)
+            .description("Acknowledged engine transfers not yet written to the database").register(meterRegistry);
+    }
+
+    /**
+     * Debits the source and credits the destination. The caller has checked
+     * that both accounts exist and are active and that the external reference
+     * is not in the database; the engine checks available funds (unless the
+     * source may go negative, i.e. is internal) and references still waiting
+     * to be written.
+     */
+    public Transfer transfer(UUID sourceAccountId, boolean allowNegative, UUID destinationAccountId,
+            String currency, long amountCents, String description, String externalRef) {
+        requireRunning();
+        Timer.Sample sample = Timer.start(meterRegistry);
+        // everything that does not need the lock happens before it
+        ensureLoaded(sourceAccountId);
+        ensureLoaded(destinationAccountId);
+        UUID journalId = UuidV7Generator.next();
+        UUID debitEntryId = UuidV7Generator.next();
+        UUID creditEntryId = UuidV7Generator.next();
+        lock.lock();
+        try {
+            if (unwritten.remainingCapacity() == 0) {
+                throw new PostingQueueFullException(); // the database is too far behind
+            }
+            if (externalRef != null && (pendingRefs.contains(externalRef) || writtenRefs.getIfPresent(externalRef) != null)) {
+                throw new ExternalReferenceAlreadyExistsException(externalRef);
+            }
+            int source = accounts.find(sourceAccountId);
+            int destination = accounts.find(destinationAccountId);
+            long available = accounts.balance(source) - accounts.held(source);
+            if (!allowNegative && available < amountCents) {
+                throw new InsufficientFundsException(sourceAccountId.toString(), available, amountCents);
+            }
+            Transfer t = new Transfer(seq + 1, journalId, debitEntryId, creditEntryId, sourceAccountId,
+                destinationAccountId, amountCents, currency, Instant.now(),
+                accounts.balance(source) - amountCents, accounts.balance(destination) + amountCents,
+                description, externalRef);
+            record.clear();
+            LogRecords.writeTransfer(record, t);
+            wal.append(record.flip()); // durable from here on; nothing has changed yet if this throws
+            seq = t.seq();
+            lastTransferSeq = t.seq();
+            accounts.add(source, -amountCents, 0);
+            accounts.add(destination, amountCents, 0);
+            if (externalRef != null) {
+                pendingRefs.add(externalRef);
+            }
+            unwritten.add(t);
+            return t;
+        } finally {
+            lock.unlock();
+            sample.stop(transferTimer);
+        }
+    }
+
+    /**
+     * Mirrors a balance or held-amount change made by the current database
+     * transaction. A change that reduces the available balance is checked
+     * (unless {@code allowNegative}) and applied now, and reverted if the
+     * transaction rolls back; a balance increase is applied once the
+     * transaction commits. A held decrease is applied now as well, so that a
+     * capture can spend the hold it releases in the same transaction. Returns
+     * the balance after the change, for balance_after_cents.
+     */
+    public long adjust(UUID accountId, long balanceDelta, long heldDelta, boolean allowNegative) {
+        requireRunning();
+        ensureLoaded(accountId);
+        long nowBalance = Math.min(balanceDelta, 0);
+        long nowHeld = heldDelta; // a release too: the debit that captures it may follow in this transaction
+        long laterBalance = balanceDelta - nowBalance;
+        long after;
+        lock.lock();
+        try {
+            int slot = accounts.find(accountId);
+            long available = accounts.balance(slot) - accounts.held(slot);
+            long reduction = Math.max(nowHeld, 0) - nowBalance;
+            if (reduction > 0 && !allowNegative && available < reduction) {
+                throw new InsufficientFundsException(accountId.toString(), available, reduction);
+            }
+            if (nowBalance != 0 || nowHeld != 0) {
+                logAdjustment(slot, accountId, nowBalance, nowHeld);
+            }
+            after = accounts.balance(slot) + laterBalance;
+        } finally {
+            lock.unlock();
+        }
+        if (nowBalance == 0 && nowHeld == 0 && laterBalance == 0) {
+            return after;
+        }
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            applyLogged(accountId, laterBalance, 0);
+            return after;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                if (status == STATUS_COMMITTED) {
+                    applyLogged(accountId, laterBalance, 0);
+                } else {
+                    applyLogged(accountId, -nowBalance, -nowHeld);
+                }
+            }
+        });
+        return after;
+    }
+
+    /**
+     * Claims an external reference for a journal the current database
+     * transaction is inserting through JPA, so that neither path can take a
+     * reference the other holds but has not committed: the engine refuses a
+     * transfer with it until the transaction completes, and this refuses a
+     * reference of a transfer not yet written. After a commit the reference
+     * stays claimed for a while, like one the writer has just written.
+     */
+    public void reserveExternalRef(String externalRef) {
+        requireRunning();
+        lock.lock();
+        try {
+            if (pendingRefs.contains(externalRef) || writtenRefs.getIfPresent(externalRef) != null) {
+                throw new ExternalReferenceAlreadyExistsException(externalRef);
+            }
+            pendingRefs.add(externalRef);
+        } finally {
+            lock.unlock();
+        }
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            pendingRefs.remove(externalRef);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                if (status == STATUS_COMMITTED) {
+                    writtenRefs.put(externalRef, Boolean.TRUE);
+                }
+                pendingRefs.remove(externalRef);
+            }
+        });
+    }
+
+    /** Balance and held amount as the engine sees them (ahead of account_balance by the unwritten transfers). */
+    public AccountState account(UUID accountId) {
+        requireRunning();
+        ensureLoaded(accountId);
+        lock.lock();
+        try {
+            int slot = accounts.find(accountId);
+            return new AccountState(accounts.balance(slot), accounts.held(slot));
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * postedAt of the oldest acknowledged transfer the write-behind writer has
+     * not put into the database yet, or null if it is up to date. Its rows
+     * will carry that timestamp, so nothing may treat the time after it as
+     * settled (see BalanceCheckpointService).
+     */
+    public Instant oldestUnwrittenAt() {
+        if (writer == null) {
+            return null;
+        }
+        while (true) {
+            long last;
+            lock.lock();
+            try {
+                last = lastTransferSeq;
+            } finally {
+                lock.unlock();
+            }
+            Instant at = writer.oldestUnwrittenAt();
+            if (at != null || writer.writtenSeq() >= last) {
+                return at;
+            }
+            Thread.onSpinWait(); // the writer is between taking a transfer and marking it in flight
+        }
+    }
+
+    /**
+     * Writes a snapshot of the account table, then deletes the log segments
+     * that neither recovery nor the write-behind writer can need any more.
+     */
+    @Scheduled(fixedDelayString = "${banking.ledger.engine.snapshot-interval:5m}",
+        initialDelayString = "${banking.ledger.engine.snapshot-interval:5m}") // start() takes the first one
+    public void snapshot() {
+        if (!running) {
+            return;
+        }
+        takeSnapshot();
+    }
+
+    private void takeSnapshot() {
+        long at;
+        long transfersThrough;
+        long[][] rows;
+        lock.lock();
+        try {
+            at = seq;
+            transfersThrough = lastTransferSeq;
+            rows = accounts.copy();
+        } finally {
+            lock.unlock();
+        }
+        SnapshotFile.write(dir, at, transfersThrough, rows);
+        long written = writer == null ? transfersThrough : writer.writtenSeq();
+        long deletable = written >= transfersThrough ? at : Math.min(at, written);
+        lock.lock();
+        try {
+            wal.deleteThrough(deletable);
+        } finally {
+            lock.unlock();
+        }
+        log.debug("Ledger engine snapshot at {} ({} accounts)", at, rows[0].length);
+    }
+
+    // ---------- lifecycle ----------
+
+    @Override
+    public void start() {
+        Long offset = jdbc.query("SELECT applied_seq FROM ledger_engine_offset WHERE id = 1",
+            rs -> rs.next() ? rs.getLong(1) : null);
+        if (offset == null) {
+            // a database the engine has never written to: whatever is in dir belongs to another one
+            clearDirectory();
+            jdbc.update("INSERT INTO ledger_engine_offset (id, applied_seq) VALUES (1, 0)");
+        }
+        long applied = offset == null ? 0 : offset;
+
+        try {
+            Files.createDirectories(dir);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot create the ledger engine directory " + dir, e);
+        }
+        accounts = new AccountTable(1024);
+        var snapshot = SnapshotFile.readLatest(dir);
+        long snapshotSeq = snapshot.map(SnapshotFile.Loaded::seq).orElse(0L);
+        long snapshotTransfers = snapshot.map(SnapshotFile.Loaded::transfersThrough).orElse(0L);
+        snapshot.ifPresent(s -> {
+            long[][] rows = s.rows();
+            for (int i = 0; i < rows[0].length; i++) {
+                accounts.putIfAbsent(new UUID(rows[0][i], rows[1][i]), rows[2][i], rows[3][i]);
+            }
+        });
+
+        List<Transfer> missing = new ArrayList<>();
+        wal = WriteAheadLog.open(dir, segmentBytes, force, Math.min(snapshotSeq, applied), r -> {
+            long recordSeq = r.getLong(r.position());
+            boolean transfer = LogRecords.type(r) == LogRecords.TRANSFER;
+            if (transfer && recordSeq > applied) {
+                missing.add(LogRecords.readTransfer(r.duplicate()));
+            }
+            if (recordSeq > snapshotSeq) {
+                replay(r.duplicate(), transfer);
+            }
+        });
+        // the log must reach back to the snapshot, and to the database offset if transfers after it were logged
+        boolean logCoversSnapshot = wal.firstSeq() == 0 || wal.firstSeq() <= snapshotSeq + 1;
+        boolean logCoversDatabase = snapshotTransfers <= applied || (wal.firstSeq() != 0 && wal.firstSeq() <= applied + 1);
+        if (!logCoversDatabase) {
+            throw new IllegalStateException("Ledger engine log in " + dir + " no longer holds transfers after "
+                + applied + " that the database is missing");
+        }
+        if (!logCoversSnapshot) {
+            log.warn("Ledger engine log in {} starts after snapshot {}; reloading balances from the database", dir, snapshotSeq);
+            accounts = new AccountTable(1024);
+        }
+        seq = Math.max(Math.max(snapshotSeq, applied), wal.lastSeq());
+        lastTransferSeq = missing.isEmpty() ? Math.max(snapshotTransfers, applied) : missing.get(missing.size() - 1).seq();
+
+        writer = new WriteBehindWriter(unwritten, jdbc, tx, writeBatchSize, applied, this::written, meterRegistry);
+        try {
+            for (int from = 0; from < missing.size(); from += writeBatchSize) {
+                writer.writeWithRetry(missing.subList(from, Math.min(missing.size(), from + writeBatchSize)));
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while writing logged transfers to the database", e);
+        }
+        if (reconcileOnStart) {
+            reconcile();
+        }
+        log.info("Ledger engine started at {}: {} accounts from snapshot {}, {} logged transfers written to the database",
+            seq, accounts.size(), snapshotSeq, missing.size());
+
+        writerThread = new Thread(writer, "ledger-engine-writer");
+        writerThread.start();
+        running = true;
+        takeSnapshot();
+    }
+
+    @Override
+    public void stop() {
+        running = false;
+        if (writerThread == null) {
+            return;
+        }
+        writer.stop(); // writes what is queued, then returns
+        try {
+            writerThread.join(TimeUnit.SECONDS.toMillis(30));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        if (!unwritten.isEmpty()) {
+            log.warn("Ledger engine stopped with {} transfers not yet in the database; they are written on the next start",
+                unwritten.size());
+        }
+        takeSnapshot();
+        wal.close();
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    // before the web server (DEFAULT_PHASE - 1024) starts taking requests, and after it stops
+    @Override
+    public int getPhase() {
+        return SmartLifecycle.DEFAULT_PHASE - 2048;
+    }
+
+    // ---------- internals ----------
+
+    private void written(List<Transfer> batch) {
+        for (Transfer t : batch) {
+            if (t.externalRef() != null) {
+                // visible to the caller's database check now; keep it here a while for checks already under way
+                writtenRefs.put(t.externalRef(), Boolean.TRUE);
+                pendingRefs.remove(t.externalRef());
+            }
+        }
+    }
+
+    private void replay(ByteBuffer r, boolean transfer) {
+        if (transfer) {
+            Transfer t = LogRecords.readTransfer(r);
+            addIfLoaded(t.sourceAccountId(), -t.amountCents(), 0);
+            addIfLoaded(t.destinationAccountId(), t.amountCents(), 0);
+        } else {
+            r.position(r.position() + 9);
+            UUID accountId = LogRecords.getUuid(r);
+            addIfLoaded(accountId, r.getLong(), r.getLong());
+        }
+    }
+
+    // accounts missing from the snapshot are loaded from the database once it has caught up
+    private void addIfLoaded(UUID accountId, long balanceDelta, long heldDelta) {
+        int slot = accounts.find(accountId);
+        if (slot >= 0) {
+            accounts.add(slot, balanceDelta, heldDelta);
+        }
+    }
+
+    private void applyLogged(UUID accountId, long balanceDelta, long heldDelta) {
+        if (balanceDelta == 0 && heldDelta == 0) {
+            return;
+        }
+        lock.lock();
+        try {
+            logAdjustment(accounts.find(accountId), accountId, balanceDelta, heldDelta);
+        } catch (RuntimeException e) {
+            // the database change stands; the engine under-reports until reconcile-on-start
+            log.error("Ledger engine could not record a change of {} / held {} on {}", balanceDelta, heldDelta, accountId, e);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void logAdjustment(int slot, UUID accountId, long balanceDelta, long heldDelta) {
+        record.clear();
+        LogRecords.writeAdjustment(record, seq + 1, accountId, balanceDelta, heldDelta);
+        wal.append(record.flip());
+        seq++;
+        accounts.add(slot, balanceDelta, heldDelta);
+    }
+
+    // First use of an account: its cached row is exact, since the engine has not touched it yet.
+    // Loaded outside the lock; if another thread got there first, its copy is kept.
+    private void ensureLoaded(UUID accountId) {
+        lock.lock();
+        try {
+            if (accounts.find(accountId) >= 0) {
+                return;
+            }
+        } finally {
+            lock.unlock();
+        }
+        long[] row = jdbc.query("SELECT balance_cents, held_cents FROM account_balance WHERE account_id = ?",
+            rs -> rs.next() ? new long[] { rs.getLong(1), rs.getLong(2) } : new long[2], accountId);
+        lock.lock();
+        try {
+            accounts.putIfAbsent(accountId, row[0], row[1]);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    // After a crash between a database commit and its log append the engine can be behind
+    // account_balance; after one between a logged hold release and its commit, it can show the
+    // release the database never made. Either way the database is complete here.
+    private void reconcile() {
+        int[] adopted = new int[1];
+        jdbc.query("SELECT account_id, balance_cents, held_cents FROM account_balance", rs -> {
+            int slot = accounts.find(rs.getObject(1, UUID.class));
+            if (slot >= 0 && (accounts.balance(slot) != rs.getLong(2) || accounts.held(slot) != rs.getLong(3))) {
+                accounts.set(slot, rs.getLong(2), rs.getLong(3));
+                adopted[0]++;
+            }
+        });
+        if (adopted[0] > 0) {
+            log.warn("Ledger engine adopted account_balance for {} accounts that differed", adopted[0]);
+        }
+    }
+
+    private void clearDirectory() {
+        if (!Files.isDirectory(dir)) {
+            return;
+        }
+        try (Stream<Path> files = Files.list(dir)) {
+            for (Path f : files.filter(f -> f.getFileName().toString().matches("(wal|snapshot)-.*")).toList()) {
+                log.warn("Ledger engine: discarding {} (it belongs to a different database)", f);
+                Files.delete(f);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot prepare the ledger engine directory " + dir, e);
+        }
+    }
+
+    private void requireRunning() {
+        if (!running) {
+            throw new IllegalStateException("Ledger engine is not running");
+        }
+    }
+
+    public static record AccountState(long balanceCents, long heldCents) {
+        public long availableCents() {
+            return balanceCents - heldCents;
+        }
+    }
+
+    public static record Transfer(long seq, UUID journalId, UUID debitEntryId, UUID creditEntryId,
+            UUID sourceAccountId, UUID destinationAccountId, long amountCents, String currency, Instant postedAt,
+            long sourceBalanceAfterCents, long destinationBalanceAfterCents, String description, String externalRef) {
+
+        Transfer withoutExternalRef() {
+            return new Transfer(seq, journalId, debitEntryId, creditEntryId, sourceAccountId, destinationAccountId,
+                amountCents, currency, postedAt, sourceBalanceAfterCents, destinationBalanceAfterCents, description, null);
+        }
+    }
+}
@@ -0,0 +1,110 @@
+package com.example.banking.engine;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.UUID;
+
+import com.example.banking.engine.LedgerEngine.Transfer;
+
+/**
+ * Binary layout of the engine's log records. Every record starts with its
+ * sequence number and a type byte; UUIDs are written as their two longs and
+ * strings as a UTF-8 length-prefixed run (length -1 for null).
+ *
+ * TRANSFER: a posting accepted by the engine, written to the database by the
+ * write-behind writer. ADJUSTMENT: a balance or held-amount change made by a
+ * database transaction (JournalService posting paths, holds), replayed into
+ * the engine's balances only.
+ */
+final class LogRecords {
+
+    static final byte TRANSFER = 1;
+    static final byte ADJUSTMENT = 2;
+
+    // seq, type, 5 UUIDs, amount, currency, posted at, 2 balances, 2 string lengths
+    static final int TRANSFER_FIXED_BYTES = 8 + 1 + 5 * 16 + 8 + 3 + 12 + 16 + 4;
+    static final int ADJUSTMENT_BYTES = 8 + 1 + 16 + 16;
+
+    private LogRecords() {}
+
+    static int transferBytes(String description, String externalRef) {
+        return TRANSFER_FIXED_BYTES + utf8Length(description) + utf8Length(externalRef);
+    }
+
+    static void writeTransfer(ByteBuffer out, Transfer t) {
+        out.putLong(t.seq()).put(TRANSFER);
+        putUuid(out, t.journalId());
+        putUuid(out, t.debitEntryId());
+        putUuid(out, t.creditEntryId());
+        putUuid(out, t.sourceAccountId());
+        putUuid(out, t.destinationAccountId());
+        out.putLong(t.amountCents());
+        out.put(t.currency().getBytes(StandardCharsets.US_ASCII), 0, 3);
+        out.putLong(t.postedAt().getEpochSecond()).putInt(t.postedAt().getNano());
+        out.putLong(t.sourceBalanceAfterCents()).putLong(t.destinationBalanceAfterCents());
+        putString(out, t.description());
+        putString(out, t.externalRef());
+    }
+
+    static Transfer readTransfer(ByteBuffer in) {
+        long seq = in.getLong();
+        in.get(); // type
+        UUID journalId = getUuid(in);
+        UUID debitEntryId = getUuid(in);
+        UUID creditEntryId = getUuid(in);
+        UUID source = getUuid(in);
+        UUID destination = getUuid(in);
+        long amount = in.getLong();
+        byte[] currency = new byte[3];
+        in.get(currency);
+        Instant postedAt = Instant.ofEpochSecond(in.getLong(), in.getInt());
+        long sourceAfter = in.getLong();
+        long destinationAfter = in.getLong();
+        return new Transfer(seq, journalId, debitEntryId, creditEntryId, source, destination, amount,
+            new String(currency, StandardCharsets.US_ASCII), postedAt, sourceAfter, destinationAfter,
+            getString(in), getString(in));
+    }
+
+    static void writeAdjustment(ByteBuffer out, long seq, UUID accountId, long balanceDelta, long heldDelta) {
+        out.putLong(seq).put(ADJUSTMENT);
+        putUuid(out, accountId);
+        out.putLong(balanceDelta).putLong(heldDelta);
+    }
+
+    static byte type(ByteBuffer record) {
+        return record.get(record.position() + 8);
+    }
+
+    static UUID getUuid(ByteBuffer in) {
+        return new UUID(in.getLong(), in.getLong());
+    }
+
+    private static void putUuid(ByteBuffer out, UUID id) {
+        out.putLong(id.getMostSignificantBits()).putLong(id.getLeastSignificantBits());
+    }
+
+    private static void putString(ByteBuffer out, String s) {
+        if (s == null) {
+            out.putShort((short) -1);
+            return;
+        }
+        byte[] bytes = s.getBytes(StandardCharsets.UTF_8);
+        out.putShort((short) bytes.length).put(bytes);
+    }
+
+    private static String getString(ByteBuffer in) {
+        short length = in.getShort();
+        if (length < 0) {
+            return null;
+        }
+        byte[] bytes = new byte[length];
+        in.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    // description (500 chars) and external_ref (120) stay far below Short.MAX_VALUE bytes
+    private static int utf8Length(String s) {
+        return s == null ? 0 : s.getBytes(StandardCharsets.UTF_8).length;
+    }
+}
@@ -0,0 +1,113 @@
+package com.example.banking.engine;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
+import java.util.zip.CheckedInputStream;
+import java.util.zip.CheckedOutputStream;
+import java.util.zip.CRC32C;
+
+/**
+ * The engine's account table as of a log sequence number, in
+ * {@code snapshot-<seq>.bin}: a header (with the sequence number of the last
+ * transfer included, so recovery knows whether the database can be missing
+ * any that the log no longer holds), one (id, balance, held) row per
+ * account and a CRC32C of everything before it. Written to a temporary file
+ * and renamed, so a snapshot either exists completely or not at all; only the
+ * newest one is kept.
+ */
+final class SnapshotFile {
+
+    private static final long MAGIC = 0x4C45444745525631L; // "LEDGERV1"
+
+    private SnapshotFile() {}
+
+    record Loaded(long seq, long transfersThrough, long[][] rows) {}
+
+    /** Writes {@code rows} (msb, lsb, balance, held columns) as the snapshot at {@code seq}. */
+    static void write(Path dir, long seq, long transfersThrough, long[][] rows) {
+        Path target = dir.resolve(String.format("snapshot-%020d.bin", seq));
+        Path temp = dir.resolve(target.getFileName() + ".tmp");
+        int count = rows[0].length;
+        CRC32C crc = new CRC32C();
+        try (DataOutputStream out = new DataOutputStream(new CheckedOutputStream(
+                new BufferedOutputStream(Files.newOutputStream(temp), 1 << 16), crc))) {
+            out.writeLong(MAGIC);
+            out.writeLong(seq);
+            out.writeLong(transfersThrough);
+            out.writeInt(count);
+            for (int i = 0; i < count; i++) {
+                out.writeLong(rows[0][i]);
+                out.writeLong(rows[1][i]);
+                out.writeLong(rows[2][i]);
+                out.writeLong(rows[3][i]);
+            }
+            out.writeInt((int) crc.getValue());
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot write ledger engine snapshot " + target, e);
+        }
+        try {
+            Files.move(temp, target, StandardCopyOption.ATOMIC_MOVE);
+            for (Path older : list(dir)) {
+                if (!older.equals(target)) {
+                    Files.deleteIfExists(older);
+                }
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot install ledger engine snapshot " + target, e);
+        }
+    }
+
+    /** The newest snapshot in {@code dir}, if any. */
+    static Optional<Loaded> readLatest(Path dir) {
+        List<Path> snapshots = list(dir);
+        if (snapshots.isEmpty()) {
+            return Optional.empty();
+        }
+        Path file = snapshots.get(snapshots.size() - 1);
+        CRC32C crc = new CRC32C();
+        try (DataInputStream in = new DataInputStream(new CheckedInputStream(
+                new BufferedInputStream(Files.newInputStream(file), 1 << 16), crc))) {
+            if (in.readLong() != MAGIC) {
+                throw new IllegalStateException("Not a ledger engine snapshot: " + file);
+            }
+            long seq = in.readLong();
+            long transfersThrough = in.readLong();
+            int count = in.readInt();
+            long[][] rows = new long[4][count];
+            for (int i = 0; i < count; i++) {
+                rows[0][i] = in.readLong();
+                rows[1][i] = in.readLong();
+                rows[2][i] = in.readLong();
+                rows[3][i] = in.readLong();
+            }
+            int expected = (int) crc.getValue();
+            if (in.readInt() != expected) {
+                throw new IllegalStateException("Ledger engine snapshot is damaged: " + file);
+            }
+            return Optional.of(new Loaded(seq, transfersThrough, rows));
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot read ledger engine snapshot " + file, e);
+        }
+    }
+
+    private static List<Path> list(Path dir) {
+        try (Stream<Path> files = Files.list(dir)) {
+            return files.filter(f -> f.getFileName().toString().matches("snapshot-\\d{20}\\.bin"))
+                .sorted(Comparator.comparing(Path::getFileName))
+                .toList();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot list ledger engine snapshots in " + dir, e);
+        }
+    }
+}
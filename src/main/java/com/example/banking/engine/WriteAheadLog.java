@@ -0,0 +1,188 @@
+package com.example.banking.engine;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.TreeMap;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+import java.util.zip.CRC32C;
+
+/**
+ * Append-only log of engine records in memory-mapped segment files
+ * ({@code wal-<first seq>.log}). A frame is the payload length, a CRC32C of
+ * the payload and the payload, whose first eight bytes are the record's
+ * sequence number. The length is written last, so a frame torn by a crash
+ * reads as the end of the log; the rest of a segment is zero-filled by the
+ * mapping and also reads as its end.
+ *
+ * Once a frame is copied into the mapping it survives a crash of the JVM (the
+ * kernel owns the page); with {@code force} every append is also flushed to
+ * the device before it returns, which makes it survive a power loss too.
+ * Not thread-safe: the engine appends while holding its lock.
+ */
+final class WriteAheadLog implements Closeable {
+
+    private static final int FRAME_HEADER = 8;
+
+    private final Path dir;
+    private final int segmentBytes;
+    private final boolean force;
+    private final CRC32C crc = new CRC32C();
+    private final TreeMap<Long, Path> segments = new TreeMap<>();
+
+    private MappedByteBuffer current;
+    private long lastSeq;
+
+    private WriteAheadLog(Path dir, int segmentBytes, boolean force) {
+        this.dir = dir;
+        this.segmentBytes = segmentBytes;
+        this.force = force;
+    }
+
+    /**
+     * Opens the log in {@code dir}, handing every intact record with a sequence
+     * number above {@code afterSeq} to {@code replay} in order, and positions
+     * appends after the last intact frame.
+     */
+    static WriteAheadLog open(Path dir, int segmentBytes, boolean force, long afterSeq, Consumer<ByteBuffer> replay) {
+        WriteAheadLog wal = new WriteAheadLog(dir, segmentBytes, force);
+        try {
+            Files.createDirectories(dir);
+            try (Stream<Path> files = Files.list(dir)) {
+                files.filter(f -> f.getFileName().toString().matches("wal-\\d{20}\\.log"))
+                    .forEach(f -> wal.segments.put(firstSeq(f), f));
+            }
+            List<Long> firstSeqs = new ArrayList<>(wal.segments.keySet());
+            for (int i = 0; i < firstSeqs.size(); i++) {
+                boolean last = i == firstSeqs.size() - 1;
+                MappedByteBuffer segment = map(wal.segments.get(firstSeqs.get(i)), segmentBytes);
+                wal.scan(segment, firstSeqs.get(i), afterSeq, replay, last);
+                if (last) {
+                    wal.current = segment;
+                }
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot open the ledger engine log in " + dir, e);
+        }
+        return wal;
+    }
+
+    /** Sequence number of the first record in the log, 0 when it is empty. */
+    long firstSeq() {
+        return segments.isEmpty() ? 0 : segments.firstKey();
+    }
+
+    /** Sequence number of the last record in the log, 0 when it is empty. */
+    long lastSeq() {
+        return lastSeq;
+    }
+
+    /** Appends one record; {@code payload} starts with its sequence number, which must be lastSeq + 1. */
+    void append(ByteBuffer payload) {
+        long seq = payload.getLong(payload.position());
+        int length = payload.remaining();
+        if (FRAME_HEADER + length > segmentBytes) {
+            throw new IllegalArgumentException("Record of " + length + " bytes exceeds the log segment size");
+        }
+        if (current == null || current.remaining() < FRAME_HEADER + length) {
+            roll(seq);
+        }
+        int at = current.position();
+        crc.reset();
+        crc.update(payload.duplicate());
+        current.putInt(at + 4, (int) crc.getValue());
+        current.put(at + FRAME_HEADER, payload, payload.position(), length);
+        current.putInt(at, length); // publishes the frame
+        current.position(at + FRAME_HEADER + length);
+        if (force) {
+            current.force(at, FRAME_HEADER + length);
+        }
+        lastSeq = seq;
+    }
+
+    /**
+     * Deletes the segments that only hold records up to {@code seq}; the
+     * segment being appended to is always kept.
+     */
+    void deleteThrough(long seq) {
+        List<Long> firstSeqs = new ArrayList<>(segments.keySet());
+        for (int i = 0; i + 1 < firstSeqs.size() && firstSeqs.get(i + 1) - 1 <= seq; i++) {
+            Path file = segments.remove(firstSeqs.get(i));
+            try {
+                Files.deleteIfExists(file);
+            } catch (IOException e) {
+                throw new UncheckedIOException("Cannot delete ledger engine log segment " + file, e);
+            }
+        }
+    }
+
+    @Override
+    public void close() {
+        if (current != null) {
+            current.force();
+        }
+    }
+
+    private void scan(MappedByteBuffer segment, long firstSeq, long afterSeq, Consumer<ByteBuffer> replay,
+            boolean last) {
+        long expected = firstSeq;
+        int at = 0;
+        while (at + FRAME_HEADER <= segment.capacity()) {
+            int length = segment.getInt(at);
+            if (length <= 0 || length > segment.capacity() - at - FRAME_HEADER) {
+                break;
+            }
+            ByteBuffer payload = segment.slice(at + FRAME_HEADER, length).asReadOnlyBuffer();
+            crc.reset();
+            crc.update(payload.duplicate());
+            if ((int) crc.getValue() != segment.getInt(at + 4) || payload.getLong(0) != expected) {
+                break; // torn or stale frame: the log ends here
+            }
+            if (expected > afterSeq) {
+                replay.accept(payload);
+            }
+            lastSeq = expected++;
+            at += FRAME_HEADER + length;
+        }
+        if (!last && expected != segments.higherKey(firstSeq)) {
+            throw new IllegalStateException("Ledger engine log is damaged in segment " + segments.get(firstSeq)
+                + " at record " + expected);
+        }
+        segment.position(at);
+    }
+
+    private void roll(long firstSeq) {
+        if (current != null) {
+            current.force();
+        }
+        Path file = dir.resolve(String.format("wal-%020d.log", firstSeq));
+        try {
+            current = map(file, segmentBytes);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot create ledger engine log segment " + file, e);
+        }
+        segments.put(firstSeq, file);
+    }
+
+    private static MappedByteBuffer map(Path file, int bytes) throws IOException {
+        // the mapping stays valid after the channel is closed
+        try (FileChannel channel = FileChannel.open(file,
+                StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            return channel.map(FileChannel.MapMode.READ_WRITE, 0, bytes);
+        }
+    }
+
+    private static long firstSeq(Path file) {
+        String name = file.getFileName().toString();
+        return Long.parseLong(name.substring(4, name.length() - 4));
+    }
+}
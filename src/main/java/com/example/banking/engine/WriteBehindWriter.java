@@ -0,0 +1,204 @@
+package com.example.banking.engine;
+
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.UUID;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.example.banking.engine.LedgerEngine.Transfer;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
+/**
+ * Drains accepted transfers into the database in micro-batches. One
+ * transaction inserts the batch's journals and entries, applies one relative
+ * account_balance update per account (in account id order, like every other
+ * writer) and advances ledger_engine_offset, so after a crash the engine knows
+ * exactly which logged transfers the database is missing.
+ *
+ * A batch that fails on a constraint is retried one transfer at a time; a
+ * transfer whose external reference turned out to be taken is still written,
+ * without the reference, because it was already acknowledged. Any other
+ * failure (database down) backs off and retries the same batch: the transfers
+ * are in the log, so nothing is dropped.
+ */
+final class WriteBehindWriter implements Runnable {
+
+    private static final Logger log = LoggerFactory.getLogger(WriteBehindWriter.class);
+
+    private static final String INSERT_JOURNAL = """
+        INSERT INTO journal (id, status, description, external_ref, created_at, posted_at, currency,
+                             debit_total_cents, credit_total_cents)
+        VALUES (?, 'posted', ?, ?, ?, ?, ?, ?, ?)""";
+    private static final String INSERT_ENTRY = """
+        INSERT INTO ledger_entry (id, journal_id, account_id, side, amount_cents, currency, created_at,
+                                  balance_after_cents)
+        VALUES (?, ?, ?, ?, ?, ?, ?, ?)""";
+    private static final String APPLY_DELTA = """
+        UPDATE account_balance SET balance_cents = balance_cents + ?, version = version + 1
+        WHERE account_id = ?""";
+    private static final String INSERT_BALANCE = """
+        INSERT INTO account_balance (account_id, balance_cents, currency) VALUES (?, ?, ?)""";
+    private static final String ADVANCE_OFFSET = "UPDATE ledger_engine_offset SET applied_seq = ? WHERE id = 1";
+
+    private final BlockingQueue<Transfer> queue;
+    private final JdbcTemplate jdbc;
+    private final TransactionTemplate tx;
+    private final int batchSize;
+    private final Consumer<List<Transfer>> onWritten;
+    private final Counter written;
+    private final Counter refConflicts;
+    private final Timer batchTimer;
+
+    private volatile boolean running = true;
+    private volatile long writtenSeq;
+    private volatile Instant inFlightSince; // postedAt of the first transfer of the batch being written
+
+    WriteBehindWriter(BlockingQueue<Transfer> queue, JdbcTemplate jdbc, TransactionTemplate tx, int batchSize,
+            long writtenSeq, Consumer<List<Transfer>> onWritten, MeterRegistry meterRegistry) {
+        this.queue = queue;
+        this.jdbc = jdbc;
+        this.tx = tx;
+        this.batchSize = Math.max(1, batchSize);
+        this.writtenSeq = writtenSeq;
+        this.onWritten = onWritten;
+        this.written = Counter.builder("banking.ledger.engine.written")
+            .description("Engine transfers written to the database").register(meterRegistry);
+        this.refConflicts = Counter.builder("banking.ledger.engine.ref.conflicts")
+            .description("Acknowledged engine transfers written without their already-taken external reference")
+            .register(meterRegistry);
+        this.batchTimer = Timer.builder("banking.ledger.engine.write.batch")
+            .description("Time spent writing one batch of engine transfers").register(meterRegistry);
+    }
+
+    /** Sequence number of the last transfer the database holds. */
+    long writtenSeq() {
+        return writtenSeq;
+    }
+
+    /**
+     * postedAt of the oldest transfer taken from the queue or still in it but
+     * not yet in the database, or null if there is none. Transfers are stamped
+     * in sequence order, so this is the batch being written or the queue head.
+     * A transfer just taken from the queue can briefly show in neither; see
+     * {@link LedgerEngine#oldestUnwrittenAt()}.
+     */
+    Instant oldestUnwrittenAt() {
+        Instant since = inFlightSince;
+        if (since != null) {
+            return since;
+        }
+        Transfer head = queue.peek();
+        return head == null ? inFlightSince : head.postedAt();
+    }
+
+    void stop() {
+        running = false;
+    }
+
+    @Override
+    public void run() {
+        List<Transfer> batch = new ArrayList<>(batchSize);
+        // keeps going after stop() until the queue is empty
+        while (running || !queue.isEmpty()) {
+            try {
+                Transfer first = queue.poll(100, TimeUnit.MILLISECONDS);
+                if (first == null) continue;
+                inFlightSince = first.postedAt();
+                batch.add(first);
+                queue.drainTo(batch, batchSize - 1);
+                writeWithRetry(batch);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } finally {
+                inFlightSince = null;
+                batch.clear();
+            }
+        }
+    }
+
+    /** Writes {@code batch} (in sequence order), retrying until it is in the database. */
+    void writeWithRetry(List<Transfer> batch) throws InterruptedException {
+        long backoffMillis = 100;
+        while (true) {
+            try {
+                write(batch);
+                return;
+            } catch (DataIntegrityViolationException e) {
+                if (batch.size() > 1) {
+                    for (Transfer t : batch) {
+                        writeWithRetry(List.of(t));
+                    }
+                    return;
+                }
+                Transfer t = batch.get(0);
+                if (t.externalRef() != null) {
+                    log.error("External reference {} of acknowledged transfer {} is already taken; writing it without one",
+                        t.externalRef(), t.journalId());
+                    refConflicts.increment();
+                    writeWithRetry(List.of(t.withoutExternalRef()));
+                    return;
+                }
+                // anything else is not the transfer's fault: keep it and retry like an outage
+                log.error("Engine transfer {} violates a constraint, retrying in {} ms", t.journalId(), backoffMillis, e);
+            } catch (RuntimeException e) {
+                log.warn("Writing {} engine transfers failed, retrying in {} ms: {}", batch.size(), backoffMillis, e.toString());
+            }
+            Thread.sleep(backoffMillis);
+            backoffMillis = Math.min(backoffMillis * 2, 10_000);
+        }
+    }
+
+    private void write(List<Transfer> batch) {
+        batchTimer.record(() -> tx.executeWithoutResult(status -> {
+            List<Object[]> journals = new ArrayList<>(batch.size());
+            List<Object[]> entries = new ArrayList<>(batch.size() * 2);
+            Map<UUID, Long> deltas = new TreeMap<>();
+            Map<UUID, String> currencies = new TreeMap<>();
+            for (Transfer t : batch) {
+                Timestamp at = Timestamp.from(t.postedAt());
+                journals.add(new Object[] { t.journalId(), t.description(), t.externalRef(), at, at, t.currency(),
+                    t.amountCents(), t.amountCents() });
+                entries.add(new Object[] { t.debitEntryId(), t.journalId(), t.sourceAccountId(), "debit",
+                    t.amountCents(), t.currency(), at, t.sourceBalanceAfterCents() });
+                entries.add(new Object[] { t.creditEntryId(), t.journalId(), t.destinationAccountId(), "credit",
+                    t.amountCents(), t.currency(), at, t.destinationBalanceAfterCents() });
+                deltas.merge(t.sourceAccountId(), -t.amountCents(), Long::sum);
+                deltas.merge(t.destinationAccountId(), t.amountCents(), Long::sum);
+                currencies.putIfAbsent(t.sourceAccountId(), t.currency());
+                currencies.putIfAbsent(t.destinationAccountId(), t.currency());
+            }
+            jdbc.batchUpdate(INSERT_JOURNAL, journals);
+            jdbc.batchUpdate(INSERT_ENTRY, entries);
+            List<Object[]> updates = new ArrayList<>(deltas.size());
+            deltas.forEach((accountId, delta) -> updates.add(new Object[] { delta, accountId }));
+            int[] updated = jdbc.batchUpdate(APPLY_DELTA, updates);
+            int i = 0;
+            for (Map.Entry<UUID, Long> d : deltas.entrySet()) {
+                if (updated[i++] == 0) {
+                    // no cache row yet (e.g. account created outside openAccount)
+                    jdbc.update(INSERT_BALANCE, d.getKey(), d.getValue(), currencies.get(d.getKey()));
+                }
+            }
+            jdbc.update(ADVANCE_OFFSET, batch.get(batch.size() - 1).seq());
+        }));
+        writtenSeq = batch.get(batch.size() - 1).seq();
+        written.increment(batch.size());
+        onWritten.accept(batch);
+    }
+}
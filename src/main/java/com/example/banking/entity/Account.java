@@ -3,15 +3,22 @@ package com.example.banking.entity;
 import java.time.Instant;
 import java.util.UUID;
 
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 import org.hibernate.annotations.CreationTimestamp;
+import org.hibernate.annotations.UuidGenerator;
 
 import jakarta.persistence.*;
 
 @Entity
 @Table(name = "account")
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = Account.CACHE_REGION)
 public class Account {
+
+    public static final String CACHE_REGION = "account";
+
     @Id
-    @GeneratedValue
+    @UuidGenerator(algorithm = UuidV7Generator.class) // time-ordered: inserts append to the primary key index
     @Column(columnDefinition = "UUID")
     private UUID id;
 
@@ -0,0 +1,33 @@
+package com.example.banking.entity;
+
+import java.util.UUID;
+
+import jakarta.persistence.*;
+
+/**
+ * Signed sum (credits minus debits) of an account's archived entries. Added to
+ * the hot ledger's sum wherever a balance is recomputed from entries, so
+ * archiving never changes a total. Maintained by LedgerArchiveService only.
+ */
+@Entity
+@Table(name = "account_archive_total")
+public class AccountArchiveTotal {
+
+    @Id
+    @Column(name = "account_id", columnDefinition = "UUID")
+    private UUID accountId;
+
+    @Column(name = "balance_cents", nullable = false)
+    private long balanceCents;
+
+    protected AccountArchiveTotal() {
+    }
+
+    public UUID getAccountId() {
+        return accountId;
+    }
+
+    public long getBalanceCents() {
+        return balanceCents;
+    }
+}
@@ -0,0 +1,92 @@
+package com.example.banking.entity;
+
+import java.util.UUID;
+
+import jakarta.persistence.*;
+
+/**
+ * Cached running balance for an account, maintained incrementally when a
+ * journal is posted. Uses the same sign convention as the ledger queries:
+ * credits increase the balance, debits decrease it.
+ */
+@Entity
+@Table(name = "account_balance")
+public class AccountBalance {
+
+    @Id
+    @Column(name = "account_id", columnDefinition = "UUID")
+    private UUID accountId;
+
+    @Column(name = "balance_cents", nullable = false)
+    private Long balanceCents;
+
+    @Column(name = "currency", nullable = false, length = 3)
+    private String currency;
+
+    // Postings lock the row first, so a version conflict means something updated
+    // it without that lock; the posting is retried rather than overwriting it
+    @Version
+    @Column(name = "version", nullable = false)
+    private long version;
+
+    // Sum of the account's active funds holds, maintained by HoldService
+    @Column(name = "held_cents", nullable = false)
+    private long heldCents;
+
+    protected AccountBalance() {
+    }
+
+    public AccountBalance(UUID accountId, Long balanceCents, String currency) {
+        this.accountId = accountId;
+        this.balanceCents = balanceCents;
+        this.currency = currency;
+    }
+
+    public UUID getAccountId() {
+        return accountId;
+    }
+
+    public Long getBalanceCents() {
+        return balanceCents;
+    }
+
+    public void setBalanceCents(Long balanceCents) {
+        this.balanceCents = balanceCents;
+    }
+
+    public String getCurrency() {
+        return currency;
+    }
+
+    public long getVersion() {
+        return version;
+    }
+
+    public long getHeldCents() {
+        return heldCents;
+    }
+
+    public void setHeldCents(long heldCents) {
+        this.heldCents = heldCents;
+    }
+
+    /** What postings and new holds may still take: the balance minus active holds. */
+    public long getAvailableCents() {
+        return balanceCents - heldCents;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o)
+            return true;
+        if (!(o instanceof AccountBalance))
+            return false;
+        AccountBalance that = (AccountBalance) o;
+        return accountId != null && accountId.equals(that.accountId);
+    }
+
+    @Override
+    public int hashCode() {
+        return getClass().hashCode();
+    }
+}
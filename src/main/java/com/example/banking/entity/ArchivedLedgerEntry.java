@@ -0,0 +1,80 @@
+package com.example.banking.entity;
+
+import java.time.Instant;
+import java.util.UUID;
+
+import org.hibernate.annotations.Immutable;
+
+import jakarta.persistence.*;
+
+/**
+ * A ledger entry of a posted journal that LedgerArchiveService moved out of
+ * ledger_entry; same columns, written once by a bulk copy and never updated.
+ * Plain id columns instead of associations: the journal lives in
+ * journal_archive, which has no entity.
+ */
+@Entity
+@Immutable
+@Table(name = "ledger_entry_archive")
+public class ArchivedLedgerEntry {
+
+    @Id
+    @Column(columnDefinition = "UUID")
+    private UUID id;
+
+    @Column(name = "journal_id", nullable = false, columnDefinition = "UUID")
+    private UUID journalId;
+
+    @Column(name = "account_id", nullable = false, columnDefinition = "UUID")
+    private UUID accountId;
+
+    @Column(name = "side", nullable = false, length = 6)
+    private String side;
+
+    @Column(name = "amount_cents", nullable = false)
+    private long amountCents;
+
+    @Column(name = "currency", nullable = false, length = 3)
+    private String currency;
+
+    @Column(name = "created_at", nullable = false)
+    private Instant createdAt;
+
+    @Column(name = "balance_after_cents")
+    private Long balanceAfterCents;
+
+    protected ArchivedLedgerEntry() {
+    }
+
+    public UUID getId() {
+        return id;
+    }
+
+    public UUID getJournalId() {
+        return journalId;
+    }
+
+    public UUID getAccountId() {
+        return accountId;
+    }
+
+    public String getSide() {
+        return side;
+    }
+
+    public long getAmountCents() {
+        return amountCents;
+    }
+
+    public String getCurrency() {
+        return currency;
+    }
+
+    public Instant getCreatedAt() {
+        return createdAt;
+    }
+
+    public Long getBalanceAfterCents() {
+        return balanceAfterCents;
+    }
+}
@@ -0,0 +1,81 @@
+package com.example.banking.entity;
+
+import java.io.Serializable;
+import java.time.Instant;
+import java.util.Objects;
+import java.util.UUID;
+
+import jakarta.persistence.*;
+
+/**
+ * Balance of an account at a point in time: the signed sum (credits minus
+ * debits) of entries of posted journals created before {@code asOf}.
+ * Written periodically by BalanceCheckpointService and never updated.
+ */
+@Entity
+@Table(name = "balance_checkpoint")
+@IdClass(BalanceCheckpoint.Key.class)
+public class BalanceCheckpoint {
+
+    @Id
+    @Column(name = "account_id", columnDefinition = "UUID")
+    private UUID accountId;
+
+    @Id
+    @Column(name = "as_of", nullable = false)
+    private Instant asOf;
+
+    @Column(name = "balance_cents", nullable = false)
+    private long balanceCents;
+
+    protected BalanceCheckpoint() {
+    }
+
+    public BalanceCheckpoint(UUID accountId, Instant asOf, long balanceCents) {
+        this.accountId = accountId;
+        this.asOf = asOf;
+        this.balanceCents = balanceCents;
+    }
+
+    public UUID getAccountId() {
+        return accountId;
+    }
+
+    public Instant getAsOf() {
+        return asOf;
+    }
+
+    public long getBalanceCents() {
+        return balanceCents;
+    }
+
+    public static class Key implements Serializable {
+        private static final long serialVersionUID = 1L;
+
+        private UUID accountId;
+        private Instant asOf;
+
+        protected Key() {
+        }
+
+        public Key(UUID accountId, Instant asOf) {
+            this.accountId = accountId;
+            this.asOf = asOf;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o)
+                return true;
+            if (!(o instanceof Key))
+                return false;
+            Key key = (Key) o;
+            return Objects.equals(accountId, key.accountId) && Objects.equals(asOf, key.asOf);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(accountId, asOf);
+        }
+    }
+}
@@ -2,6 +2,8 @@ package com.example.banking.entity;
 
 import jakarta.persistence.*;
 
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 import org.hibernate.annotations.CreationTimestamp;
 
 import java.time.Instant;
@@ -11,7 +13,11 @@ import java.util.UUID;
 
 @Entity
 @Table(name = "customer")
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = Customer.CACHE_REGION)
 public class Customer {
+
+    public static final String CACHE_REGION = "customer";
+
     @Id
     @GeneratedValue
     @Column(columnDefinition = "UUID")
@@ -0,0 +1,140 @@
+package com.example.banking.entity;
+
+import java.time.Instant;
+import java.util.UUID;
+
+import com.example.banking.model.HoldStatus;
+import com.example.banking.model.converter.HoldStatusConverter;
+
+import jakarta.persistence.*;
+
+/**
+ * Funds reserved on an account by an authorization. While ACTIVE its amount is
+ * counted in the account's AccountBalance.heldCents, which lowers the
+ * available balance every posting is checked against; capture turns it into a
+ * posted journal, release and expiry just give the amount back.
+ */
+@Entity
+@Table(name = "funds_hold")
+public class FundsHold {
+
+    @Id
+    @GeneratedValue
+    @Column(columnDefinition = "UUID")
+    private UUID id;
+
+    @Column(name = "account_id", nullable = false, columnDefinition = "UUID")
+    private UUID accountId;
+
+    @Column(name = "amount_cents", nullable = false)
+    private long amountCents;
+
+    @Column(name = "currency", nullable = false, length = 3)
+    private String currency;
+
+    @Convert(converter = HoldStatusConverter.class)
+    @Column(name = "status", nullable = false, length = 16)
+    private HoldStatus status;
+
+    @Column(name = "description", length = 500)
+    private String description;
+
+    @Column(name = "created_at", nullable = false, updatable = false)
+    private Instant createdAt;
+
+    @Column(name = "expires_at", nullable = false)
+    private Instant expiresAt;
+
+    @Column(name = "closed_at")
+    private Instant closedAt;
+
+    @Column(name = "captured_cents")
+    private Long capturedCents;
+
+    @Column(name = "journal_id", columnDefinition = "UUID")
+    private UUID journalId;
+
+    protected FundsHold() {
+    }
+
+    public FundsHold(UUID accountId, long amountCents, String currency, String description, Instant expiresAt) {
+        this.accountId = accountId;
+        this.amountCents = amountCents;
+        this.currency = currency;
+        this.description = description;
+        this.status = HoldStatus.ACTIVE;
+        this.createdAt = Instant.now();
+        this.expiresAt = expiresAt;
+    }
+
+    public UUID getId() {
+        return id;
+    }
+
+    public UUID getAccountId() {
+        return accountId;
+    }
+
+    public long getAmountCents() {
+        return amountCents;
+    }
+
+    public String getCurrency() {
+        return currency;
+    }
+
+    public HoldStatus getStatus() {
+        return status;
+    }
+
+    public String getDescription() {
+        return description;
+    }
+
+    public Instant getCreatedAt() {
+        return createdAt;
+    }
+
+    public Instant getExpiresAt() {
+        return expiresAt;
+    }
+
+    public Instant getClosedAt() {
+        return closedAt;
+    }
+
+    public Long getCapturedCents() {
+        return capturedCents;
+    }
+
+    public UUID getJournalId() {
+        return journalId;
+    }
+
+    public void capture(long capturedCents, UUID journalId) {
+        this.capturedCents = capturedCents;
+        this.journalId = journalId;
+        close(HoldStatus.CAPTURED);
+    }
+
+    /** Moves an active hold to its final status. */
+    public void close(HoldStatus status) {
+        this.status = status;
+        this.closedAt = Instant.now();
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o)
+            return true;
+        if (!(o instanceof FundsHold))
+            return false;
+        FundsHold that = (FundsHold) o;
+        return id != null && id.equals(that.id);
+    }
+
+    @Override
+    public int hashCode() {
+        return getClass().hashCode();
+    }
+}
@@ -0,0 +1,129 @@
+package com.example.banking.entity;
+
+import java.time.Instant;
+
+import org.springframework.data.domain.Persistable;
+
+import jakarta.persistence.*;
+
+/**
+ * Stored outcome of a request sent with an Idempotency-Key. The row is inserted
+ * (status null) before the request runs, which makes the key a lock, and filled
+ * in with the response once it completes. reserved_at starts the lock's lease:
+ * a reservation that outlives it was abandoned and may be taken over.
+ */
+@Entity
+@Table(name = "idempotency_key")
+public class IdempotencyRecord implements Persistable<String> {
+
+    @Id
+    @Column(name = "cache_key", length = 64)
+    private String cacheKey;
+
+    @Column(name = "fingerprint", nullable = false, length = 64)
+    private String fingerprint;
+
+    @Column(name = "status_code")
+    private Integer statusCode;
+
+    @Column(name = "content_type", length = 100)
+    private String contentType;
+
+    @Column(name = "response_headers", length = 2000)
+    private String responseHeaders;
+
+    @Lob
+    @Column(name = "response_body")
+    private byte[] responseBody;
+
+    @Column(name = "reserved_at", nullable = false)
+    private Instant reservedAt;
+
+    @Column(name = "expires_at", nullable = false)
+    private Instant expiresAt;
+
+    // assigned ids: always INSERT on first save so a concurrent duplicate key fails
+    @Transient
+    private boolean isNew = true;
+
+    protected IdempotencyRecord() {
+    }
+
+    /* Reserves a key for an in-flight request */
+    public IdempotencyRecord(String cacheKey, String fingerprint, Instant reservedAt, Instant expiresAt) {
+        this.cacheKey = cacheKey;
+        this.fingerprint = fingerprint;
+        this.reservedAt = reservedAt;
+        this.expiresAt = expiresAt;
+    }
+
+    @Override
+    public String getId() {
+        return cacheKey;
+    }
+
+    @Override
+    public boolean isNew() {
+        return isNew;
+    }
+
+    @PostLoad
+    @PostPersist
+    void markNotNew() {
+        this.isNew = false;
+    }
+
+    public String getFingerprint() {
+        return fingerprint;
+    }
+
+    public Integer getStatusCode() {
+        return statusCode;
+    }
+
+    public String getContentType() {
+        return contentType;
+    }
+
+    public String getResponseHeaders() {
+        return responseHeaders;
+    }
+
+    public byte[] getResponseBody() {
+        return responseBody;
+    }
+
+    public Instant getReservedAt() {
+        return reservedAt;
+    }
+
+    public Instant getExpiresAt() {
+        return expiresAt;
+    }
+
+    public boolean isCompleted() {
+        return statusCode != null;
+    }
+
+    public void complete(int statusCode, String contentType, String responseHeaders, byte[] responseBody) {
+        this.statusCode = statusCode;
+        this.contentType = contentType;
+        this.responseHeaders = responseHeaders;
+        this.responseBody = responseBody;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o)
+            return true;
+        if (!(o instanceof IdempotencyRecord))
+            return false;
+        IdempotencyRecord that = (IdempotencyRecord) o;
+        return cacheKey != null && cacheKey.equals(that.cacheKey);
+    }
+
+    @Override
+    public int hashCode() {
+        return getClass().hashCode();
+    }
+}
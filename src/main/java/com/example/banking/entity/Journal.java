@@ -6,6 +6,7 @@ import java.util.List;
 import java.util.UUID;
 
 import org.hibernate.annotations.CreationTimestamp;
+import org.hibernate.annotations.UuidGenerator;
 
 import com.example.banking.model.JournalStatus;
 import com.example.banking.model.converter.JournalStatusConverter;
@@ -17,7 +18,7 @@ import jakarta.persistence.*;
 public class Journal {
     
     @Id
-    @GeneratedValue
+    @UuidGenerator(algorithm = UuidV7Generator.class) // time-ordered: inserts append to the primary key index
     @Column(columnDefinition = "UUID")
     private UUID id;
 
@@ -38,6 +39,17 @@ public class Journal {
     @Column(name = "posted_at")
     private Instant postedAt;
 
+    // Running totals, maintained by JournalService.addEntry so diagnostics
+    // and posting never have to aggregate ledger_entry
+    @Column(name = "currency", length = 3)
+    private String currency; // locked by the first entry
+
+    @Column(name = "debit_total_cents", nullable = false)
+    private long debitTotalCents;
+
+    @Column(name = "credit_total_cents", nullable = false)
+    private long creditTotalCents;
+
     @OneToMany(mappedBy = "journal", cascade = CascadeType.ALL, orphanRemoval = true)
     private List<LedgerEntry> ledgerEntries = new ArrayList<>();
 
@@ -93,6 +105,39 @@ public class Journal {
         this.postedAt = postedAt;
     }
 
+    public String getCurrency() {
+        return currency;
+    }
+
+    public long getDebitTotalCents() {
+        return debitTotalCents;
+    }
+
+    public long getCreditTotalCents() {
+        return creditTotalCents;
+    }
+
+    // debits minus credits, zero when balanced
+    public long getNetCents() {
+        return debitTotalCents - creditTotalCents;
+    }
+
+    public boolean isBalanced() {
+        return getNetCents() == 0;
+    }
+
+    /* Folds a validated entry into the running totals */
+    public void applyEntry(String side, long amountCents, String currency) {
+        if (this.currency == null) {
+            this.currency = currency;
+        }
+        if (side.equals("debit")) {
+            debitTotalCents += amountCents;
+        } else {
+            creditTotalCents += amountCents;
+        }
+    }
+
     public List<LedgerEntry> getLedgerEntries() {
         return ledgerEntries;
     }
@@ -3,7 +3,7 @@ package com.example.banking.entity;
 import java.time.Instant;
 import java.util.UUID;
 
-import org.hibernate.annotations.CreationTimestamp;
+import org.hibernate.annotations.UuidGenerator;
 
 import jakarta.persistence.*;
 
@@ -12,7 +12,7 @@ import jakarta.persistence.*;
 public class LedgerEntry {
 
     @Id
-    @GeneratedValue
+    @UuidGenerator(algorithm = UuidV7Generator.class) // time-ordered: inserts append to the primary key index
     @Column(columnDefinition = "UUID")
     private UUID id;
 
@@ -33,10 +33,15 @@ public class LedgerEntry {
     @Column(name = "currency", nullable = false, length = 3)
     private String currency;
 
-    @CreationTimestamp
-    @Column(name = "created_at", nullable = false, updatable = false, insertable = false)
+    // When the entry was added, restamped with the journal's posted_at when it is posted, so a
+    // posted entry never lands behind a balance checkpoint or archive cutoff that has already passed
+    @Column(name = "created_at", nullable = false)
     private Instant createdAt;
 
+    // Account balance right after this entry, assigned when the journal is posted
+    @Column(name = "balance_after_cents")
+    private Long balanceAfterCents;
+
     protected LedgerEntry() {
     }
 
@@ -46,6 +51,7 @@ public class LedgerEntry {
         this.side = side.toLowerCase();
         this.amountCents = amountCents;
         this.currency = currency;
+        this.createdAt = Instant.now();
     }
 
     public UUID getId() {
@@ -100,6 +106,23 @@ public class LedgerEntry {
         return createdAt;
     }
 
+    public void setCreatedAt(Instant createdAt) {
+        this.createdAt = createdAt;
+    }
+
+    public Long getBalanceAfterCents() {
+        return balanceAfterCents;
+    }
+
+    public void setBalanceAfterCents(Long balanceAfterCents) {
+        this.balanceAfterCents = balanceAfterCents;
+    }
+
+    /** Signed effect on the account balance: credits increase it, debits decrease it. */
+    public long signedAmountCents() {
+        return "credit".equals(side) ? amountCents : -amountCents;
+    }
+
     @Override
     public boolean equals(Object o) {
         if (this == o)
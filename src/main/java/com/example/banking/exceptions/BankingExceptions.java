@@ -1,5 +1,6 @@
 package com.example.banking.exceptions;
 
+import java.time.Instant;
 import java.util.Collections;
 import java.util.LinkedHashMap;
 import java.util.Map;
@@ -17,6 +18,7 @@ public final class BankingExceptions {
         CUSTOMER_NOT_FOUND,
         ACCOUNT_NOT_FOUND,
         JOURNAL_NOT_FOUND,
+        HOLD_NOT_FOUND,
 
         // Auth
         INVALID_CREDENTIALS,
@@ -32,11 +34,20 @@ public final class BankingExceptions {
         INVALID_AMOUNT,
         INVALID_CURRENCY_CODE,
         INVALID_ACCOUNT_KIND,
+        INVALID_CURSOR,
+        INVALID_TRANSFER,
+        INVALID_HOLD_EXPIRY,
+        PAGE_TOO_DEEP,
 
         // Business Rules
         JOURNAL_NOT_PENDING,
         INACTIVE_ACCOUNT,
-        UNBALANCED_JOURNAL
+        UNBALANCED_JOURNAL,
+        INSUFFICIENT_FUNDS,
+        HOLD_NOT_ACTIVE,
+
+        // Capacity
+        POSTING_QUEUE_FULL
     }
 
     /**
@@ -132,6 +143,20 @@ public final class BankingExceptions {
         }
     }
 
+    public static final class HoldNotFoundException extends BankingException {
+        private static final long serialVersionUID = 1L;
+        public HoldNotFoundException() {
+            super(ErrorCode.HOLD_NOT_FOUND, "Hold not found");
+        }
+        public HoldNotFoundException(String holdId) {
+            super(ErrorCode.HOLD_NOT_FOUND, "Hold not found",
+                  meta("holdId", holdId));
+        }
+        public HoldNotFoundException(String message, Throwable cause) {
+            super(ErrorCode.HOLD_NOT_FOUND, message, cause);
+        }
+    }
+
     // ====================== Authentication ======================
 
     public static final class InvalidCredentialsException extends BankingException {
@@ -228,6 +253,9 @@ public final class BankingExceptions {
         public InvalidAmountException(String message, Throwable cause) {
             super(ErrorCode.INVALID_AMOUNT, message, cause);
         }
+        public InvalidAmountException(String message, Map<String, ?> metadata) {
+            super(ErrorCode.INVALID_AMOUNT, message, metadata);
+        }
     }
 
     public static final class InvalidCurrencyCodeException extends BankingException {
@@ -258,6 +286,56 @@ public final class BankingExceptions {
         }
     }
 
+    public static final class InvalidCursorException extends BankingException {
+        private static final long serialVersionUID = 1L;
+        public InvalidCursorException() {
+            super(ErrorCode.INVALID_CURSOR, "Invalid pagination cursor");
+        }
+        public InvalidCursorException(String cursor) {
+            super(ErrorCode.INVALID_CURSOR, "Invalid pagination cursor",
+                  meta("cursor", cursor));
+        }
+        public InvalidCursorException(String message, Throwable cause) {
+            super(ErrorCode.INVALID_CURSOR, message, cause);
+        }
+    }
+
+    public static final class PageTooDeepException extends BankingException {
+        private static final long serialVersionUID = 1L;
+        public PageTooDeepException(int page, int size, int maxRows) {
+            super(ErrorCode.PAGE_TOO_DEEP, "Page is too deep for offset pagination; use cursor pagination",
+                  Map.of("page", page, "size", size, "maxRows", maxRows));
+        }
+    }
+
+    public static final class InvalidTransferException extends BankingException {
+        private static final long serialVersionUID = 1L;
+        public InvalidTransferException() {
+            super(ErrorCode.INVALID_TRANSFER, "Source and destination accounts must differ");
+        }
+        public InvalidTransferException(String account) {
+            super(ErrorCode.INVALID_TRANSFER, "Source and destination accounts must differ",
+                  meta("account", account));
+        }
+        public InvalidTransferException(String message, Throwable cause) {
+            super(ErrorCode.INVALID_TRANSFER, message, cause);
+        }
+    }
+
+    public static final class InvalidHoldExpiryException extends BankingException {
+        private static final long serialVersionUID = 1L;
+        public InvalidHoldExpiryException() {
+            super(ErrorCode.INVALID_HOLD_EXPIRY, "Hold expiry must be in the future");
+        }
+        public InvalidHoldExpiryException(Instant expiresAt) {
+            super(ErrorCode.INVALID_HOLD_EXPIRY, "Hold expiry must be in the future",
+                  meta("expiresAt", expiresAt.toString()));
+        }
+        public InvalidHoldExpiryException(String message, Throwable cause) {
+            super(ErrorCode.INVALID_HOLD_EXPIRY, message, cause);
+        }
+    }
+
     // ====================== Business Rules ======================
 
     public static final class JournalNotPendingException extends BankingException {
@@ -305,5 +383,49 @@ public final class BankingExceptions {
         }
     }
 
+    public static final class InsufficientFundsException extends BankingException {
+        private static final long serialVersionUID = 1L;
+        public InsufficientFundsException() {
+            super(ErrorCode.INSUFFICIENT_FUNDS, "Insufficient available funds");
+        }
+        public InsufficientFundsException(String account, long availableCents, long requiredCents) {
+            super(ErrorCode.INSUFFICIENT_FUNDS, "Insufficient available funds",
+                  Map.of("account", account, "availableCents", availableCents, "requiredCents", requiredCents));
+        }
+        public InsufficientFundsException(String message, Throwable cause) {
+            super(ErrorCode.INSUFFICIENT_FUNDS, message, cause);
+        }
+    }
+
+    public static final class HoldNotActiveException extends BankingException {
+        private static final long serialVersionUID = 1L;
+        public HoldNotActiveException() {
+            super(ErrorCode.HOLD_NOT_ACTIVE, "Hold is no longer active");
+        }
+        public HoldNotActiveException(String holdId, String status) {
+            super(ErrorCode.HOLD_NOT_ACTIVE, "Hold is no longer active",
+                  Map.of("holdId", holdId, "status", status));
+        }
+        public HoldNotActiveException(String message, Throwable cause) {
+            super(ErrorCode.HOLD_NOT_ACTIVE, message, cause);
+        }
+    }
+
+    // ====================== Capacity ======================
+
+    public static final class PostingQueueFullException extends BankingException {
+        private static final long serialVersionUID = 1L;
+        public PostingQueueFullException() {
+            super(ErrorCode.POSTING_QUEUE_FULL, "Posting queue is full, retry later");
+        }
+        public PostingQueueFullException(int writer) {
+            super(ErrorCode.POSTING_QUEUE_FULL, "Posting queue is full, retry later",
+                  meta("writer", writer));
+        }
+        public PostingQueueFullException(String message, Throwable cause) {
+            super(ErrorCode.POSTING_QUEUE_FULL, message, cause);
+        }
+    }
+
     private BankingExceptions() { /* no instances */ }
 }
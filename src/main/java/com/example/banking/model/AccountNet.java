@@ -0,0 +1,6 @@
+package com.example.banking.model;
+
+import java.util.UUID;
+
+/** Signed sum (credits minus debits) of one account's entries over some window. */
+public record AccountNet(UUID accountId, long netCents) {}
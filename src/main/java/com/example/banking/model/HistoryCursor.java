@@ -0,0 +1,41 @@
+package com.example.banking.model;
+
+import java.nio.ByteBuffer;
+import java.time.Instant;
+import java.util.Base64;
+import java.util.UUID;
+
+import com.example.banking.exceptions.BankingExceptions.InvalidCursorException;
+
+/**
+ * Opaque keyset position in a newest-first listing (account history, journal
+ * search): the (created_at, id) of the last row a client has seen. Encoded as URL-safe base64 of
+ * epochSecond | nano | uuid so clients cannot depend on its shape.
+ */
+public record HistoryCursor(Instant createdAt, UUID id) {
+
+    private static final int ENCODED_BYTES = Long.BYTES + Integer.BYTES + 2 * Long.BYTES;
+
+    public String encode() {
+        ByteBuffer buf = ByteBuffer.allocate(ENCODED_BYTES)
+            .putLong(createdAt.getEpochSecond())
+            .putInt(createdAt.getNano())
+            .putLong(id.getMostSignificantBits())
+            .putLong(id.getLeastSignificantBits());
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(buf.array());
+    }
+
+    public static HistoryCursor decode(String token) {
+        try {
+            byte[] raw = Base64.getUrlDecoder().decode(token);
+            if (raw.length != ENCODED_BYTES) {
+                throw new InvalidCursorException(token);
+            }
+            ByteBuffer buf = ByteBuffer.wrap(raw);
+            Instant createdAt = Instant.ofEpochSecond(buf.getLong(), buf.getInt());
+            return new HistoryCursor(createdAt, new UUID(buf.getLong(), buf.getLong()));
+        } catch (IllegalArgumentException | java.time.DateTimeException e) {
+            throw new InvalidCursorException("Invalid history cursor", e);
+        }
+    }
+}
@@ -0,0 +1,3 @@
+package com.example.banking.model;
+
+public enum HoldStatus { ACTIVE, CAPTURED, RELEASED, EXPIRED }
@@ -0,0 +1,17 @@
+package com.example.banking.model;
+
+import java.time.Instant;
+
+/**
+ * Filters for the journal listing; every field is optional. Date ranges are
+ * from-inclusive, to-exclusive. A pending journal is "stuck" when it was
+ * created before some cutoff, i.e. {@code status=PENDING, createdTo=cutoff}.
+ */
+public record JournalSearch(
+    JournalStatus status,
+    Instant createdFrom,
+    Instant createdTo,
+    Instant postedFrom,
+    Instant postedTo,
+    String externalRefPrefix
+) {}
@@ -0,0 +1,9 @@
+package com.example.banking.model;
+
+import java.util.UUID;
+
+/**
+ * One account of a statement run: its balance at the start of the period
+ * and whether any of its entries are in the archive tier.
+ */
+public record StatementAccount(UUID accountId, String currency, long openingBalanceCents, boolean archived) {}
@@ -0,0 +1,24 @@
+package com.example.banking.model.converter;
+
+import com.example.banking.model.HoldStatus;
+import jakarta.persistence.AttributeConverter;
+import jakarta.persistence.Converter;
+
+/**
+ * Converts the HoldStatus enum to a lowercase string for database persistence
+ * (matching the CHECK constraint in schema.sql: ('active','captured','released','expired'))
+ * and back to the enum (uppercased) when reading.
+ */
+@Converter(autoApply = false)
+public class HoldStatusConverter implements AttributeConverter<HoldStatus, String> {
+
+    @Override
+    public String convertToDatabaseColumn(HoldStatus attribute) {
+        return attribute == null ? null : attribute.name().toLowerCase();
+    }
+
+    @Override
+    public HoldStatus convertToEntityAttribute(String dbData) {
+        return dbData == null ? null : HoldStatus.valueOf(dbData.toUpperCase());
+    }
+}
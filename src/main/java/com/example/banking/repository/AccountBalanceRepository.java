@@ -0,0 +1,100 @@
+package com.example.banking.repository;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+
+import com.example.banking.entity.AccountBalance;
+import com.example.banking.model.HoldStatus;
+import com.example.banking.model.JournalStatus;
+
+import jakarta.persistence.LockModeType;
+
+@Repository
+public interface AccountBalanceRepository extends JpaRepository<AccountBalance, UUID> {
+
+    // Row lock taken before a posting changes the balance; callers lock in account id order
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("select b from AccountBalance b where b.accountId = :accountId")
+    Optional<AccountBalance> findByIdForUpdate(UUID accountId);
+
+    // ---------- rebuild / verify (used after a restore) ----------
+
+    @Modifying
+    @Query("delete from AccountBalance b")
+    int deleteAllBalances();
+
+    @Modifying
+    @Query("""
+              insert into AccountBalance (accountId, balanceCents, currency)
+              select a.id, 0L, a.currency from Account a
+            """)
+    int seedZeroBalances();
+
+    // credits increase the balance, debits decrease it (same as netAmountForAccount)
+    // but only entries of posted journals count towards the cached balance,
+    // plus the net of the account's archived entries (all posted)
+    @Modifying
+    @Query("""
+              update AccountBalance b
+              set b.balanceCents = (
+                select coalesce(sum(
+                  case when e.side = 'credit' then e.amountCents
+                       when e.side = 'debit'  then -e.amountCents
+                       else 0 end), 0)
+                from LedgerEntry e
+                where e.account.id = b.accountId and e.journal.status = :status)
+                + coalesce((select t.balanceCents from AccountArchiveTotal t where t.accountId = b.accountId), 0)
+            """)
+    int recomputeFromLedger(JournalStatus status);
+
+    @Modifying
+    @Query("""
+              update AccountBalance b
+              set b.heldCents = (
+                select coalesce(sum(h.amountCents), 0)
+                from FundsHold h
+                where h.accountId = b.accountId and h.status = :status)
+            """)
+    int recomputeHeldFromHolds(HoldStatus status);
+
+    @Query("""
+              select b.accountId as accountId, b.balanceCents as cachedCents,
+                (select coalesce(sum(
+                  case when e.side = 'credit' then e.amountCents
+                       when e.side = 'debit'  then -e.amountCents
+                       else 0 end), 0)
+                 from LedgerEntry e
+                 where e.account.id = b.accountId and e.journal.status = :status)
+                + coalesce((select t.balanceCents from AccountArchiveTotal t where t.accountId = b.accountId), 0)
+                as ledgerCents
+              from AccountBalance b
+              where b.balanceCents <> (
+                select coalesce(sum(
+                  case when e.side = 'credit' then e.amountCents
+                       when e.side = 'debit'  then -e.amountCents
+                       else 0 end), 0)
+                from LedgerEntry e
+                where e.account.id = b.accountId and e.journal.status = :status)
+                + coalesce((select t.balanceCents from AccountArchiveTotal t where t.accountId = b.accountId), 0)
+            """)
+    List<BalanceDrift> findDrift(JournalStatus status);
+
+    @Query("""
+              select a.id from Account a
+              where not exists (select 1 from AccountBalance b where b.accountId = a.id)
+            """)
+    List<UUID> findAccountsWithoutBalance();
+
+    interface BalanceDrift {
+        UUID getAccountId();
+        Long getCachedCents();
+        Long getLedgerCents();
+    }
+}
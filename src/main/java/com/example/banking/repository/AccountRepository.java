@@ -1,10 +1,13 @@
 package com.example.banking.repository;
 
+import java.time.Instant;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
 
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
 
 import com.example.banking.entity.Account;
 // import com.example.banking.entity.Customer;
@@ -25,4 +28,13 @@ public interface AccountRepository extends JpaRepository<Account, UUID> {
 
     // Find all active accounts
     List<Account> findByIsActiveTrue();
+
+    // Keyset walk over the ids of accounts opened before an instant, for splitting them into ranges
+    @Query("""
+              select a.id from Account a
+              where a.id > :after and (a.openedAt is null or a.openedAt < :openedBefore)
+              order by a.id
+            """)
+    List<UUID> findIdsAfter(UUID after, Instant openedBefore, Pageable pageable);
+
 }
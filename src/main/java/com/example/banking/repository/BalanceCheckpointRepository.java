@@ -0,0 +1,63 @@
+package com.example.banking.repository;
+
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+
+import com.example.banking.entity.BalanceCheckpoint;
+import com.example.banking.model.JournalStatus;
+import com.example.banking.model.StatementAccount;
+
+@Repository
+public interface BalanceCheckpointRepository extends JpaRepository<BalanceCheckpoint, BalanceCheckpoint.Key> {
+
+    // Nearest checkpoint at or before the instant (primary key seek)
+    Optional<BalanceCheckpoint> findFirstByAccountIdAndAsOfLessThanEqualOrderByAsOfDesc(UUID accountId, Instant asOf);
+
+    // Latest checkpoint at or before the instant of each of the given accounts
+    @Query("""
+              select c from BalanceCheckpoint c
+              where c.accountId in :accountIds
+                and c.asOf = (select max(c2.asOf) from BalanceCheckpoint c2
+                              where c2.accountId = c.accountId and c2.asOf <= :asOf)
+            """)
+    List<BalanceCheckpoint> findLatestPerAccount(Instant asOf, Collection<UUID> accountIds);
+
+    // End of the last window that produced checkpoints; the next run continues from here
+    @Query("select max(c.asOf) from BalanceCheckpoint c")
+    Instant findLatestAsOf();
+
+    // balanceAsOf for every account of an id range opened before :openedBefore, in one statement:
+    // nearest checkpoint (primary key seek) plus both tiers' posted net from it up to :asOf
+    @Query("""
+              select new com.example.banking.model.StatementAccount(a.id, a.currency,
+                coalesce(c.balanceCents, 0)
+                  + (select coalesce(sum(case when e.side = 'credit' then e.amountCents else -e.amountCents end), 0)
+                     from LedgerEntry e
+                     where e.account.id = a.id and e.journal.status = :posted
+                       and e.createdAt >= coalesce(c.asOf, :epoch) and e.createdAt < :asOf)
+                  + (select coalesce(sum(case when x.side = 'credit' then x.amountCents else -x.amountCents end), 0)
+                     from ArchivedLedgerEntry x
+                     where x.accountId = a.id and x.createdAt >= coalesce(c.asOf, :epoch) and x.createdAt < :asOf),
+                case when t.accountId is null then false else true end)
+              from Account a
+              left join BalanceCheckpoint c on c.accountId = a.id and c.asOf =
+                (select max(c2.asOf) from BalanceCheckpoint c2 where c2.accountId = a.id and c2.asOf <= :asOf)
+              left join AccountArchiveTotal t on t.accountId = a.id
+              where a.id >= :fromId and a.id < :toId and (a.openedAt is null or a.openedAt < :openedBefore)
+              order by a.id
+            """)
+    List<StatementAccount> findStatementAccounts(UUID fromId, UUID toId, Instant openedBefore, Instant asOf,
+            JournalStatus posted, Instant epoch);
+
+    @Modifying
+    @Query("delete from BalanceCheckpoint c")
+    int deleteAllCheckpoints();
+}
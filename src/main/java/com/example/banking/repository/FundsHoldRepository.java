@@ -0,0 +1,36 @@
+package com.example.banking.repository;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+
+import com.example.banking.entity.FundsHold;
+import com.example.banking.model.HoldStatus;
+
+import jakarta.persistence.LockModeType;
+
+@Repository
+public interface FundsHoldRepository extends JpaRepository<FundsHold, UUID> {
+
+    List<FundsHold> findByAccountIdAndStatusOrderByCreatedAtAsc(UUID accountId, HoldStatus status);
+
+    // Row lock so capture, release and expiry of the same hold serialize; always taken before the balance row
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("select h from FundsHold h where h.id = :holdId")
+    Optional<FundsHold> findByIdForUpdate(UUID holdId);
+
+    // Ids only, one page at a time; each hold is then expired under its own lock (served by fh_active_by_expiry)
+    @Query("""
+              select h.id from FundsHold h
+              where h.status = :status and h.expiresAt <= :now
+              order by h.expiresAt, h.id
+            """)
+    List<UUID> findIdsExpiredBefore(HoldStatus status, Instant now, Pageable pageable);
+}
@@ -0,0 +1,45 @@
+package com.example.banking.repository;
+
+import java.time.Instant;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+
+import com.example.banking.entity.IdempotencyRecord;
+
+@Repository
+public interface IdempotencyRecordRepository extends JpaRepository<IdempotencyRecord, String> {
+
+    // Only the request holding the current lease may complete or release the key
+    @Modifying
+    @Query("""
+              update IdempotencyRecord r
+              set r.statusCode = :statusCode, r.contentType = :contentType,
+                  r.responseHeaders = :responseHeaders, r.responseBody = :responseBody
+              where r.cacheKey = :cacheKey and r.reservedAt = :reservedAt and r.statusCode is null
+            """)
+    int complete(String cacheKey, Instant reservedAt, int statusCode, String contentType, String responseHeaders,
+            byte[] responseBody);
+
+    @Modifying
+    @Query("""
+              delete from IdempotencyRecord r
+              where r.cacheKey = :cacheKey and r.reservedAt = :reservedAt and r.statusCode is null
+            """)
+    int release(String cacheKey, Instant reservedAt);
+
+    // Compare-and-set on the abandoned lease: of two retries taking it over, one updates the row
+    @Modifying
+    @Query("""
+              update IdempotencyRecord r
+              set r.fingerprint = :fingerprint, r.reservedAt = :reservedAt, r.expiresAt = :expiresAt
+              where r.cacheKey = :cacheKey and r.reservedAt = :abandonedAt and r.statusCode is null
+            """)
+    int reclaim(String cacheKey, Instant abandonedAt, String fingerprint, Instant reservedAt, Instant expiresAt);
+
+    @Modifying
+    @Query("delete from IdempotencyRecord r where r.expiresAt < :now")
+    int deleteExpired(Instant now);
+}
@@ -1,21 +1,173 @@
 package com.example.banking.repository;
 
+import java.time.Instant;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
 
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.domain.Specification;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 
 import com.example.banking.entity.Journal;
+import com.example.banking.model.HistoryCursor;
+import com.example.banking.model.JournalSearch;
 import com.example.banking.model.JournalStatus;
 
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.criteria.Predicate;
+
 @Repository
-public interface JournalRepository extends JpaRepository<Journal, UUID> {
-    
-    List<Journal> findByStatusOrderByCreatedAtDesc(JournalStatus status);
+public interface JournalRepository extends JpaRepository<Journal, UUID>, JpaSpecificationExecutor<Journal> {
 
     Optional<Journal> findByExternalRef(String externalRef);
 
     boolean existsByExternalRef(String externalRef);
+
+    // Row lock so concurrent addEntry/postJournal calls see each other's running totals
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("select j from Journal j where j.id = :journalId")
+    Optional<Journal> findByIdForUpdate(UUID journalId);
+
+    // ---------- pending-journal expiry ----------
+
+    // Ids only, oldest first, seeking journal_by_status: journals created before the cutoff with no entry
+    // added since (probed through le_by_journal); each chunk is then locked and deleted in its own transaction
+    @Query("""
+              select j.id from Journal j
+              where j.status = :status and j.createdAt < :cutoff
+                and not exists (select 1 from LedgerEntry e where e.journal = j and e.createdAt >= :cutoff)
+              order by j.createdAt, j.id
+            """)
+    List<UUID> findIdsInactiveSince(JournalStatus status, Instant cutoff, Pageable pageable);
+
+    // Same row lock as postJournal/addEntry take, so a journal being posted or extended right now is never
+    // deleted; the status and activity are re-checked under it
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("""
+              select j.id from Journal j
+              where j.id in :journalIds and j.status = :status
+                and not exists (select 1 from LedgerEntry e where e.journal = j and e.createdAt >= :cutoff)
+            """)
+    List<UUID> lockIdsInactiveSince(List<UUID> journalIds, JournalStatus status, Instant cutoff);
+
+    // ledger_entry rows go with them through fk_le_journal ON DELETE CASCADE
+    @Modifying
+    @Query("delete from Journal j where j.id in :journalIds")
+    int deleteByIds(List<UUID> journalIds);
+
+    // ---------- archival ----------
+
+    // Posted journals whose every entry was created before the cutoff, oldest first (journal_by_status);
+    // an entry never predates its journal, so created_at < cutoff bounds the seek
+    @Query("""
+              select j.id from Journal j
+              where j.status = :status and j.createdAt < :cutoff and j.postedAt < :cutoff
+                and not exists (select 1 from LedgerEntry e where e.journal = j and e.createdAt >= :cutoff)
+              order by j.createdAt, j.id
+            """)
+    List<UUID> findArchivableIds(JournalStatus status, Instant cutoff, Pageable pageable);
+
+    // Only the columns that determine the journal's representation (ETag); no entity or entries loaded
+    @Query("""
+              select j.status as status, j.currency as currency,
+                j.debitTotalCents as debitTotalCents, j.creditTotalCents as creditTotalCents
+              from Journal j
+              where j.id = :journalId
+            """)
+    Optional<JournalVersion> findVersionById(UUID journalId);
+
+    // ---------- running totals consistency (journal columns vs ledger rows) ----------
+
+    @Query("""
+              select j.id as journalId,
+                j.debitTotalCents as cachedDebits,
+                (select coalesce(sum(e.amountCents),0) from LedgerEntry e
+                  where e.journal = j and e.side = 'debit') as ledgerDebits,
+                j.creditTotalCents as cachedCredits,
+                (select coalesce(sum(e.amountCents),0) from LedgerEntry e
+                  where e.journal = j and e.side = 'credit') as ledgerCredits
+              from Journal j
+              where j.debitTotalCents <> (select coalesce(sum(e.amountCents),0) from LedgerEntry e
+                                           where e.journal = j and e.side = 'debit')
+                 or j.creditTotalCents <> (select coalesce(sum(e.amountCents),0) from LedgerEntry e
+                                           where e.journal = j and e.side = 'credit')
+                 or exists (select 1 from LedgerEntry e
+                            where e.journal = j and (j.currency is null or e.currency <> j.currency))
+            """)
+    List<TotalsDrift> findTotalsDrift();
+
+    @Modifying
+    @Query("""
+              update Journal j set
+                j.debitTotalCents = (select coalesce(sum(e.amountCents),0) from LedgerEntry e
+                                      where e.journal = j and e.side = 'debit'),
+                j.creditTotalCents = (select coalesce(sum(e.amountCents),0) from LedgerEntry e
+                                      where e.journal = j and e.side = 'credit'),
+                j.currency = (select min(e.currency) from LedgerEntry e where e.journal = j)
+            """)
+    int recomputeTotalsFromLedger();
+
+    // ---------- search (keyset, newest first) ----------
+
+    /**
+     * Only the filters that were supplied become predicates, so the planner can
+     * seek journal_by_status (status, created_at, id) or journal_by_created
+     * (created_at, id) and stop after one page; the cursor continues strictly
+     * after the last (created_at, id) seen. Pair with a created_at desc, id desc sort.
+     */
+    static Specification<Journal> search(JournalSearch filter, HistoryCursor after) {
+        return (root, query, cb) -> {
+            List<Predicate> where = new ArrayList<>();
+            if (filter.status() != null) {
+                where.add(cb.equal(root.get("status"), filter.status()));
+            }
+            if (filter.createdFrom() != null) {
+                where.add(cb.greaterThanOrEqualTo(root.get("createdAt"), filter.createdFrom()));
+            }
+            if (filter.createdTo() != null) {
+                where.add(cb.lessThan(root.get("createdAt"), filter.createdTo()));
+            }
+            if (filter.postedFrom() != null) {
+                where.add(cb.greaterThanOrEqualTo(root.get("postedAt"), filter.postedFrom()));
+            }
+            if (filter.postedTo() != null) {
+                where.add(cb.lessThan(root.get("postedAt"), filter.postedTo()));
+            }
+            if (filter.externalRefPrefix() != null) {
+                // prefix LIKE is a range scan on the external_ref unique index
+                String escaped = filter.externalRefPrefix()
+                    .replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_");
+                where.add(cb.like(root.get("externalRef"), escaped + "%", '\\'));
+            }
+            if (after != null) {
+                where.add(cb.or(
+                    cb.lessThan(root.get("createdAt"), after.createdAt()),
+                    cb.and(cb.equal(root.get("createdAt"), after.createdAt()),
+                        cb.lessThan(root.get("id"), after.id()))));
+            }
+            return cb.and(where.toArray(Predicate[]::new));
+        };
+    }
+
+    interface JournalVersion {
+        JournalStatus getStatus();
+        String getCurrency();
+        long getDebitTotalCents();
+        long getCreditTotalCents();
+    }
+
+    interface TotalsDrift {
+        UUID getJournalId();
+        Long getCachedDebits();
+        Long getLedgerDebits();
+        Long getCachedCredits();
+        Long getLedgerCredits();
+    }
 }
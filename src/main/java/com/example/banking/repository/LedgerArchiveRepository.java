@@ -0,0 +1,124 @@
+package com.example.banking.repository;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.UUID;
+import java.util.stream.Stream;
+
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+
+import com.example.banking.dto.LedgerEntryResponseDTO;
+import com.example.banking.entity.ArchivedLedgerEntry;
+import com.example.banking.model.AccountNet;
+
+import jakarta.persistence.QueryHint;
+
+/**
+ * The cold tier: journal_archive, ledger_entry_archive and the per-account
+ * account_archive_total. Reads mirror the account-history queries of
+ * LedgerEntryRepository and return the same DTO rows so callers can merge
+ * both tiers; writes are the bulk copies of one archive batch.
+ */
+public interface LedgerArchiveRepository extends JpaRepository<ArchivedLedgerEntry, UUID> {
+
+    // ---------- reads (all served by lea_by_acct) ----------
+
+    boolean existsByAccountId(UUID accountId);
+
+    @Query("""
+              select new com.example.banking.dto.LedgerEntryResponseDTO(
+                e.id, e.journalId, e.accountId, e.side, e.amountCents, e.currency, e.createdAt, e.balanceAfterCents)
+              from ArchivedLedgerEntry e
+              where e.accountId = :accountId
+              order by e.createdAt desc, e.id desc
+            """)
+    List<LedgerEntryResponseDTO> findAccountHistory(UUID accountId, Pageable pageable);
+
+    @Query("""
+              select new com.example.banking.dto.LedgerEntryResponseDTO(
+                e.id, e.journalId, e.accountId, e.side, e.amountCents, e.currency, e.createdAt, e.balanceAfterCents)
+              from ArchivedLedgerEntry e
+              where e.accountId = :accountId
+                and (e.createdAt < :createdAt or (e.createdAt = :createdAt and e.id < :id))
+              order by e.createdAt desc, e.id desc
+            """)
+    List<LedgerEntryResponseDTO> findAccountHistoryBefore(UUID accountId, Instant createdAt, UUID id, Pageable pageable);
+
+    @QueryHints({
+        @QueryHint(name = org.hibernate.jpa.HibernateHints.HINT_FETCH_SIZE, value = "500"),
+        @QueryHint(name = org.hibernate.jpa.HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("""
+              select new com.example.banking.dto.LedgerEntryResponseDTO(
+                e.id, e.journalId, e.accountId, e.side, e.amountCents, e.currency, e.createdAt, e.balanceAfterCents)
+              from ArchivedLedgerEntry e
+              where e.accountId = :accountId and e.createdAt >= :from and e.createdAt < :to
+              order by e.createdAt, e.id
+            """)
+    Stream<LedgerEntryResponseDTO> streamAccountHistory(UUID accountId, Instant from, Instant to);
+
+    // credits increase the balance, debits decrease it; every archived entry is posted
+    @Query("""
+              select coalesce(sum(
+                case when e.side = 'credit' then e.amountCents
+                     when e.side = 'debit'  then -e.amountCents
+                     else 0 end), 0)
+              from ArchivedLedgerEntry e
+              where e.accountId = :accountId and e.createdAt >= :from and e.createdAt < :to
+            """)
+    Long netAmountForAccountBetween(UUID accountId, Instant from, Instant to);
+
+    // the same per account, for every account with archived entries in [from, to)
+    @Query("""
+              select new com.example.banking.model.AccountNet(e.accountId, sum(
+                case when e.side = 'credit' then e.amountCents
+                     when e.side = 'debit'  then -e.amountCents
+                     else 0 end))
+              from ArchivedLedgerEntry e
+              where e.createdAt >= :from and e.createdAt < :to
+              group by e.accountId
+            """)
+    List<AccountNet> netAmountsBetween(Instant from, Instant to);
+
+    // archived journals keep their external reference reserved
+    @Query(value = "SELECT COUNT(*) > 0 FROM journal_archive WHERE external_ref = :externalRef", nativeQuery = true)
+    boolean existsJournalByExternalRef(String externalRef);
+
+    // ---------- archive batch: copy, then the caller deletes the hot rows ----------
+
+    @Modifying
+    @Query(value = """
+              INSERT INTO journal_archive (id, description, external_ref, created_at, posted_at, currency,
+                                           debit_total_cents, credit_total_cents)
+              SELECT id, description, external_ref, created_at, posted_at, currency, debit_total_cents, credit_total_cents
+              FROM journal WHERE id IN (:journalIds)
+            """, nativeQuery = true)
+    int copyJournals(List<UUID> journalIds);
+
+    @Modifying
+    @Query(value = """
+              INSERT INTO ledger_entry_archive (id, journal_id, account_id, side, amount_cents, currency, created_at,
+                                                balance_after_cents)
+              SELECT id, journal_id, account_id, side, amount_cents, currency, created_at, balance_after_cents
+              FROM ledger_entry WHERE journal_id IN (:journalIds)
+            """, nativeQuery = true)
+    int copyEntries(List<UUID> journalIds);
+
+    // adds the batch's net per account to account_archive_total before the hot rows go away
+    @Modifying
+    @Query(value = """
+              MERGE INTO account_archive_total t
+              USING (SELECT account_id,
+                            SUM(CASE WHEN side = 'credit' THEN amount_cents ELSE -amount_cents END) AS net
+                     FROM ledger_entry WHERE journal_id IN (:journalIds)
+                     GROUP BY account_id) s
+              ON t.account_id = s.account_id
+              WHEN MATCHED THEN UPDATE SET balance_cents = t.balance_cents + s.net
+              WHEN NOT MATCHED THEN INSERT (account_id, balance_cents) VALUES (s.account_id, s.net)
+            """, nativeQuery = true)
+    int addToArchiveTotals(List<UUID> journalIds);
+}
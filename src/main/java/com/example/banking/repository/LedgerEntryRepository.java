@@ -1,13 +1,23 @@
 package com.example.banking.repository;
 
+import java.time.Instant;
+import java.util.Collection;
 import java.util.List;
 import java.util.UUID;
+import java.util.stream.Stream;
 
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 
+import com.example.banking.dto.LedgerEntryResponseDTO;
 import com.example.banking.entity.LedgerEntry;
+import com.example.banking.model.AccountNet;
+import com.example.banking.model.JournalStatus;
+
+import jakarta.persistence.QueryHint;
 
 public interface LedgerEntryRepository extends JpaRepository<LedgerEntry, UUID> {
     
@@ -16,9 +26,60 @@ public interface LedgerEntryRepository extends JpaRepository<LedgerEntry, UUID>
 
     List<LedgerEntry> findByJournal_IdOrderByCreatedAtDesc(UUID journalId);
 
+    // posting order within a journal (balance_after_cents is assigned in this order): posting
+    // restamps every entry with the same created_at, so the rebuild falls back to the id
+    List<LedgerEntry> findByJournal_IdOrderByIdAsc(UUID journalId);
+
+    // same order for several journals at once (batched posting)
+    List<LedgerEntry> findByJournal_IdInOrderByIdAsc(Collection<UUID> journalIds);
+
+    @Query("select distinct e.account.id from LedgerEntry e where e.journal.id = :journalId")
+    List<UUID> findAccountIdsByJournal(UUID journalId);
+
     // Account History
     List<LedgerEntry> findByAccount_IdOrderByCreatedAtDesc(UUID accountId, Pageable pageable);
 
+    // Account History (keyset): newest first, id breaks created_at ties so the order is total
+    List<LedgerEntry> findByAccount_IdOrderByCreatedAtDescIdDesc(UUID accountId, Pageable pageable);
+
+    // Seeks into le_by_acct just past the cursor instead of skipping OFFSET rows
+    @Query("""
+              select e from LedgerEntry e
+              where e.account.id = :accountId
+                and (e.createdAt < :createdAt or (e.createdAt = :createdAt and e.id < :id))
+              order by e.createdAt desc, e.id desc
+            """)
+    List<LedgerEntry> findAccountHistoryBefore(UUID accountId, Instant createdAt, UUID id, Pageable pageable);
+
+    // Full export: forward-only cursor over DTO rows (nothing lands in the persistence context)
+    @QueryHints({
+        @QueryHint(name = org.hibernate.jpa.HibernateHints.HINT_FETCH_SIZE, value = "500"),
+        @QueryHint(name = org.hibernate.jpa.HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("""
+              select new com.example.banking.dto.LedgerEntryResponseDTO(
+                e.id, e.journal.id, e.account.id, e.side, e.amountCents, e.currency, e.createdAt, e.balanceAfterCents)
+              from LedgerEntry e
+              where e.account.id = :accountId and e.createdAt >= :from and e.createdAt < :to
+              order by e.createdAt, e.id
+            """)
+    Stream<LedgerEntryResponseDTO> streamAccountHistory(UUID accountId, Instant from, Instant to);
+
+    // Statements: entries of posted journals in [from, to) for an account id range, grouped by
+    // account (in id order) and oldest first within one; a le_by_acct range scan
+    @QueryHints({
+        @QueryHint(name = org.hibernate.jpa.HibernateHints.HINT_FETCH_SIZE, value = "500"),
+        @QueryHint(name = org.hibernate.jpa.HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("""
+              select new com.example.banking.dto.LedgerEntryResponseDTO(
+                e.id, e.journal.id, e.account.id, e.side, e.amountCents, e.currency, e.createdAt, e.balanceAfterCents)
+              from LedgerEntry e
+              where e.account.id >= :fromId and e.account.id < :toId and e.journal.status = :status
+                and e.createdAt >= :from and e.createdAt < :to
+              order by e.account.id, e.createdAt, e.id
+            """)
+    Stream<LedgerEntryResponseDTO> streamRangeHistory(UUID fromId, UUID toId, JournalStatus status, Instant from, Instant to);
 
     // Following Double Entry Accounting principles
     // the sum of debits and credits in a journal must be zero
@@ -63,4 +124,46 @@ public interface LedgerEntryRepository extends JpaRepository<LedgerEntry, UUID>
               where e.account.id = :accountId
             """)
     Long netAmountForAccount(UUID accountId);
+
+    // same sign convention, bounded to entries of journals in the given status created in [from, to);
+    // walks le_by_acct(account_id, created_at) over that range only
+    @Query("""
+              select coalesce(sum(
+                case when e.side = 'credit' then e.amountCents
+                     when e.side = 'debit'  then -e.amountCents
+                     else 0 end), 0)
+              from LedgerEntry e
+              where e.account.id = :accountId and e.journal.status = :status
+                and e.createdAt >= :from and e.createdAt < :to
+            """)
+    Long netAmountForAccountBetween(UUID accountId, JournalStatus status, Instant from, Instant to);
+
+    // the same per account, for every account with entries in [from, to), in one grouped scan
+    @Query("""
+              select new com.example.banking.model.AccountNet(e.account.id, sum(
+                case when e.side = 'credit' then e.amountCents
+                     when e.side = 'debit'  then -e.amountCents
+                     else 0 end))
+              from LedgerEntry e
+              where e.journal.status = :status and e.createdAt >= :from and e.createdAt < :to
+              group by e.account.id
+            """)
+    List<AccountNet> netAmountsBetween(JournalStatus status, Instant from, Instant to);
+
+    // Recomputes balance_after_cents of every posted entry as a running sum per account,
+    // in posting order (journal posted_at, then entry created_at, id), starting from the
+    // account's archived total (archived journals were posted first); used after a restore
+    @Modifying
+    @Query(value = """
+              MERGE INTO ledger_entry t
+              USING (SELECT e.id, COALESCE(a.balance_cents, 0)
+                       + SUM(CASE WHEN e.side = 'credit' THEN e.amount_cents ELSE -e.amount_cents END)
+                         OVER (PARTITION BY e.account_id ORDER BY j.posted_at NULLS FIRST, e.created_at, e.id) AS bal
+                     FROM ledger_entry e JOIN journal j ON j.id = e.journal_id
+                     LEFT JOIN account_archive_total a ON a.account_id = e.account_id
+                     WHERE j.status = 'posted') s
+              ON t.id = s.id
+              WHEN MATCHED THEN UPDATE SET balance_after_cents = s.bal
+            """, nativeQuery = true)
+    int recomputeBalanceAfter();
 }
@@ -0,0 +1,139 @@
+package com.example.banking.security;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.security.SecureRandom;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Base64;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * Issues and verifies short-lived, stateless access tokens so authenticated
+ * requests no longer pay for a BCrypt check.
+ *
+ * Token layout: base64url(payload) "." base64url(HMAC-SHA256(payload part)),
+ * where payload = version(1) | customerId(16) | expiresAtEpochSecond(8).
+ */
+@Component
+public class AccessTokenService {
+
+    private static final Logger log = LoggerFactory.getLogger(AccessTokenService.class);
+
+    private static final String ALGORITHM = "HmacSHA256";
+    private static final byte VERSION = 1;
+    private static final int PAYLOAD_BYTES = 1 + 16 + 8;
+    private static final int SIGNATURE_BYTES = 32;
+    // base64url without padding
+    private static final int PAYLOAD_CHARS = (PAYLOAD_BYTES * 4 + 2) / 3;
+    private static final int SIGNATURE_CHARS = (SIGNATURE_BYTES * 4 + 2) / 3;
+    private static final int TOKEN_CHARS = PAYLOAD_CHARS + 1 + SIGNATURE_CHARS;
+
+    private static final Base64.Encoder ENCODER = Base64.getUrlEncoder().withoutPadding();
+    private static final Base64.Decoder DECODER = Base64.getUrlDecoder();
+
+    // keyed Macs kept for reuse; more than the busiest concurrent signing ever needs
+    private static final int IDLE_MACS = 64;
+
+    private final Duration ttl;
+    // Mac is not thread-safe. Calls borrow a keyed instance from a small shared pool and
+    // clone this prototype (no provider lookup or key setup) only when the pool is empty.
+    // Unlike a ThreadLocal cache it does not hand every virtual thread its own copy.
+    private final Mac prototype;
+    private final BlockingQueue<Mac> idle = new ArrayBlockingQueue<>(IDLE_MACS);
+
+    public AccessTokenService(@Value("${banking.auth.token.secret:}") String secret,
+            @Value("${banking.auth.token.ttl:15m}") Duration ttl) {
+        this.ttl = ttl;
+        try {
+            this.prototype = Mac.getInstance(ALGORITHM);
+            this.prototype.init(new SecretKeySpec(keyBytes(secret), ALGORITHM));
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("Cannot initialize " + ALGORITHM, e);
+        }
+    }
+
+    private byte[] sign(byte[] input) {
+        Mac mac = idle.poll();
+        if (mac == null) {
+            try {
+                mac = (Mac) prototype.clone();
+            } catch (CloneNotSupportedException e) {
+                throw new IllegalStateException(ALGORITHM + " provider does not support clone", e);
+            }
+        }
+        try {
+            return mac.doFinal(input); // also resets it for the next borrower
+        } finally {
+            idle.offer(mac); // dropped when the pool is full
+        }
+    }
+
+    private static byte[] keyBytes(String secret) {
+        if (secret == null || secret.isBlank()) {
+            log.warn("banking.auth.token.secret is not set; using a random key (tokens will not survive a restart)");
+            byte[] random = new byte[32];
+            new SecureRandom().nextBytes(random);
+            return random;
+        }
+        byte[] key = Base64.getDecoder().decode(secret.trim());
+        if (key.length < 32) {
+            throw new IllegalStateException("banking.auth.token.secret must be at least 256 bits (base64)");
+        }
+        return key;
+    }
+
+    public IssuedToken issue(UUID customerId) {
+        Instant expiresAt = Instant.now().plus(ttl);
+        byte[] payload = ByteBuffer.allocate(PAYLOAD_BYTES)
+            .put(VERSION)
+            .putLong(customerId.getMostSignificantBits())
+            .putLong(customerId.getLeastSignificantBits())
+            .putLong(expiresAt.getEpochSecond())
+            .array();
+        String payloadPart = ENCODER.encodeToString(payload);
+        byte[] signature = sign(payloadPart.getBytes(StandardCharsets.US_ASCII));
+        return new IssuedToken(payloadPart + "." + ENCODER.encodeToString(signature), expiresAt);
+    }
+
+    /**
+     * Returns the customer id carried by a valid, unexpired token, or null.
+     * The signature comparison is constant-time.
+     */
+    public UUID verify(String token) {
+        if (token == null || token.length() != TOKEN_CHARS || token.charAt(PAYLOAD_CHARS) != '.') {
+            return null;
+        }
+        try {
+            byte[] signingInput = token.substring(0, PAYLOAD_CHARS).getBytes(StandardCharsets.US_ASCII);
+            byte[] expected = sign(signingInput);
+            byte[] actual = DECODER.decode(token.substring(PAYLOAD_CHARS + 1));
+            if (!MessageDigest.isEqual(expected, actual)) {
+                return null;
+            }
+            ByteBuffer payload = ByteBuffer.wrap(DECODER.decode(signingInput));
+            if (payload.get() != VERSION) {
+                return null;
+            }
+            UUID customerId = new UUID(payload.getLong(), payload.getLong());
+            long expiresAt = payload.getLong();
+            return Instant.now().getEpochSecond() < expiresAt ? customerId : null;
+        } catch (IllegalArgumentException e) {
+            return null; // not base64url
+        }
+    }
+
+    public static record IssuedToken(String value, Instant expiresAt) {}
+}
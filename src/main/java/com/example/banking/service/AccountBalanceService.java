@@ -0,0 +1,206 @@
+package com.example.banking.service;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.UUID;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.example.banking.engine.LedgerEngine;
+import com.example.banking.entity.Account;
+import com.example.banking.entity.AccountBalance;
+import com.example.banking.exceptions.BankingExceptions.AccountNotFoundException;
+import com.example.banking.exceptions.BankingExceptions.InsufficientFundsException;
+import com.example.banking.model.HoldStatus;
+import com.example.banking.model.JournalStatus;
+import com.example.banking.repository.AccountBalanceRepository;
+import com.example.banking.repository.AccountBalanceRepository.BalanceDrift;
+import com.example.banking.repository.AccountRepository;
+import com.example.banking.repository.LedgerEntryRepository;
+
+/**
+ * Maintains the account_balance cache. Postings apply their per-account
+ * deltas here so balance reads are a single primary-key lookup; rebuild and
+ * verify recompute the cache from posted ledger entries (e.g. after a restore).
+ *
+ * With the ledger engine enabled every change is also reported to it, and the
+ * engine, which also sees transfers not yet written to account_balance, makes
+ * the available-funds decisions and serves balance reads.
+ */
+@Service
+public class AccountBalanceService {
+
+    private static final Logger log = LoggerFactory.getLogger(AccountBalanceService.class);
+
+    private final AccountBalanceRepository accountBalanceRepository;
+    private final LedgerEntryRepository ledgerEntryRepository;
+    private final AccountRepository accountRepository;
+    private final LedgerEngine ledgerEngine; // null unless banking.ledger.engine.enabled
+
+    public AccountBalanceService(AccountBalanceRepository accountBalanceRepository,
+            LedgerEntryRepository ledgerEntryRepository, AccountRepository accountRepository,
+            ObjectProvider<LedgerEngine> ledgerEngine) {
+        this.accountBalanceRepository = accountBalanceRepository;
+        this.ledgerEntryRepository = ledgerEntryRepository;
+        this.accountRepository = accountRepository;
+        this.ledgerEngine = ledgerEngine.getIfAvailable();
+    }
+
+    /**
+     * Applies each account's delta and returns the account's balance right
+     * after it. The balance rows are locked in account id order, so two
+     * postings that touch the same accounts queue behind each other instead of
+     * deadlocking; the locks are held until commit, so the returned values are
+     * exactly the balances this posting produced. The versioned update at
+     * flush catches anything that changed a row without taking the lock.
+     *
+     * A debit that would take a customer account's available balance (balance
+     * minus active holds) below zero is rejected. Both numbers are on the row
+     * that is already locked, so the check costs no extra query; only internal
+     * accounts may go negative.
+     */
+    @Transactional
+    public Map<UUID, Long> applyDeltas(Map<UUID, Long> deltasByAccount) {
+        Map<UUID, AccountBalance> locked = lockBalances(deltasByAccount.keySet());
+        Map<UUID, Long> after = new HashMap<>();
+        deltasByAccount.forEach((accountId, delta) -> {
+            AccountBalance balance = locked.get(accountId);
+            if (ledgerEngine != null) {
+                after.put(accountId, ledgerEngine.adjust(accountId, delta, 0, delta < 0 && isInternal(accountId)));
+                balance.setBalanceCents(balance.getBalanceCents() + delta);
+                return;
+            }
+            if (delta < 0) {
+                requireAvailable(balance, -delta);
+            }
+            balance.setBalanceCents(balance.getBalanceCents() + delta);
+            after.put(accountId, balance.getBalanceCents());
+        });
+        return after;
+    }
+
+    /**
+     * Locks the balance rows of the given accounts in account id order (the
+     * order every writer uses) and returns them; rows that do not exist yet
+     * are created at zero.
+     */
+    @Transactional
+    public Map<UUID, AccountBalance> lockBalances(Collection<UUID> accountIds) {
+        Map<UUID, AccountBalance> locked = new TreeMap<>();
+        for (UUID accountId : new TreeSet<>(accountIds)) {
+            AccountBalance balance = accountBalanceRepository.findByIdForUpdate(accountId)
+                    // no cache row yet (e.g. account created outside openAccount)
+                    .orElseGet(() -> accountBalanceRepository.save(
+                            new AccountBalance(accountId, 0L, account(accountId).getCurrency())));
+            locked.put(accountId, balance);
+        }
+        return locked;
+    }
+
+    /** Reserves funds for a hold; fails like a posting would when they are not available. */
+    @Transactional
+    public AccountBalance hold(UUID accountId, long amountCents) {
+        AccountBalance balance = lockBalances(List.of(accountId)).get(accountId);
+        if (ledgerEngine != null) {
+            ledgerEngine.adjust(accountId, 0, amountCents, isInternal(accountId));
+        } else {
+            requireAvailable(balance, amountCents);
+        }
+        balance.setHeldCents(balance.getHeldCents() + amountCents);
+        return balance;
+    }
+
+    /** Gives a hold's amount back to the available balance (release, expiry, or just before capture). */
+    @Transactional
+    public AccountBalance releaseHold(UUID accountId, long amountCents) {
+        AccountBalance balance = lockBalances(List.of(accountId)).get(accountId);
+        if (ledgerEngine != null) {
+            ledgerEngine.adjust(accountId, 0, -amountCents, true);
+        }
+        balance.setHeldCents(balance.getHeldCents() - amountCents);
+        return balance;
+    }
+
+    private void requireAvailable(AccountBalance balance, long amountCents) {
+        if (balance.getAvailableCents() < amountCents && !isInternal(balance.getAccountId())) {
+            throw new InsufficientFundsException(balance.getAccountId().toString(), balance.getAvailableCents(), amountCents);
+        }
+    }
+
+    // served from the persistence context or the second-level cache on the posting path
+    private Account account(UUID accountId) {
+        return accountRepository.findById(accountId)
+                .orElseThrow(() -> new AccountNotFoundException(accountId.toString()));
+    }
+
+    private boolean isInternal(UUID accountId) {
+        return "internal".equals(account(accountId).getKind());
+    }
+
+    @Transactional(readOnly = true)
+    public long getBalance(UUID accountId) {
+        if (ledgerEngine != null) {
+            return ledgerEngine.account(accountId).balanceCents();
+        }
+        return accountBalanceRepository.findById(accountId)
+                .map(AccountBalance::getBalanceCents)
+                .orElse(0L);
+    }
+
+    /**
+     * The cached row (balance and held amount); an unsaved zero row when there
+     * is none yet, and an unsaved row with the engine's numbers when it is on.
+     */
+    @Transactional(readOnly = true)
+    public AccountBalance getBalanceRow(UUID accountId, String currency) {
+        if (ledgerEngine != null) {
+            LedgerEngine.AccountState state = ledgerEngine.account(accountId);
+            AccountBalance row = new AccountBalance(accountId, state.balanceCents(), currency);
+            row.setHeldCents(state.heldCents());
+            return row;
+        }
+        return accountBalanceRepository.findById(accountId)
+                .orElseGet(() -> new AccountBalance(accountId, 0L, currency));
+    }
+
+    /**
+     * Drops and recomputes the whole cache (and each entry's balance after) from
+     * posted ledger entries, and the held amounts from active holds.
+     */
+    @Transactional
+    public int rebuild() {
+        accountBalanceRepository.deleteAllBalances();
+        int rows = accountBalanceRepository.seedZeroBalances();
+        accountBalanceRepository.recomputeFromLedger(JournalStatus.POSTED);
+        accountBalanceRepository.recomputeHeldFromHolds(HoldStatus.ACTIVE);
+        ledgerEntryRepository.recomputeBalanceAfter();
+        log.info("Rebuilt account_balance for {} accounts", rows);
+        return rows;
+    }
+
+    /** Compares the cache with the ledger without modifying anything. */
+    @Transactional(readOnly = true)
+    public BalanceVerification verify() {
+        List<BalanceDrift> drift = accountBalanceRepository.findDrift(JournalStatus.POSTED);
+        List<UUID> missing = accountBalanceRepository.findAccountsWithoutBalance();
+        return new BalanceVerification(
+            drift.stream().map(d -> new Drift(d.getAccountId(), d.getCachedCents(), d.getLedgerCents())).toList(),
+            missing);
+    }
+
+    public static record Drift(UUID accountId, long cachedCents, long ledgerCents) {}
+
+    public static record BalanceVerification(List<Drift> drift, List<UUID> missingAccounts) {
+        public boolean consistent() {
+            return drift.isEmpty() && missingAccounts.isEmpty();
+        }
+    }
+}
@@ -1,5 +1,6 @@
 package com.example.banking.service;
 
+import java.time.Instant;
 import java.util.List;
 import java.util.Locale;
 import java.util.Set;
@@ -8,10 +9,13 @@ import java.util.Currency;
 import java.util.stream.Collectors;
 
 import org.springframework.stereotype.Service;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import org.springframework.transaction.annotation.Transactional;
 import jakarta.persistence.EntityManager;
 
 import com.example.banking.entity.Account;
+import com.example.banking.entity.AccountBalance;
 import com.example.banking.entity.Customer;
 import com.example.banking.exceptions.BankingExceptions.CustomerNotFoundException;
 import com.example.banking.exceptions.BankingExceptions.AccountNotFoundException;
@@ -19,20 +23,25 @@ import com.example.banking.exceptions.BankingExceptions.InvalidAccountKindExcept
 import com.example.banking.exceptions.BankingExceptions.InvalidCurrencyCodeException;
 import com.example.banking.repository.AccountRepository;
 import com.example.banking.repository.CustomerRepository;
-import com.example.banking.repository.LedgerEntryRepository;
 
 @Service
 public class AccountService {
     private final AccountRepository accountRepository;
     private final CustomerRepository customerRepository;
-    private final LedgerEntryRepository ledgerEntryRepository;
+    private final AccountBalanceService accountBalanceService;
+    private final BalanceCheckpointService balanceCheckpointService;
     private final EntityManager entityManager;
+    private final Timer balanceTimer;
 
-    public AccountService(AccountRepository accountRepository, CustomerRepository customerRepository, LedgerEntryRepository ledgerEntryRepository, EntityManager entityManager) {
+    public AccountService(AccountRepository accountRepository, CustomerRepository customerRepository, AccountBalanceService accountBalanceService,
+            BalanceCheckpointService balanceCheckpointService, EntityManager entityManager, MeterRegistry meterRegistry) {
         this.accountRepository = accountRepository;
         this.customerRepository = customerRepository;
-        this.ledgerEntryRepository = ledgerEntryRepository;
+        this.accountBalanceService = accountBalanceService;
+        this.balanceCheckpointService = balanceCheckpointService;
         this.entityManager = entityManager;
+        this.balanceTimer = Timer.builder("banking.account.balance")
+            .description("Balance lookup latency").register(meterRegistry);
     }
 
     private static final Set<String> ISO_CURRENCY_CODES = Currency.getAvailableCurrencies()
@@ -55,6 +64,7 @@ public class AccountService {
 
         Account a = new Account(owner, k, cur); // defaults isActive=true
         accountRepository.save(a);
+        entityManager.persist(new AccountBalance(a.getId(), 0L, cur)); // start the cached balance at zero
         // Ensure openedAt (DB default) is loaded before leaving transactional boundary
         entityManager.flush();
         entityManager.refresh(a);
@@ -69,7 +79,10 @@ public class AccountService {
 
     @Transactional(readOnly = true)
     public Account getAccount(UUID accountId, UUID customerId) {
-        return accountRepository.findByIdAndCustomer_Id(accountId, customerId)
+        // by id so the lookup is served from the entity cache; the owner id comes from the FK, no join
+        // (internal accounts have no customer and never match, as with the previous joined query)
+        return accountRepository.findById(accountId)
+                .filter(a -> a.getCustomer() != null && a.getCustomer().getId().equals(customerId))
                 .orElseThrow(() -> new AccountNotFoundException(accountId.toString()));
     }
 
@@ -78,11 +91,30 @@ public class AccountService {
         Account a = accountRepository.findById(accountId)
                 .orElseThrow(() -> new AccountNotFoundException(accountId.toString()));
         if (a.isActive() == active) return; // no change
-        a.setActive(active);
+        a.setActive(active); // flushed on commit, which also replaces the cached Account
     }
 
     @Transactional(readOnly = true)
     public long computeBalance(UUID accountId) {
-        return ledgerEntryRepository.netAmountForAccount(accountId);
+        // single-row read of the cache maintained by JournalService.postJournal
+        return balanceTimer.record(() -> accountBalanceService.getBalance(accountId));
     }
+
+    /**
+     * Current balance and available balance (minus active holds), or the balance
+     * as of {@code asOf} (posted entries created before it) when given; holds
+     * are not historized, so an as-of balance has no available amount.
+     */
+    @Transactional(readOnly = true)
+    public Balance balance(UUID accountId, Instant asOf) {
+        Account a = accountRepository.findById(accountId)
+                .orElseThrow(() -> new AccountNotFoundException(accountId.toString()));
+        if (asOf != null) {
+            return new Balance(accountId, a.getCurrency(), balanceCheckpointService.balanceAsOf(accountId, asOf), null, asOf);
+        }
+        AccountBalance row = balanceTimer.record(() -> accountBalanceService.getBalanceRow(accountId, a.getCurrency()));
+        return new Balance(accountId, a.getCurrency(), row.getBalanceCents(), row.getAvailableCents(), null);
+    }
+
+    public static record Balance(UUID accountId, String currency, long balanceCents, Long availableCents, Instant asOf) {}
 }
@@ -0,0 +1,225 @@
+package com.example.banking.service;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.stereotype.Service;
+
+import com.example.banking.entity.Journal;
+import com.example.banking.exceptions.BankingExceptions.BankingException;
+import com.example.banking.exceptions.BankingExceptions.PostingQueueFullException;
+import com.example.banking.model.JournalStatus;
+import com.example.banking.repository.LedgerEntryRepository;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * Optional asynchronous posting. Accepted journals are routed by the hash of
+ * their lowest account id to one of a fixed set of single-writer queues; each
+ * writer drains its queue in micro-batches and posts a batch in one
+ * transaction with one balance update per account (JournalService.postJournals).
+ * Journals that share their lowest account, e.g. every transfer out of the same
+ * hot account, therefore queue behind one writer instead of contending for its
+ * balance row in the database, and no request thread waits for the post.
+ *
+ * Queued work lives in memory: journals still queued at shutdown stay PENDING
+ * and can simply be submitted again.
+ */
+@Service
+public class AsyncPostingService implements SmartLifecycle {
+
+    private static final Logger log = LoggerFactory.getLogger(AsyncPostingService.class);
+
+    private final JournalService journalService;
+    private final LedgerEntryRepository ledgerEntryRepository;
+    private final int batchSize;
+    private final List<Writer> writers;
+    private final Cache<UUID, PostingStatus> statuses;
+    private volatile boolean running;
+
+    public AsyncPostingService(JournalService journalService, LedgerEntryRepository ledgerEntryRepository,
+            @Value("${banking.posting.async.writers:4}") int writerCount,
+            @Value("${banking.posting.async.batch-size:64}") int batchSize,
+            @Value("${banking.posting.async.queue-capacity:10000}") int queueCapacity,
+            @Value("${banking.posting.async.status-ttl:1h}") Duration statusTtl,
+            MeterRegistry meterRegistry) {
+        this.journalService = journalService;
+        this.ledgerEntryRepository = ledgerEntryRepository;
+        this.batchSize = batchSize;
+        this.writers = new ArrayList<>(writerCount);
+        for (int i = 0; i < writerCount; i++) {
+            Writer writer = new Writer(i, new LinkedBlockingQueue<>(queueCapacity));
+            writers.add(writer);
+            Gauge.builder("banking.posting.queue.depth", writer.queue, BlockingQueue::size)
+                .description("Journals waiting for an async posting writer")
+                .tag("writer", String.valueOf(i)).register(meterRegistry);
+        }
+        this.statuses = Caffeine.newBuilder()
+            .maximumSize((long) writerCount * queueCapacity * 2)
+            .expireAfterWrite(statusTtl)
+            .build();
+    }
+
+    /**
+     * Queues a pending journal for posting. Returns the current status without
+     * queueing again when the journal is already queued or posted.
+     */
+    public PostingStatus submit(UUID journalId) {
+        Journal journal = journalService.getJournal(journalId); // 404 for unknown journals
+        if (journal.getStatus() == JournalStatus.POSTED) {
+            return PostingStatus.posted(journalId);
+        }
+        PostingStatus current = statuses.getIfPresent(journalId);
+        if (current != null && current.state() == PostingState.QUEUED) {
+            return current;
+        }
+
+        Writer writer = writerFor(journalId);
+        PostingStatus queued = PostingStatus.queued(journalId);
+        statuses.put(journalId, queued);
+        if (!writer.queue.offer(journalId)) {
+            statuses.invalidate(journalId);
+            throw new PostingQueueFullException(writer.index);
+        }
+        return queued;
+    }
+
+    /** Status of an async posting; falls back to the journal itself once the status has expired. */
+    public PostingStatus status(UUID journalId) {
+        PostingStatus status = statuses.getIfPresent(journalId);
+        if (status != null) {
+            return status;
+        }
+        Journal journal = journalService.getJournal(journalId);
+        return journal.getStatus() == JournalStatus.POSTED
+            ? PostingStatus.posted(journalId)
+            : new PostingStatus(journalId, PostingState.NOT_QUEUED, null, null);
+    }
+
+    private Writer writerFor(UUID journalId) {
+        UUID routingAccount = ledgerEntryRepository.findAccountIdsByJournal(journalId).stream()
+            .min(Comparator.naturalOrder())
+            .orElse(journalId);
+        return writers.get(Math.floorMod(routingAccount.hashCode(), writers.size()));
+    }
+
+    private void postBatch(List<UUID> batch) {
+        try {
+            Map<UUID, RuntimeException> rejected = journalService.postJournals(batch);
+            for (UUID journalId : batch) {
+                RuntimeException reason = rejected.get(journalId);
+                statuses.put(journalId, reason == null ? PostingStatus.posted(journalId) : PostingStatus.failed(journalId, reason));
+            }
+        } catch (RuntimeException batchFailure) {
+            // the whole transaction rolled back; isolate the failing journal(s)
+            log.warn("Posting batch of {} failed, retrying individually: {}", batch.size(), batchFailure.toString());
+            for (UUID journalId : batch) {
+                try {
+                    journalService.postJournal(journalId);
+                    statuses.put(journalId, PostingStatus.posted(journalId));
+                } catch (RuntimeException e) {
+                    statuses.put(journalId, PostingStatus.failed(journalId, e));
+                }
+            }
+        }
+    }
+
+    // ---------- lifecycle ----------
+
+    @Override
+    public void start() {
+        running = true;
+        for (Writer writer : writers) {
+            writer.thread = new Thread(writer, "posting-writer-" + writer.index);
+            writer.thread.start();
+        }
+    }
+
+    @Override
+    public void stop() {
+        running = false;
+        for (Writer writer : writers) {
+            writer.thread.interrupt();
+        }
+        for (Writer writer : writers) {
+            try {
+                writer.thread.join(TimeUnit.SECONDS.toMillis(5));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+            if (!writer.queue.isEmpty()) {
+                log.warn("posting-writer-{} stopped with {} journals still queued (left PENDING)",
+                    writer.index, writer.queue.size());
+            }
+        }
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    private final class Writer implements Runnable {
+        final int index;
+        final BlockingQueue<UUID> queue;
+        Thread thread;
+
+        Writer(int index, BlockingQueue<UUID> queue) {
+            this.index = index;
+            this.queue = queue;
+        }
+
+        @Override
+        public void run() {
+            List<UUID> batch = new ArrayList<>(batchSize);
+            while (running) {
+                try {
+                    UUID first = queue.poll(1, TimeUnit.SECONDS);
+                    if (first == null) continue;
+                    batch.add(first);
+                    queue.drainTo(batch, batchSize - 1);
+                    postBatch(batch);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return;
+                } catch (RuntimeException e) {
+                    log.error("posting-writer-{} failed on a batch", index, e);
+                } finally {
+                    batch.clear();
+                }
+            }
+        }
+    }
+
+    public enum PostingState { NOT_QUEUED, QUEUED, POSTED, FAILED }
+
+    public static record PostingStatus(UUID journalId, PostingState state, String code, String detail) {
+        static PostingStatus queued(UUID journalId) {
+            return new PostingStatus(journalId, PostingState.QUEUED, null, null);
+        }
+
+        static PostingStatus posted(UUID journalId) {
+            return new PostingStatus(journalId, PostingState.POSTED, null, null);
+        }
+
+        static PostingStatus failed(UUID journalId, RuntimeException reason) {
+            String code = reason instanceof BankingException be ? be.getCode().name() : "INTERNAL_ERROR";
+            return new PostingStatus(journalId, PostingState.FAILED, code, reason.getMessage());
+        }
+    }
+}
@@ -4,6 +4,9 @@ import java.util.Locale;
 
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import org.springframework.transaction.annotation.Transactional;
 import jakarta.persistence.EntityManager;
 
@@ -17,6 +20,7 @@ import com.example.banking.exceptions.BankingExceptions.EmailAlreadyExistsExcept
 import com.example.banking.exceptions.BankingExceptions.InvalidCredentialsException;
 import com.example.banking.exceptions.BankingExceptions.IncorrectPasswordException;
 import com.example.banking.repository.CustomerRepository;
+import com.example.banking.security.AccessTokenService;
 
 
 @Service
@@ -24,11 +28,23 @@ public class AuthService {
     private final CustomerRepository customerRepository;
     private final PasswordEncoder encoder;
     private final EntityManager entityManager;
+    private final AccessTokenService accessTokens;
 
-    public AuthService(CustomerRepository customerRepository, PasswordEncoder encoder, EntityManager entityManager) {
+    private final Timer passwordCheckTimer;
+    private final Counter unknownIdentifierFailures;
+    private final Counter badPasswordFailures;
+
+    public AuthService(CustomerRepository customerRepository, PasswordEncoder encoder, EntityManager entityManager, AccessTokenService accessTokens, MeterRegistry meterRegistry) {
         this.customerRepository = customerRepository;
         this.encoder = encoder;
         this.entityManager = entityManager;
+        this.accessTokens = accessTokens;
+        this.passwordCheckTimer = Timer.builder("banking.auth.password.check")
+            .description("Time spent verifying a password hash on login").register(meterRegistry);
+        this.unknownIdentifierFailures = Counter.builder("banking.auth.login.failures")
+            .tag("reason", "unknown_identifier").register(meterRegistry);
+        this.badPasswordFailures = Counter.builder("banking.auth.login.failures")
+            .tag("reason", "bad_password").register(meterRegistry);
     }
 
     @Transactional
@@ -65,13 +81,19 @@ public class AuthService {
         );
     }
 
-    @Transactional(readOnly = true)
+    // Deliberately not @Transactional: the lookup and the optional rehash each run in their
+    // own repository transaction, so no JDBC connection is held during the BCrypt check.
     public LoginResponseDTO login(LoginRequestDTO req){
         var identifier = req.identifier().trim().toLowerCase(Locale.ROOT);
         var customer = customerRepository.findByUsername(identifier)
             .or(() -> customerRepository.findByEmail(identifier))
-            .orElseThrow(() -> new InvalidCredentialsException());
-        if(!encoder.matches(req.password(), customer.getPasswordHash())){
+            .orElseThrow(() -> {
+                unknownIdentifierFailures.increment();
+                return new InvalidCredentialsException();
+            });
+        boolean matches = passwordCheckTimer.record(() -> encoder.matches(req.password(), customer.getPasswordHash()));
+        if(!matches){
+            badPasswordFailures.increment();
             throw new InvalidCredentialsException();
         }
 
@@ -93,12 +115,15 @@ public class AuthService {
     }
 
     private LoginResponseDTO generateLoginResponse(Customer customer) {
+        var token = accessTokens.issue(customer.getId());
         return LoginResponseDTO.of(
             customer.getId(),
             customer.getUsername(),
             customer.getEmail(),
             customer.getFirstName(),
-            customer.getLastName()
+            customer.getLastName(),
+            token.value(),
+            token.expiresAt()
         );
     }
 }
@@ -0,0 +1,156 @@
+package com.example.banking.service;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.example.banking.engine.LedgerEngine;
+import com.example.banking.entity.BalanceCheckpoint;
+import com.example.banking.model.AccountNet;
+import com.example.banking.model.JournalStatus;
+import com.example.banking.repository.BalanceCheckpointRepository;
+import com.example.banking.repository.LedgerArchiveRepository;
+import com.example.banking.repository.LedgerEntryRepository;
+
+import jakarta.persistence.EntityManager;
+
+/**
+ * Point-in-time balances. A periodic job records, per account, the balance of
+ * posted entries created before a cutoff; an as-of query starts from the
+ * nearest checkpoint and only sums the entries created after it, so its cost
+ * follows the activity since the checkpoint rather than the account's age.
+ *
+ * Posting a journal restamps its entries with the posting time, so a journal
+ * left pending, however old, never adds entries behind a cutoff and does not
+ * hold it back. The cutoff trails the clock by
+ * {@code banking.balance.checkpoint-lag} so in-flight postings, stamped just
+ * before they commit, have committed before their window closes.
+ * With the ledger engine on it also stops at the oldest transfer the
+ * write-behind writer has not written yet, however far behind that is, since
+ * its rows arrive stamped with the time the engine accepted it.
+ *
+ * Sums cover both ledger tiers; archived entries all predate the latest
+ * checkpoint (see LedgerArchiveService), so outside a rebuild or an as-of
+ * query into the archived past the cold-tier range is empty.
+ */
+@Service
+public class BalanceCheckpointService {
+
+    private static final Logger log = LoggerFactory.getLogger(BalanceCheckpointService.class);
+
+    // accounts per checkpoint load (bounds the IN list) and per insert flush
+    private static final int BATCH_SIZE = 500;
+
+    private final BalanceCheckpointRepository balanceCheckpointRepository;
+    private final LedgerEntryRepository ledgerEntryRepository;
+    private final LedgerArchiveRepository ledgerArchiveRepository;
+    private final EntityManager entityManager;
+    private final Duration lag;
+    private final LedgerEngine ledgerEngine; // null unless banking.ledger.engine.enabled
+
+    public BalanceCheckpointService(BalanceCheckpointRepository balanceCheckpointRepository,
+            LedgerEntryRepository ledgerEntryRepository, LedgerArchiveRepository ledgerArchiveRepository,
+            EntityManager entityManager,
+            @Value("${banking.balance.checkpoint-lag:5m}") Duration lag,
+            ObjectProvider<LedgerEngine> ledgerEngine) {
+        this.balanceCheckpointRepository = balanceCheckpointRepository;
+        this.ledgerEntryRepository = ledgerEntryRepository;
+        this.ledgerArchiveRepository = ledgerArchiveRepository;
+        this.entityManager = entityManager;
+        this.lag = lag;
+        this.ledgerEngine = ledgerEngine.getIfAvailable();
+    }
+
+    /** Balance from entries of posted journals created before {@code asOf}. */
+    @Transactional(readOnly = true)
+    public long balanceAsOf(UUID accountId, Instant asOf) {
+        var checkpoint = balanceCheckpointRepository.findFirstByAccountIdAndAsOfLessThanEqualOrderByAsOfDesc(accountId, asOf);
+        Instant from = checkpoint.map(BalanceCheckpoint::getAsOf).orElse(Instant.EPOCH);
+        long base = checkpoint.map(BalanceCheckpoint::getBalanceCents).orElse(0L);
+        return base + postedNetBetween(accountId, from, asOf);
+    }
+
+    /**
+     * Checkpoints every account whose balance changed since the previous
+     * window. Accounts with no net change are skipped: their latest checkpoint
+     * still holds, which keeps the table proportional to activity. All rows of
+     * a run share one cutoff and commit together. The window's net changes come
+     * from one grouped sum per tier and the bases from the previous checkpoints
+     * of the changed accounts only, loaded in chunks, so a run costs a few
+     * queries per chunk of active accounts plus the inserts, not a few queries
+     * per account.
+     */
+    @Scheduled(fixedDelayString = "${banking.balance.checkpoint-interval:1h}")
+    @Transactional
+    public int createCheckpoints() {
+        Instant previous = balanceCheckpointRepository.findLatestAsOf();
+        if (previous == null) previous = Instant.EPOCH;
+        Instant cutoff = Instant.now().minus(lag);
+        Instant oldestUnwritten = ledgerEngine == null ? null : ledgerEngine.oldestUnwrittenAt();
+        if (oldestUnwritten != null && oldestUnwritten.isBefore(cutoff)) {
+            cutoff = oldestUnwritten;
+        }
+        if (!cutoff.isAfter(previous)) {
+            return 0;
+        }
+
+        Map<UUID, Long> deltas = new HashMap<>();
+        for (AccountNet net : ledgerEntryRepository.netAmountsBetween(JournalStatus.POSTED, previous, cutoff)) {
+            deltas.merge(net.accountId(), net.netCents(), Long::sum);
+        }
+        for (AccountNet net : ledgerArchiveRepository.netAmountsBetween(previous, cutoff)) {
+            deltas.merge(net.accountId(), net.netCents(), Long::sum);
+        }
+        deltas.values().removeIf(delta -> delta == 0);
+        if (deltas.isEmpty()) {
+            log.info("Wrote 0 balance checkpoints as of {}", cutoff);
+            return 0;
+        }
+        Map<UUID, Long> bases = new HashMap<>();
+        List<UUID> changed = new ArrayList<>(deltas.keySet());
+        for (int from = 0; from < changed.size(); from += BATCH_SIZE) {
+            List<UUID> chunk = changed.subList(from, Math.min(from + BATCH_SIZE, changed.size()));
+            for (BalanceCheckpoint checkpoint : balanceCheckpointRepository.findLatestPerAccount(previous, chunk)) {
+                bases.put(checkpoint.getAccountId(), checkpoint.getBalanceCents());
+            }
+            entityManager.clear(); // the loaded checkpoints are only needed for their balances
+        }
+
+        int written = 0;
+        for (Map.Entry<UUID, Long> delta : deltas.entrySet()) {
+            long base = bases.getOrDefault(delta.getKey(), 0L);
+            entityManager.persist(new BalanceCheckpoint(delta.getKey(), cutoff, base + delta.getValue()));
+            if (++written % BATCH_SIZE == 0) {
+                entityManager.flush();
+                entityManager.clear();
+            }
+        }
+        log.info("Wrote {} balance checkpoints as of {}", written, cutoff);
+        return written;
+    }
+
+    // hot entries of posted journals plus archived ones, created in [from, to)
+    private long postedNetBetween(UUID accountId, Instant from, Instant to) {
+        return ledgerEntryRepository.netAmountForAccountBetween(accountId, JournalStatus.POSTED, from, to)
+            + ledgerArchiveRepository.netAmountForAccountBetween(accountId, from, to);
+    }
+
+    /** Drops every checkpoint and recomputes them from the ledger (e.g. after a restore). */
+    @Transactional
+    public int rebuild() {
+        balanceCheckpointRepository.deleteAllCheckpoints();
+        return createCheckpoints();
+    }
+}
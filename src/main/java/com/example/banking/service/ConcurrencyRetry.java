@@ -0,0 +1,85 @@
+package com.example.banking.service;
+
+import java.time.Duration;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.Supplier;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.ConcurrencyFailureException;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * Runs a unit of work in its own transaction and re-runs it when it loses a
+ * lock or version race (lock timeout, deadlock victim, stale version), with
+ * exponential backoff and full jitter between attempts. When the caller is
+ * already inside a transaction the work runs once: only the outermost
+ * transaction can be rolled back and retried as a whole.
+ */
+@Component
+public class ConcurrencyRetry {
+
+    private static final Logger log = LoggerFactory.getLogger(ConcurrencyRetry.class);
+
+    private final TransactionTemplate transactionTemplate;
+    private final int maxAttempts;
+    private final long initialBackoffMillis;
+    private final long maxBackoffMillis;
+    private final Counter retries;
+    private final Counter exhausted;
+
+    public ConcurrencyRetry(PlatformTransactionManager transactionManager,
+            @Value("${banking.posting.retry.max-attempts:5}") int maxAttempts,
+            @Value("${banking.posting.retry.initial-backoff:5ms}") Duration initialBackoff,
+            @Value("${banking.posting.retry.max-backoff:200ms}") Duration maxBackoff,
+            MeterRegistry meterRegistry) {
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.maxAttempts = Math.max(1, maxAttempts);
+        this.initialBackoffMillis = Math.max(1, initialBackoff.toMillis());
+        this.maxBackoffMillis = Math.max(initialBackoffMillis, maxBackoff.toMillis());
+        this.retries = Counter.builder("banking.posting.retries")
+            .description("Transactions re-run after a lock or version conflict").register(meterRegistry);
+        this.exhausted = Counter.builder("banking.posting.retries.exhausted")
+            .description("Transactions that still conflicted after the last attempt").register(meterRegistry);
+    }
+
+    public <T> T inTransaction(Supplier<T> work) {
+        if (TransactionSynchronizationManager.isActualTransactionActive()) {
+            return work.get();
+        }
+        for (int attempt = 1; ; attempt++) {
+            try {
+                return transactionTemplate.execute(status -> work.get());
+            } catch (ConcurrencyFailureException e) {
+                if (attempt >= maxAttempts) {
+                    exhausted.increment();
+                    throw e;
+                }
+                retries.increment();
+                log.debug("Concurrency conflict on attempt {}, retrying: {}", attempt, e.toString());
+                if (!backoff(attempt)) {
+                    throw e;
+                }
+            }
+        }
+    }
+
+    // full jitter: a random pause up to the exponential ceiling, so colliding callers spread out
+    private boolean backoff(int attempt) {
+        long ceiling = Math.min(maxBackoffMillis, initialBackoffMillis << Math.min(attempt - 1, 20));
+        try {
+            Thread.sleep(ThreadLocalRandom.current().nextLong(ceiling + 1));
+            return true;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+}
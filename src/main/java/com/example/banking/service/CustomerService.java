@@ -54,7 +54,7 @@ public class CustomerService {
         c.setLastName(lastName);
         c.setEmail(normalizedEmail);
 
-        return customerRepository.save(c);
+        return customerRepository.save(c); // the cached Customer is replaced on commit
     }
 
     // TODO: Add method for deactivation
@@ -0,0 +1,206 @@
+package com.example.banking.service;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.UUID;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.example.banking.entity.Account;
+import com.example.banking.entity.FundsHold;
+import com.example.banking.exceptions.BankingExceptions.AccountNotFoundException;
+import com.example.banking.exceptions.BankingExceptions.HoldNotActiveException;
+import com.example.banking.exceptions.BankingExceptions.HoldNotFoundException;
+import com.example.banking.exceptions.BankingExceptions.InactiveAccountException;
+import com.example.banking.exceptions.BankingExceptions.InvalidAmountException;
+import com.example.banking.exceptions.BankingExceptions.InvalidHoldExpiryException;
+import com.example.banking.exceptions.BankingExceptions.InvalidCurrencyCodeException;
+import com.example.banking.model.HoldStatus;
+import com.example.banking.repository.AccountRepository;
+import com.example.banking.repository.FundsHoldRepository;
+import com.example.banking.service.JournalService.EntryLine;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * Authorize / capture / release of funds holds. An authorization reserves the
+ * amount in the account's held_cents (checked against the available balance
+ * exactly like a posting), a capture posts a journal from the held account to
+ * a counterparty, and release or expiry just return the amount. Every change
+ * locks the hold row first and then the balance rows, in account id order.
+ */
+@Service
+public class HoldService {
+
+    private static final Logger log = LoggerFactory.getLogger(HoldService.class);
+
+    private final FundsHoldRepository holdRepository;
+    private final AccountRepository accountRepository;
+    private final AccountBalanceService accountBalanceService;
+    private final JournalService journalService;
+    private final ConcurrencyRetry retry;
+    private final Duration defaultTtl;
+    private final int expiryBatchSize;
+
+    private final Counter authorized;
+    private final Counter captured;
+    private final Counter released;
+    private final Counter expired;
+
+    public HoldService(FundsHoldRepository holdRepository, AccountRepository accountRepository,
+            AccountBalanceService accountBalanceService, JournalService journalService, ConcurrencyRetry retry,
+            @Value("${banking.holds.default-ttl:7d}") Duration defaultTtl,
+            @Value("${banking.holds.expiry-batch-size:500}") int expiryBatchSize, MeterRegistry meterRegistry) {
+        this.holdRepository = holdRepository;
+        this.accountRepository = accountRepository;
+        this.accountBalanceService = accountBalanceService;
+        this.journalService = journalService;
+        this.retry = retry;
+        this.defaultTtl = defaultTtl;
+        this.expiryBatchSize = Math.max(1, expiryBatchSize);
+        this.authorized = holdCounter(meterRegistry, "authorized");
+        this.captured = holdCounter(meterRegistry, "captured");
+        this.released = holdCounter(meterRegistry, "released");
+        this.expired = holdCounter(meterRegistry, "expired");
+    }
+
+    private static Counter holdCounter(MeterRegistry meterRegistry, String outcome) {
+        return Counter.builder("banking.holds").description("Funds hold transitions")
+            .tag("outcome", outcome).register(meterRegistry);
+    }
+
+    /** Reserves {@code amountCents} on the account until captured, released or {@code expiresAt}. */
+    public FundsHold authorize(UUID accountId, long amountCents, String currency, String description, Instant expiresAt) {
+        if (amountCents <= 0) {
+            throw new InvalidAmountException(amountCents);
+        }
+        if (expiresAt != null && !expiresAt.isAfter(Instant.now())) {
+            throw new InvalidHoldExpiryException(expiresAt); // would reserve funds until the next sweep
+        }
+        FundsHold hold = retry.inTransaction(() -> {
+            Account account = accountRepository.findById(accountId)
+                .orElseThrow(() -> new AccountNotFoundException(accountId.toString()));
+            if (!account.isActive()) {
+                throw new InactiveAccountException(accountId.toString());
+            }
+            String cur = currency == null ? account.getCurrency() : currency.trim().toUpperCase(Locale.ROOT);
+            if (!cur.equals(account.getCurrency())) {
+                throw new InvalidCurrencyCodeException(cur + " (account currency is " + account.getCurrency() + ")");
+            }
+            accountBalanceService.hold(accountId, amountCents);
+            String desc = (description == null || description.isBlank()) ? null : description.trim();
+            return holdRepository.save(new FundsHold(accountId, amountCents, cur, desc,
+                expiresAt != null ? expiresAt : Instant.now().plus(defaultTtl)));
+        });
+        authorized.increment();
+        return hold;
+    }
+
+    /**
+     * Posts {@code amountCents} (the whole hold when null) from the held account
+     * to {@code creditAccountId}; any uncaptured remainder is released. The
+     * journal's external reference is derived from the hold, so a hold can be
+     * captured at most once.
+     */
+    public FundsHold capture(UUID holdId, UUID creditAccountId, Long amountCents) {
+        FundsHold result = retry.inTransaction(() -> {
+            FundsHold hold = lockActive(holdId);
+            if (!hold.getExpiresAt().isAfter(Instant.now())) {
+                throw new HoldNotActiveException(holdId.toString(), HoldStatus.EXPIRED.name()); // not swept yet
+            }
+            long amount = amountCents == null ? hold.getAmountCents() : amountCents;
+            if (amount <= 0) {
+                throw new InvalidAmountException(amount);
+            }
+            if (amount > hold.getAmountCents()) {
+                throw new InvalidAmountException("Capture amount exceeds the held amount",
+                    Map.of("holdId", holdId, "heldCents", hold.getAmountCents(), "amountCents", amount));
+            }
+            // both balance rows in id order before touching either, like any posting
+            accountBalanceService.lockBalances(List.of(hold.getAccountId(), creditAccountId));
+            accountBalanceService.releaseHold(hold.getAccountId(), hold.getAmountCents());
+            var submission = journalService.submitJournal("Capture of hold " + holdId, "hold:" + holdId, List.of(
+                new EntryLine(hold.getAccountId(), "debit", hold.getCurrency(), amount),
+                new EntryLine(creditAccountId, "credit", hold.getCurrency(), amount)), true);
+            hold.capture(amount, submission.journal().getId());
+            return hold;
+        });
+        captured.increment();
+        return result;
+    }
+
+    public FundsHold release(UUID holdId) {
+        FundsHold hold = retry.inTransaction(() -> {
+            FundsHold active = lockActive(holdId);
+            accountBalanceService.releaseHold(active.getAccountId(), active.getAmountCents());
+            active.close(HoldStatus.RELEASED);
+            return active;
+        });
+        released.increment();
+        return hold;
+    }
+
+    @Transactional(readOnly = true)
+    public FundsHold getHold(UUID holdId) {
+        return holdRepository.findById(holdId)
+            .orElseThrow(() -> new HoldNotFoundException(holdId.toString()));
+    }
+
+    @Transactional(readOnly = true)
+    public List<FundsHold> activeHolds(UUID accountId) {
+        return holdRepository.findByAccountIdAndStatusOrderByCreatedAtAsc(accountId, HoldStatus.ACTIVE);
+    }
+
+    /**
+     * Releases holds that passed their expiry without being captured, one
+     * transaction each. Ids are read {@code expiry-batch-size} at a time; every
+     * hold of a page leaves ACTIVE, so the next page starts from the top again.
+     */
+    @Scheduled(fixedDelayString = "${banking.holds.expiry-interval:1m}")
+    public int expireHolds() {
+        Instant now = Instant.now();
+        int count = 0;
+        List<UUID> page;
+        do {
+            page = holdRepository.findIdsExpiredBefore(HoldStatus.ACTIVE, now, PageRequest.of(0, expiryBatchSize));
+            for (UUID holdId : page) {
+                boolean done = retry.inTransaction(() -> {
+                    FundsHold hold = holdRepository.findByIdForUpdate(holdId).orElse(null);
+                    if (hold == null || hold.getStatus() != HoldStatus.ACTIVE) {
+                        return false; // captured or released since the scan
+                    }
+                    accountBalanceService.releaseHold(hold.getAccountId(), hold.getAmountCents());
+                    hold.close(HoldStatus.EXPIRED);
+                    return true;
+                });
+                if (done) {
+                    expired.increment();
+                    count++;
+                }
+            }
+        } while (page.size() == expiryBatchSize);
+        if (count > 0) {
+            log.info("Expired {} funds holds", count);
+        }
+        return count;
+    }
+
+    private FundsHold lockActive(UUID holdId) {
+        FundsHold hold = holdRepository.findByIdForUpdate(holdId)
+            .orElseThrow(() -> new HoldNotFoundException(holdId.toString()));
+        if (hold.getStatus() != HoldStatus.ACTIVE) {
+            throw new HoldNotActiveException(holdId.toString(), hold.getStatus().name());
+        }
+        return hold;
+    }
+}
@@ -0,0 +1,197 @@
+package com.example.banking.service;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.example.banking.entity.IdempotencyRecord;
+import com.example.banking.repository.IdempotencyRecordRepository;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * Remembers the responses of requests sent with an Idempotency-Key. Completed
+ * responses are kept in the idempotency_key table for the configured TTL and
+ * in a bounded in-memory cache, so a retry is normally answered without any
+ * database access. Reserving a key is a primary-key insert: of two concurrent
+ * requests with the same key exactly one gets to run. A reservation is a lease:
+ * if its request dies without completing or releasing the key, a retry takes
+ * the key over once the lease has run out instead of getting 409 until the TTL.
+ */
+@Service
+public class IdempotencyService {
+
+    private final IdempotencyRecordRepository idempotencyRecordRepository;
+    private final Duration ttl;
+    private final Duration lease;
+    private final TransactionTemplate transactionTemplate;
+    private final Cache<String, StoredResponse> responses;
+
+    private final Counter cacheReplays;
+    private final Counter storeReplays;
+    private final Counter inProgressRejections;
+    private final Counter abandonedReclaims;
+
+    public IdempotencyService(IdempotencyRecordRepository idempotencyRecordRepository,
+            @Value("${banking.idempotency.ttl:24h}") Duration ttl,
+            @Value("${banking.idempotency.cache-size:10000}") long cacheSize,
+            @Value("${banking.idempotency.lease:1m}") Duration lease,
+            PlatformTransactionManager transactionManager,
+            MeterRegistry meterRegistry) {
+        this.idempotencyRecordRepository = idempotencyRecordRepository;
+        this.ttl = ttl;
+        this.lease = lease;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.responses = Caffeine.newBuilder()
+            .maximumSize(cacheSize)
+            .expireAfterWrite(ttl)
+            .build();
+        this.cacheReplays = Counter.builder("banking.idempotency.replayed")
+            .description("Requests answered from a stored Idempotency-Key response")
+            .tag("source", "cache").register(meterRegistry);
+        this.storeReplays = Counter.builder("banking.idempotency.replayed")
+            .description("Requests answered from a stored Idempotency-Key response")
+            .tag("source", "table").register(meterRegistry);
+        this.inProgressRejections = Counter.builder("banking.idempotency.in_progress")
+            .description("Requests rejected because the same key was still being processed")
+            .register(meterRegistry);
+        this.abandonedReclaims = Counter.builder("banking.idempotency.reclaimed")
+            .description("Abandoned reservations taken over by a retry after their lease ran out")
+            .register(meterRegistry);
+    }
+
+    /**
+     * Looks the key up and, when it has not been seen yet, reserves it for the
+     * calling request. Each repository call runs in its own short transaction.
+     */
+    public Reservation reserve(String cacheKey, String fingerprint) {
+        StoredResponse cached = responses.getIfPresent(cacheKey);
+        if (cached != null) {
+            cacheReplays.increment();
+            return Reservation.replay(cached);
+        }
+
+        // millisecond precision so the lease round-trips through the TIMESTAMP column unchanged
+        Instant now = Instant.now().truncatedTo(ChronoUnit.MILLIS);
+        Optional<IdempotencyRecord> existing = idempotencyRecordRepository.findById(cacheKey);
+        if (existing.isPresent()) {
+            IdempotencyRecord record = existing.get();
+            if (record.getExpiresAt().isBefore(now)) {
+                // expired but not purged yet: the key is free again
+                idempotencyRecordRepository.delete(record);
+            } else if (record.isCompleted()) {
+                StoredResponse stored = StoredResponse.of(record);
+                responses.put(cacheKey, stored);
+                storeReplays.increment();
+                return Reservation.replay(stored);
+            } else if (record.getReservedAt().isBefore(now.minus(lease))) {
+                // the request holding the key crashed or was killed without releasing it
+                Integer reclaimed = transactionTemplate.execute(status -> idempotencyRecordRepository.reclaim(
+                    cacheKey, record.getReservedAt(), fingerprint, now, now.plus(ttl)));
+                if (reclaimed != null && reclaimed == 1) {
+                    abandonedReclaims.increment();
+                    return Reservation.acquired(now);
+                }
+                inProgressRejections.increment();
+                return Reservation.IN_PROGRESS;
+            } else {
+                inProgressRejections.increment();
+                return Reservation.IN_PROGRESS;
+            }
+        }
+
+        try {
+            idempotencyRecordRepository.saveAndFlush(new IdempotencyRecord(cacheKey, fingerprint, now, now.plus(ttl)));
+            return Reservation.acquired(now);
+        } catch (DataIntegrityViolationException e) {
+            // another request inserted the same key between our lookup and insert
+            inProgressRejections.increment();
+            return Reservation.IN_PROGRESS;
+        }
+    }
+
+    /**
+     * Stores the response of a reserved key so retries can replay it. A no-op
+     * when the lease ran out and a retry has taken the key over.
+     */
+    @Transactional
+    public void complete(String cacheKey, Reservation reservation, StoredResponse response) {
+        if (idempotencyRecordRepository.complete(cacheKey, reservation.reservedAt(),
+                response.statusCode(), response.contentType(), response.encodedHeaders(), response.body()) == 1) {
+            responses.put(cacheKey, response);
+        }
+    }
+
+    /** Frees a reserved key whose request failed in a way a retry may fix. */
+    @Transactional
+    public void release(String cacheKey, Reservation reservation) {
+        idempotencyRecordRepository.release(cacheKey, reservation.reservedAt());
+    }
+
+    @Scheduled(fixedDelayString = "${banking.idempotency.purge-interval:1h}")
+    @Transactional
+    public int purgeExpired() {
+        return idempotencyRecordRepository.deleteExpired(Instant.now());
+    }
+
+    /** headers: the response headers to replay besides Content-Type, in the order they were set. */
+    public static record StoredResponse(String fingerprint, int statusCode, String contentType,
+            Map<String, String> headers, byte[] body) {
+
+        static StoredResponse of(IdempotencyRecord r) {
+            return new StoredResponse(r.getFingerprint(), r.getStatusCode(), r.getContentType(),
+                decodeHeaders(r.getResponseHeaders()), r.getResponseBody());
+        }
+
+        // HTTP header values cannot contain line breaks, so one "Name: value" per line is unambiguous
+        String encodedHeaders() {
+            if (headers.isEmpty()) {
+                return null;
+            }
+            StringBuilder sb = new StringBuilder();
+            headers.forEach((name, value) -> sb.append(name).append(": ").append(value).append('\n'));
+            return sb.toString();
+        }
+
+        private static Map<String, String> decodeHeaders(String encoded) {
+            Map<String, String> headers = new LinkedHashMap<>();
+            if (encoded != null) {
+                for (String line : encoded.split("\n")) {
+                    int colon = line.indexOf(": ");
+                    if (colon > 0) {
+                        headers.put(line.substring(0, colon), line.substring(colon + 2));
+                    }
+                }
+            }
+            return headers;
+        }
+    }
+
+    public static record Reservation(Outcome outcome, StoredResponse response, Instant reservedAt) {
+        static final Reservation IN_PROGRESS = new Reservation(Outcome.IN_PROGRESS, null, null);
+
+        static Reservation acquired(Instant reservedAt) {
+            return new Reservation(Outcome.ACQUIRED, null, reservedAt);
+        }
+
+        static Reservation replay(StoredResponse response) {
+            return new Reservation(Outcome.REPLAY, response, null);
+        }
+    }
+
+    public enum Outcome { ACQUIRED, REPLAY, IN_PROGRESS }
+}
@@ -0,0 +1,97 @@
+package com.example.banking.service;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.UUID;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import com.example.banking.model.JournalStatus;
+import com.example.banking.repository.JournalRepository;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
+/**
+ * Deletes journals that stayed PENDING with no activity for longer than the
+ * TTL, together with their ledger entries (ON DELETE CASCADE). The TTL runs
+ * from the journal's latest activity: its creation, or the newest entry added
+ * to it, so a journal still being filled is kept however old it is. Pending
+ * entries never reached a balance, so nothing else has to change. Work is done in chunks of {@code batch-size}
+ * journals, each in its own short transaction, and a run stops after
+ * {@code max-run-time}; whatever is left is picked up by the next run.
+ */
+@Service
+public class JournalExpiryService {
+
+    private static final Logger log = LoggerFactory.getLogger(JournalExpiryService.class);
+
+    private final JournalRepository journalRepository;
+    private final ConcurrencyRetry retry;
+    private final Duration ttl;
+    private final int batchSize;
+    private final Duration maxRunTime;
+
+    private final Counter expired;
+    private final Timer batchTimer;
+
+    public JournalExpiryService(JournalRepository journalRepository, ConcurrencyRetry retry,
+            @Value("${banking.journal.pending-ttl:7d}") Duration ttl,
+            @Value("${banking.journal.expiry.batch-size:500}") int batchSize,
+            @Value("${banking.journal.expiry.max-run-time:10s}") Duration maxRunTime,
+            MeterRegistry meterRegistry) {
+        this.journalRepository = journalRepository;
+        this.retry = retry;
+        this.ttl = ttl;
+        this.batchSize = Math.max(1, batchSize);
+        this.maxRunTime = maxRunTime;
+        this.expired = Counter.builder("banking.journal.expired")
+            .description("Stale pending journals deleted by the expiry job").register(meterRegistry);
+        this.batchTimer = Timer.builder("banking.journal.expiry.batch")
+            .description("Time to lock and delete one chunk of stale pending journals").register(meterRegistry);
+    }
+
+    @Scheduled(fixedDelayString = "${banking.journal.expiry.interval:5m}")
+    public ExpiryRun expirePendingJournals() {
+        Instant cutoff = Instant.now().minus(ttl);
+        long deadline = System.nanoTime() + maxRunTime.toNanos();
+        int deleted = 0;
+        int batches = 0;
+        boolean drained = false;
+        while (System.nanoTime() < deadline) {
+            List<UUID> candidates = journalRepository.findIdsInactiveSince(JournalStatus.PENDING, cutoff,
+                PageRequest.of(0, batchSize));
+            if (candidates.isEmpty()) {
+                drained = true;
+                break;
+            }
+            int n = batchTimer.record(() -> retry.inTransaction(() -> {
+                // re-check under lock: some may have been posted or extended since the scan
+                List<UUID> locked = journalRepository.lockIdsInactiveSince(candidates, JournalStatus.PENDING, cutoff);
+                return locked.isEmpty() ? 0 : journalRepository.deleteByIds(locked);
+            }));
+            expired.increment(n);
+            deleted += n;
+            batches++;
+            log.debug("Pending-journal expiry: deleted {} in batch {} ({} so far)", n, batches, deleted);
+            if (candidates.size() < batchSize) {
+                drained = true;
+                break;
+            }
+        }
+        if (deleted > 0 || !drained) {
+            log.info("Pending-journal expiry: deleted {} journals inactive since {} in {} batches{}",
+                deleted, cutoff, batches, drained ? "" : "; run time exhausted, more remain");
+        }
+        return new ExpiryRun(deleted, batches, drained);
+    }
+
+    public static record ExpiryRun(int deleted, int batches, boolean drained) {}
+}
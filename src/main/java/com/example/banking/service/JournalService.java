@@ -1,16 +1,30 @@
 package com.example.banking.service;
 
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Locale;
 import java.util.UUID;
 import java.util.Currency;
 import java.util.Set;
+import java.util.TreeSet;
 import java.util.Map;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import org.springframework.transaction.annotation.Transactional;
 
+import com.example.banking.engine.LedgerEngine;
 import com.example.banking.entity.Account;
 import com.example.banking.entity.Journal;
 import com.example.banking.entity.LedgerEntry;
@@ -22,10 +36,15 @@ import com.example.banking.exceptions.BankingExceptions.InactiveAccountException
 import com.example.banking.exceptions.BankingExceptions.InvalidTransactionSideException;
 import com.example.banking.exceptions.BankingExceptions.InvalidAmountException;
 import com.example.banking.exceptions.BankingExceptions.InvalidCurrencyCodeException;
+import com.example.banking.exceptions.BankingExceptions.InvalidTransferException;
 import com.example.banking.exceptions.BankingExceptions.UnbalancedJournalException;
+import com.example.banking.model.HistoryCursor;
+import com.example.banking.model.JournalSearch;
 import com.example.banking.model.JournalStatus;
 import com.example.banking.repository.AccountRepository;
 import com.example.banking.repository.JournalRepository;
+import com.example.banking.repository.JournalRepository.JournalVersion;
+import com.example.banking.repository.LedgerArchiveRepository;
 import com.example.banking.repository.LedgerEntryRepository;
 
 @Service
@@ -33,97 +52,318 @@ public class JournalService {
 
     private final JournalRepository journalRepository;
     private final LedgerEntryRepository ledgerEntryRepository;
+    private final LedgerArchiveRepository ledgerArchiveRepository;
     private final AccountRepository accountRepository;
+    private final AccountBalanceService accountBalanceService;
+    private final ConcurrencyRetry retry;
+    private final MeterRegistry meterRegistry;
+    private final LedgerEngine ledgerEngine; // null unless banking.ledger.engine.enabled
+
+    private final Counter entriesAdded;
+    private final Counter journalsPosted;
+    private final Counter unbalancedRejections;
+    private final Timer postTimer;
+    private final Timer batchPostTimer;
+    private final Timer transferTimer;
+
+    private static final int MAX_PAGE_SIZE = 500;
+    private static final Sort NEWEST_FIRST = Sort.by(Sort.Order.desc("createdAt"), Sort.Order.desc("id"));
 
     private static final Set<String> ISO_CURRENCY_CODES = Currency.getAvailableCurrencies().stream()
         .map(Currency::getCurrencyCode).collect(Collectors.toUnmodifiableSet());
 
     public JournalService(JournalRepository journalRepository, LedgerEntryRepository ledgerEntryRepository,
-            AccountRepository accountRepository) {
+            LedgerArchiveRepository ledgerArchiveRepository, AccountRepository accountRepository,
+            AccountBalanceService accountBalanceService, ConcurrencyRetry retry, MeterRegistry meterRegistry,
+            ObjectProvider<LedgerEngine> ledgerEngine) {
         this.journalRepository = journalRepository;
         this.ledgerEntryRepository = ledgerEntryRepository;
+        this.ledgerArchiveRepository = ledgerArchiveRepository;
         this.accountRepository = accountRepository;
+        this.accountBalanceService = accountBalanceService;
+        this.retry = retry;
+        this.meterRegistry = meterRegistry;
+        this.ledgerEngine = ledgerEngine.getIfAvailable();
+        this.entriesAdded = Counter.builder("banking.journal.entries.added")
+            .description("Ledger entries added to pending journals").register(meterRegistry);
+        this.journalsPosted = Counter.builder("banking.journal.posted")
+            .description("Journals posted").register(meterRegistry);
+        this.unbalancedRejections = Counter.builder("banking.journal.post.rejected")
+            .description("Post attempts rejected because the journal was unbalanced")
+            .tag("reason", "unbalanced").register(meterRegistry);
+        this.postTimer = Timer.builder("banking.journal.post")
+            .description("Time spent posting a journal (inside the transaction)").register(meterRegistry);
+        this.batchPostTimer = Timer.builder("banking.journal.post.batch")
+            .description("Time spent posting a batch of journals (async posting writers)").register(meterRegistry);
+        this.transferTimer = Timer.builder("banking.transfer")
+            .description("Time spent creating and posting a transfer (inside the transaction)").register(meterRegistry);
     }
 
     @Transactional
     public Journal createJournal(String description, String externalRef) {
-        String desc = (description == null || description.isBlank()) ? null : description.trim();
-        String ext = (externalRef == null || externalRef.isBlank()) ? null : externalRef.trim();
-        if (ext != null && journalRepository.existsByExternalRef(ext)) {
-            throw new ExternalReferenceAlreadyExistsException(ext);
-        }
-        Journal journal = new Journal(desc, ext);
-        journal.setStatus(JournalStatus.PENDING);
-        return journalRepository.save(journal);
+        return insertPendingJournal(description, externalRef);
     }
 
     @Transactional
     public LedgerEntry addEntry(UUID journalId, UUID accountId, String side, String currency, long amountCents) {
-        Journal journal = journalRepository.findById(journalId)
+        Journal journal = journalRepository.findByIdForUpdate(journalId)
                 .orElseThrow(() -> new JournalNotFoundException(journalId.toString()));
         if (journal.getStatus() != JournalStatus.PENDING) {
             throw new JournalNotPendingException(journalId.toString());
         }
-        Account account = accountRepository.findById(accountId)
-                .orElseThrow(() -> new AccountNotFoundException(accountId.toString()));
-        if (!account.isActive()) {
-            throw new InactiveAccountException(accountId.toString());
+        Account account = requireActiveAccount(accountId);
+        String s = normalizeSide(side);
+        requirePositive(amountCents);
+        String cur = normalizeCurrency(currency);
+
+        // Enforce single currency: the first entry locks the journal's currency
+        if (journal.getCurrency() != null && !journal.getCurrency().equals(cur)) {
+            throw new InvalidCurrencyCodeException(cur + " (single-currency journal mismatch, existing=" + journal.getCurrency() + ")");
         }
-        String s = side.trim().toLowerCase(Locale.ROOT);
-        if (!(s.equals("debit") || s.equals("credit"))) {
-            throw new InvalidTransactionSideException(side);
+
+        LedgerEntry entry = new LedgerEntry(journal, account, s, amountCents, cur);
+        journal.applyEntry(s, amountCents, cur);
+        LedgerEntry saved = ledgerEntryRepository.save(entry);
+        entriesAdded.increment();
+        return saved;
+    }
+
+    @Transactional(readOnly = true)
+    public boolean isBalanced(UUID journalId) {
+        return getJournal(journalId).isBalanced();
+    }
+
+    // Lock and version conflicts with concurrent postings are retried (see ConcurrencyRetry)
+    public Journal postJournal(UUID journalId) {
+        return retry.inTransaction(() -> doPostJournal(journalId));
+    }
+
+    private Journal doPostJournal(UUID journalId) {
+        Timer.Sample sample = Timer.start(meterRegistry);
+        try {
+            Journal journal = journalRepository.findByIdForUpdate(journalId)
+                    .orElseThrow(() -> new JournalNotFoundException(journalId.toString()));
+            if (journal.getStatus() == JournalStatus.POSTED) {
+                return journal; // already posted, no-op
+            }
+            requireBalanced(journal);
+            // keep account_balance in step with the ledger, same transaction as the status flip
+            java.time.Instant postedAt = postBalances(ledgerEntryRepository.findByJournal_IdOrderByIdAsc(journalId));
+            journal.setStatus(JournalStatus.POSTED);
+            journal.setPostedAt(postedAt);
+            journalsPosted.increment();
+            return journalRepository.save(journal);
+        } finally {
+            sample.stop(postTimer);
         }
+    }
 
-        if (amountCents <= 0) {
-            throw new InvalidAmountException(amountCents);
+    /**
+     * Posts several journals in one transaction, applying one balance update per
+     * account for the whole batch. Journals that cannot be posted (missing,
+     * unbalanced) are left untouched and returned with the reason; journals that
+     * are already posted are a no-op, as in {@link #postJournal}.
+     */
+    public Map<UUID, RuntimeException> postJournals(List<UUID> journalIds) {
+        return retry.inTransaction(() -> doPostJournals(journalIds));
+    }
+
+    private Map<UUID, RuntimeException> doPostJournals(List<UUID> journalIds) {
+        Timer.Sample sample = Timer.start(meterRegistry);
+        try {
+            // journal rows are locked in id order too, so overlapping batches cannot deadlock
+            Map<UUID, Journal> locked = new HashMap<>();
+            for (UUID journalId : new TreeSet<>(journalIds)) {
+                journalRepository.findByIdForUpdate(journalId).ifPresent(j -> locked.put(journalId, j));
+            }
+            Map<UUID, RuntimeException> rejected = new LinkedHashMap<>();
+            List<Journal> postable = new ArrayList<>(journalIds.size());
+            for (UUID journalId : new LinkedHashSet<>(journalIds)) {
+                Journal journal = locked.get(journalId);
+                if (journal == null) {
+                    rejected.put(journalId, new JournalNotFoundException(journalId.toString()));
+                } else if (journal.getStatus() == JournalStatus.PENDING) {
+                    try {
+                        requireBalanced(journal);
+                        postable.add(journal);
+                    } catch (UnbalancedJournalException e) {
+                        rejected.put(journalId, e);
+                    }
+                }
+            }
+            if (postable.isEmpty()) {
+                return rejected;
+            }
+
+            // one query for all entries; every journal of the batch gets the same posted_at (and
+            // its entries the same created_at), so the rebuild's order (posted_at, created_at, id)
+            // is the query's id order, not batch order
+            java.time.Instant now = postBalances(ledgerEntryRepository.findByJournal_IdInOrderByIdAsc(
+                postable.stream().map(Journal::getId).toList()));
+
+            for (Journal journal : postable) {
+                journal.setStatus(JournalStatus.POSTED);
+                journal.setPostedAt(now);
+            }
+            journalsPosted.increment(postable.size());
+            return rejected;
+        } finally {
+            sample.stop(batchPostTimer);
         }
+    }
 
-        String cur = currency.trim().toUpperCase(Locale.ROOT);
-        if (cur.length() != 3 || !ISO_CURRENCY_CODES.contains(cur)) {
-            throw new InvalidCurrencyCodeException(currency);
+    /**
+     * Creates a journal with all of its entries (and optionally posts it) in one
+     * transaction. Every line is validated before anything is written, the
+     * referenced accounts are loaded with a single query and the entries are
+     * flushed as one JDBC batch.
+     */
+    public Submission submitJournal(String description, String externalRef, List<EntryLine> lines, boolean post) {
+        return retry.inTransaction(() -> doSubmitJournal(description, externalRef, lines, post));
+    }
+
+    private Submission doSubmitJournal(String description, String externalRef, List<EntryLine> lines, boolean post) {
+        // Validate all lines in memory first
+        List<String> sides = new ArrayList<>(lines.size());
+        String journalCurrency = null;
+        Set<UUID> accountIds = new HashSet<>();
+        for (EntryLine line : lines) {
+            sides.add(normalizeSide(line.side()));
+            requirePositive(line.amountCents());
+            String cur = normalizeCurrency(line.currency());
+            if (journalCurrency == null) {
+                journalCurrency = cur;
+            } else if (!journalCurrency.equals(cur)) {
+                throw new InvalidCurrencyCodeException(cur + " (single-currency journal mismatch, existing=" + journalCurrency + ")");
+            }
+            accountIds.add(line.accountId());
         }
 
-        // Enforce single currency: if journal already has entries, ensure same currency
-        List<String> currencies = ledgerEntryRepository.distinctCurrenciesForJournal(journalId);
-        if (!currencies.isEmpty() && !currencies.contains(cur)) {
-            throw new InvalidCurrencyCodeException(cur + " (single-currency journal mismatch, existing=" + currencies.get(0) + ")");
+        Map<UUID, Account> accounts = accountRepository.findAllById(accountIds).stream()
+                .collect(Collectors.toMap(Account::getId, Function.identity()));
+        for (UUID accountId : accountIds) {
+            Account account = accounts.get(accountId);
+            if (account == null) {
+                throw new AccountNotFoundException(accountId.toString());
+            }
+            if (!account.isActive()) {
+                throw new InactiveAccountException(accountId.toString());
+            }
         }
 
-        LedgerEntry entry = new LedgerEntry(journal, account, s, amountCents, cur);
-        return ledgerEntryRepository.save(entry);
+        Journal journal = insertPendingJournal(description, externalRef);
+        List<LedgerEntry> entries = new ArrayList<>(lines.size());
+        for (int i = 0; i < lines.size(); i++) {
+            EntryLine line = lines.get(i);
+            String s = sides.get(i);
+            entries.add(new LedgerEntry(journal, accounts.get(line.accountId()), s, line.amountCents(), journalCurrency));
+            journal.applyEntry(s, line.amountCents(), journalCurrency);
+        }
 
+        if (post) {
+            requireBalanced(journal);
+            // before saveAll, so balance_after_cents goes out with the insert. Lines are stamped in
+            // submission order, which is also the rebuild's order: the entries share the posting
+            // time as created_at and saveAll assigns their time-ordered ids in list order
+            java.time.Instant postedAt = postBalances(entries);
+            journal.setStatus(JournalStatus.POSTED);
+            journal.setPostedAt(postedAt);
+            journalsPosted.increment();
+        }
+        ledgerEntryRepository.saveAll(entries);
+        entriesAdded.increment(entries.size());
+        return new Submission(journal, entries);
     }
 
-    @Transactional(readOnly = true)
-    public boolean isBalanced(UUID journalId) {
-        long net = ledgerEntryRepository.netAmountForJournal(journalId);
-        return net == 0;
+    /**
+     * A-to-B transfer: creates, fills and posts a two-leg journal in one
+     * transaction. Same rules as addEntry for each leg, but the two accounts
+     * come from the second-level cache instead of a lookup per entry, and the
+     * journal is inserted once, already posted, instead of being inserted
+     * pending, re-locked and updated. What reaches the database is the two
+     * balance row locks plus one insert/update batch per table.
+     *
+     * With the ledger engine enabled the transfer is posted there instead and
+     * written to the database shortly after the response (see LedgerEngine).
+     */
+    public Submission transfer(UUID sourceAccountId, UUID destinationAccountId, String currency, long amountCents,
+            String description, String externalRef) {
+        requirePositive(amountCents);
+        String cur = normalizeCurrency(currency);
+        if (sourceAccountId.equals(destinationAccountId)) {
+            throw new InvalidTransferException(sourceAccountId.toString());
+        }
+        if (ledgerEngine != null) {
+            return engineTransfer(sourceAccountId, destinationAccountId, cur, amountCents, description, externalRef);
+        }
+        return retry.inTransaction(() -> {
+            Timer.Sample sample = Timer.start(meterRegistry);
+            try {
+                Account source = requireActiveAccount(sourceAccountId);
+                Account destination = requireActiveAccount(destinationAccountId);
+
+                Journal journal = newJournal(description, externalRef);
+                LedgerEntry debit = new LedgerEntry(journal, source, "debit", amountCents, cur);
+                LedgerEntry credit = new LedgerEntry(journal, destination, "credit", amountCents, cur);
+                journal.applyEntry("debit", amountCents, cur);
+                journal.applyEntry("credit", amountCents, cur);
+                List<LedgerEntry> legs = List.of(debit, credit);
+
+                // locks both balance rows in id order and checks available funds
+                java.time.Instant postedAt = postBalances(legs);
+                journal.setStatus(JournalStatus.POSTED);
+                journal.setPostedAt(postedAt);
+                journalRepository.save(journal);
+                ledgerEntryRepository.saveAll(legs);
+                if (journal.getExternalRef() != null) {
+                    flushJournal(journal); // surface a duplicate external_ref here, not at commit
+                }
+                entriesAdded.increment(2);
+                journalsPosted.increment();
+                return new Submission(journal, legs);
+            } finally {
+                sample.stop(transferTimer);
+            }
+        });
     }
 
-    @Transactional
-    public Journal postJournal(UUID journalId) {
-        Journal journal = journalRepository.findById(journalId)
-                .orElseThrow(() -> new JournalNotFoundException(journalId.toString()));
-        if (journal.getStatus() == JournalStatus.POSTED) {
-            return journal; // already posted, no-op
-        }
-        long net = ledgerEntryRepository.netAmountForJournal(journalId);
-        long debits = ledgerEntryRepository.totalDebits(journalId);
-        long credits = ledgerEntryRepository.totalCredits(journalId);
-        List<String> currencies = ledgerEntryRepository.distinctCurrenciesForJournal(journalId);
-        String currency = currencies.isEmpty() ? null : currencies.get(0);
-        if (net != 0) {
-            throw new UnbalancedJournalException("Cannot post an unbalanced journal", Map.of(
-                "journalId", journalId.toString(),
-                "currency", currency,
-                "debitTotalCents", debits,
-                "creditTotalCents", credits,
-                "netCents", net
-            ));
+    // Accounts come from the second-level cache; the only query is the external reference probe
+    // (the engine itself rejects references of transfers it has not written yet and of JPA
+    // journals not yet committed, see flushJournal). The returned
+    // journal and entries are detached copies of the rows the engine's writer will insert.
+    private Submission engineTransfer(UUID sourceAccountId, UUID destinationAccountId, String cur, long amountCents,
+            String description, String externalRef) {
+        Timer.Sample sample = Timer.start(meterRegistry);
+        try {
+            Account source = requireActiveAccount(sourceAccountId);
+            Account destination = requireActiveAccount(destinationAccountId);
+            Journal journal = newJournal(description, externalRef);
+            String ref = journal.getExternalRef();
+            if (ref != null && (journalRepository.existsByExternalRef(ref) || ledgerArchiveRepository.existsJournalByExternalRef(ref))) {
+                throw new ExternalReferenceAlreadyExistsException(ref);
+            }
+            LedgerEngine.Transfer t = ledgerEngine.transfer(sourceAccountId, "internal".equals(source.getKind()),
+                destinationAccountId, cur, amountCents, journal.getDescription(), ref);
+
+            journal.setId(t.journalId());
+            journal.applyEntry("debit", amountCents, cur);
+            journal.applyEntry("credit", amountCents, cur);
+            journal.setStatus(JournalStatus.POSTED);
+            journal.setPostedAt(t.postedAt());
+            LedgerEntry debit = new LedgerEntry(journal, source, "debit", amountCents, cur);
+            debit.setId(t.debitEntryId());
+            debit.setCreatedAt(t.postedAt());
+            debit.setBalanceAfterCents(t.sourceBalanceAfterCents());
+            LedgerEntry credit = new LedgerEntry(journal, destination, "credit", amountCents, cur);
+            credit.setId(t.creditEntryId());
+            credit.setCreatedAt(t.postedAt());
+            credit.setBalanceAfterCents(t.destinationBalanceAfterCents());
+            entriesAdded.increment(2);
+            journalsPosted.increment();
+            return new Submission(journal, List.of(debit, credit));
+        } finally {
+            sample.stop(transferTimer);
         }
-        journal.setStatus(JournalStatus.POSTED);
-        journal.setPostedAt(java.time.Instant.now());
-        return journalRepository.save(journal);
     }
 
     @Transactional(readOnly = true)
@@ -137,15 +377,170 @@ public class JournalService {
             .orElseThrow(() -> new JournalNotFoundException(journalId.toString()));
     }
 
+    /**
+     * One page of journals matching {@code filter}, newest first, after
+     * {@code cursor} (or from the newest when null), plus the cursor of the next
+     * page, or null when this was the last one.
+     */
+    @Transactional(readOnly = true)
+    public JournalPage searchJournals(JournalSearch filter, HistoryCursor cursor, int size) {
+        int limit = Math.max(1, Math.min(size, MAX_PAGE_SIZE));
+        // fetch one extra row to learn whether another page exists
+        List<Journal> rows = journalRepository.findBy(JournalRepository.search(filter, cursor),
+            q -> q.sortBy(NEWEST_FIRST).limit(limit + 1).all());
+        if (rows.size() <= limit) {
+            return new JournalPage(rows, null);
+        }
+        List<Journal> page = rows.subList(0, limit);
+        Journal last = page.get(limit - 1);
+        return new JournalPage(page, new HistoryCursor(last.getCreatedAt(), last.getId()).encode());
+    }
+
     @Transactional(readOnly = true)
     public JournalDiagnostics diagnostics(UUID journalId) {
-        long net = ledgerEntryRepository.netAmountForJournal(journalId);
-        long debits = ledgerEntryRepository.totalDebits(journalId);
-        long credits = ledgerEntryRepository.totalCredits(journalId);
-        List<String> currencies = ledgerEntryRepository.distinctCurrenciesForJournal(journalId);
-        String currency = currencies.isEmpty() ? null : currencies.get(0);
-        return new JournalDiagnostics(currency, debits, credits, net, net == 0);
+        return JournalDiagnostics.of(getJournal(journalId));
     }
 
-    public static record JournalDiagnostics(String currency, long debitTotalCents, long creditTotalCents, long netCents, boolean balanced) {}
+    /**
+     * Validator for a journal and its entries. A posted journal never changes;
+     * a pending one gets a new tag with every entry, since each entry adds a
+     * positive amount to one of the running totals.
+     */
+    @Transactional(readOnly = true)
+    public JournalTag journalTag(UUID journalId) {
+        JournalVersion v = journalRepository.findVersionById(journalId)
+            .orElseThrow(() -> new JournalNotFoundException(journalId.toString()));
+        String etag = journalId + "-" + v.getStatus().name().toLowerCase(Locale.ROOT) + "-" + v.getCurrency()
+            + "-" + v.getDebitTotalCents() + "-" + v.getCreditTotalCents();
+        return new JournalTag(etag, v.getStatus() == JournalStatus.POSTED);
+    }
+
+    /** Journals whose running totals disagree with their ledger rows. */
+    @Transactional(readOnly = true)
+    public List<JournalRepository.TotalsDrift> verifyTotals() {
+        return journalRepository.findTotalsDrift();
+    }
+
+    /** Recomputes every journal's running totals from its ledger rows. */
+    @Transactional
+    public int rebuildTotals() {
+        return journalRepository.recomputeTotalsFromLedger();
+    }
+
+    // ---------- shared validation ----------
+
+    // external_ref is UNIQUE: the insert itself detects duplicates (an exists() pre-check
+    // costs a round trip and still lets two concurrent requests through)
+    private Journal insertPendingJournal(String description, String externalRef) {
+        Journal journal = newJournal(description, externalRef);
+        journal.setStatus(JournalStatus.PENDING);
+        journalRepository.save(journal);
+        flushJournal(journal);
+        return journal;
+    }
+
+    private static Journal newJournal(String description, String externalRef) {
+        String desc = (description == null || description.isBlank()) ? null : description.trim();
+        String ext = (externalRef == null || externalRef.isBlank()) ? null : externalRef.trim();
+        return new Journal(desc, ext);
+    }
+
+    private void flushJournal(Journal journal) {
+        // the unique constraint only sees the hot table; archived journals keep their reference too
+        if (journal.getExternalRef() != null && ledgerArchiveRepository.existsJournalByExternalRef(journal.getExternalRef())) {
+            throw new ExternalReferenceAlreadyExistsException(journal.getExternalRef());
+        }
+        if (journal.getExternalRef() != null && ledgerEngine != null) {
+            // nor the engine's acknowledged transfers that its writer has not inserted yet
+            ledgerEngine.reserveExternalRef(journal.getExternalRef());
+        }
+        try {
+            journalRepository.flush();
+        } catch (DataIntegrityViolationException e) {
+            if (journal.getExternalRef() != null) {
+                throw new ExternalReferenceAlreadyExistsException(journal.getExternalRef());
+            }
+            throw e;
+        }
+    }
+
+    // Applies the journal's net change per account to account_balance, then stamps every
+    // entry with its account's balance right after it and with the posting time as created_at.
+    // Callers pass the entries in the order LedgerEntryRepository.recomputeBalanceAfter walks
+    // them (id within one posting), so a rebuild reproduces the live values exactly. The posting
+    // time, which the caller also sets as the journal's posted_at, is read once the balance rows
+    // are locked, so postings touching the same account get times in the order they apply
+    private java.time.Instant postBalances(List<LedgerEntry> entries) {
+        Map<UUID, Long> deltas = new HashMap<>();
+        for (LedgerEntry e : entries) {
+            deltas.merge(e.getAccount().getId(), e.signedAmountCents(), Long::sum);
+        }
+        Map<UUID, Long> running = new HashMap<>();
+        accountBalanceService.applyDeltas(deltas)
+            .forEach((accountId, after) -> running.put(accountId, after - deltas.get(accountId)));
+        java.time.Instant postedAt = java.time.Instant.now();
+        for (LedgerEntry e : entries) {
+            e.setBalanceAfterCents(running.merge(e.getAccount().getId(), e.signedAmountCents(), Long::sum));
+            e.setCreatedAt(postedAt);
+        }
+        return postedAt;
+    }
+
+    private Account requireActiveAccount(UUID accountId) {
+        Account account = accountRepository.findById(accountId)
+                .orElseThrow(() -> new AccountNotFoundException(accountId.toString()));
+        if (!account.isActive()) {
+            throw new InactiveAccountException(accountId.toString());
+        }
+        return account;
+    }
+
+    private static String normalizeSide(String side) {
+        String s = side.trim().toLowerCase(Locale.ROOT);
+        if (!(s.equals("debit") || s.equals("credit"))) {
+            throw new InvalidTransactionSideException(side);
+        }
+        return s;
+    }
+
+    private static void requirePositive(long amountCents) {
+        if (amountCents <= 0) {
+            throw new InvalidAmountException(amountCents);
+        }
+    }
+
+    private static String normalizeCurrency(String currency) {
+        String cur = currency.trim().toUpperCase(Locale.ROOT);
+        if (cur.length() != 3 || !ISO_CURRENCY_CODES.contains(cur)) {
+            throw new InvalidCurrencyCodeException(currency);
+        }
+        return cur;
+    }
+
+    private void requireBalanced(Journal journal) {
+        if (!journal.isBalanced()) {
+            unbalancedRejections.increment();
+            throw new UnbalancedJournalException("Cannot post an unbalanced journal", Map.of(
+                "journalId", String.valueOf(journal.getId()),
+                "currency", String.valueOf(journal.getCurrency()),
+                "debitTotalCents", journal.getDebitTotalCents(),
+                "creditTotalCents", journal.getCreditTotalCents(),
+                "netCents", journal.getNetCents()
+            ));
+        }
+    }
+
+    public static record EntryLine(UUID accountId, String side, String currency, long amountCents) {}
+
+    public static record JournalTag(String etag, boolean immutable) {}
+
+    public static record Submission(Journal journal, List<LedgerEntry> entries) {}
+
+    public static record JournalPage(List<Journal> journals, String nextCursor) {}
+
+    public static record JournalDiagnostics(String currency, long debitTotalCents, long creditTotalCents, long netCents, boolean balanced) {
+        public static JournalDiagnostics of(Journal j) {
+            return new JournalDiagnostics(j.getCurrency(), j.getDebitTotalCents(), j.getCreditTotalCents(), j.getNetCents(), j.isBalanced());
+        }
+    }
 }
\ No newline at end of file
@@ -0,0 +1,119 @@
+package com.example.banking.service;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.UUID;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import com.example.banking.model.JournalStatus;
+import com.example.banking.repository.BalanceCheckpointRepository;
+import com.example.banking.repository.JournalRepository;
+import com.example.banking.repository.LedgerArchiveRepository;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * Moves posted journals older than {@code min-age}, with their entries, from
+ * journal / ledger_entry into the archive tables, so the hot tables and their
+ * indexes only hold recent activity. Each batch copies the rows, adds their
+ * net per account to account_archive_total and deletes the originals in one
+ * transaction, so balances recomputed from hot + archive never change.
+ *
+ * The cutoff also never passes the latest balance checkpoint: archived entries
+ * are always covered by a checkpoint, and as-of queries for later instants
+ * never find anything to sum in the archive.
+ */
+@Service
+public class LedgerArchiveService {
+
+    private static final Logger log = LoggerFactory.getLogger(LedgerArchiveService.class);
+
+    private final JournalRepository journalRepository;
+    private final LedgerArchiveRepository ledgerArchiveRepository;
+    private final BalanceCheckpointRepository balanceCheckpointRepository;
+    private final ConcurrencyRetry retry;
+    private final Duration minAge;
+    private final int batchSize;
+    private final Duration maxRunTime;
+
+    private final Counter archivedJournals;
+    private final Counter archivedEntries;
+
+    public LedgerArchiveService(JournalRepository journalRepository, LedgerArchiveRepository ledgerArchiveRepository,
+            BalanceCheckpointRepository balanceCheckpointRepository, ConcurrencyRetry retry,
+            @Value("${banking.archive.min-age:90d}") Duration minAge,
+            @Value("${banking.archive.batch-size:500}") int batchSize,
+            @Value("${banking.archive.max-run-time:30s}") Duration maxRunTime,
+            MeterRegistry meterRegistry) {
+        this.journalRepository = journalRepository;
+        this.ledgerArchiveRepository = ledgerArchiveRepository;
+        this.balanceCheckpointRepository = balanceCheckpointRepository;
+        this.retry = retry;
+        this.minAge = minAge;
+        this.batchSize = Math.max(1, batchSize);
+        this.maxRunTime = maxRunTime;
+        this.archivedJournals = Counter.builder("banking.archive.journals")
+            .description("Posted journals moved to the archive tables").register(meterRegistry);
+        this.archivedEntries = Counter.builder("banking.archive.entries")
+            .description("Ledger entries moved to the archive tables").register(meterRegistry);
+    }
+
+    @Scheduled(fixedDelayString = "${banking.archive.interval:1h}")
+    public ArchiveRun archive() {
+        Instant latestCheckpoint = balanceCheckpointRepository.findLatestAsOf();
+        if (latestCheckpoint == null) {
+            return new ArchiveRun(null, 0, 0, true);
+        }
+        Instant cutoff = Instant.now().minus(minAge);
+        if (latestCheckpoint.isBefore(cutoff)) {
+            cutoff = latestCheckpoint;
+        }
+        return archiveBefore(cutoff);
+    }
+
+    /** Archives posted journals whose entries were all created before {@code cutoff}, in batches. */
+    public ArchiveRun archiveBefore(Instant cutoff) {
+        long deadline = System.nanoTime() + maxRunTime.toNanos();
+        int journals = 0;
+        int entries = 0;
+        boolean drained = false;
+        while (System.nanoTime() < deadline) {
+            List<UUID> batch = journalRepository.findArchivableIds(JournalStatus.POSTED, cutoff,
+                PageRequest.of(0, batchSize));
+            if (batch.isEmpty()) {
+                drained = true;
+                break;
+            }
+            int moved = retry.inTransaction(() -> {
+                ledgerArchiveRepository.copyJournals(batch);
+                int copied = ledgerArchiveRepository.copyEntries(batch);
+                ledgerArchiveRepository.addToArchiveTotals(batch);
+                journalRepository.deleteByIds(batch); // entries follow through ON DELETE CASCADE
+                return copied;
+            });
+            archivedJournals.increment(batch.size());
+            archivedEntries.increment(moved);
+            journals += batch.size();
+            entries += moved;
+            if (batch.size() < batchSize) {
+                drained = true;
+                break;
+            }
+        }
+        if (journals > 0 || !drained) {
+            log.info("Archived {} journals ({} entries) posted before {}{}", journals, entries, cutoff,
+                drained ? "" : "; run time exhausted, more remain");
+        }
+        return new ArchiveRun(cutoff, journals, entries, drained);
+    }
+
+    public static record ArchiveRun(Instant cutoff, int journals, int entries, boolean drained) {}
+}
@@ -1,26 +1,164 @@
 package com.example.banking.service;
 
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Iterator;
 import java.util.List;
 import java.util.UUID;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
 
 import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import com.example.banking.dto.LedgerEntryResponseDTO;
 import com.example.banking.entity.LedgerEntry;
+import com.example.banking.exceptions.BankingExceptions.PageTooDeepException;
+import com.example.banking.model.HistoryCursor;
+import com.example.banking.repository.LedgerArchiveRepository;
 import com.example.banking.repository.LedgerEntryRepository;
 
+/**
+ * Account history over both ledger tiers. Accounts without archived entries
+ * (one lea_by_acct probe) read ledger_entry alone; otherwise each tier returns
+ * its own ordered window and the two are merged in the same (created_at, id)
+ * order the queries use.
+ */
 @Service
 public class LedgerEntryService {
-    
+
+    private static final int MAX_PAGE_SIZE = 500;
+    // offset paging over both tiers reads (page + 1) * size rows from each; deeper pages need a cursor
+    private static final int MAX_MERGED_OFFSET_ROWS = 10_000;
+    // open-ended export bounds (TIMESTAMP cannot hold Instant.MIN/MAX)
+    private static final Instant EXPORT_FROM = Instant.EPOCH;
+    private static final Instant EXPORT_TO = Instant.parse("9999-12-31T23:59:59Z");
+
+    // database order: created_at, then the UUID as an unsigned 128-bit number (how H2 compares UUIDs)
+    static final Comparator<LedgerEntryResponseDTO> OLDEST_FIRST = Comparator
+        .comparing(LedgerEntryResponseDTO::createdAt)
+        .thenComparing(LedgerEntryResponseDTO::id, LedgerEntryService::compareUuids);
+    private static final Comparator<LedgerEntryResponseDTO> NEWEST_FIRST = OLDEST_FIRST.reversed();
+
     private final LedgerEntryRepository ledgerEntryRepository;
+    private final LedgerArchiveRepository ledgerArchiveRepository;
 
-    public LedgerEntryService(LedgerEntryRepository ledgerEntryRepository) {
+    public LedgerEntryService(LedgerEntryRepository ledgerEntryRepository, LedgerArchiveRepository ledgerArchiveRepository) {
         this.ledgerEntryRepository = ledgerEntryRepository;
+        this.ledgerArchiveRepository = ledgerArchiveRepository;
+    }
+
+    /**
+     * Offset page of the account's history, newest first, of at most
+     * MAX_PAGE_SIZE rows. With archived entries the merge reads every row up to
+     * the page's end from both tiers, so pages past MAX_MERGED_OFFSET_ROWS are
+     * refused and clients must use the keyset variant.
+     */
+    @Transactional(readOnly = true)
+    public List<LedgerEntryResponseDTO> accountHistory(UUID accountId, int page, int size) {
+        int limit = Math.max(1, Math.min(size, MAX_PAGE_SIZE));
+        if (!ledgerArchiveRepository.existsByAccountId(accountId)) {
+            return toDtos(ledgerEntryRepository.findByAccount_IdOrderByCreatedAtDesc(accountId, PageRequest.of(page, limit)));
+        }
+        // the page can come from either tier: take its end offset from both, merge, then skip
+        if ((page + 1L) * limit > MAX_MERGED_OFFSET_ROWS) {
+            throw new PageTooDeepException(page, limit, MAX_MERGED_OFFSET_ROWS);
+        }
+        PageRequest head = PageRequest.of(0, (page + 1) * limit);
+        List<LedgerEntryResponseDTO> merged = merge(
+            toDtos(ledgerEntryRepository.findByAccount_IdOrderByCreatedAtDescIdDesc(accountId, head)),
+            ledgerArchiveRepository.findAccountHistory(accountId, head), head.getPageSize());
+        int from = Math.min(merged.size(), page * limit);
+        return merged.subList(from, merged.size());
+    }
+
+    /**
+     * Keyset variant of {@link #accountHistory(UUID, int, int)}: returns the page
+     * after {@code cursor} (or the newest page when null) plus the cursor of the
+     * next page, or null when this was the last one.
+     */
+    @Transactional(readOnly = true)
+    public HistoryPage accountHistory(UUID accountId, HistoryCursor cursor, int size) {
+        int limit = Math.max(1, Math.min(size, MAX_PAGE_SIZE));
+        // fetch one extra row to learn whether another page exists
+        PageRequest window = PageRequest.of(0, limit + 1);
+        List<LedgerEntryResponseDTO> rows = toDtos(cursor == null
+            ? ledgerEntryRepository.findByAccount_IdOrderByCreatedAtDescIdDesc(accountId, window)
+            : ledgerEntryRepository.findAccountHistoryBefore(accountId, cursor.createdAt(), cursor.id(), window));
+        if (ledgerArchiveRepository.existsByAccountId(accountId)) {
+            rows = merge(rows, cursor == null
+                ? ledgerArchiveRepository.findAccountHistory(accountId, window)
+                : ledgerArchiveRepository.findAccountHistoryBefore(accountId, cursor.createdAt(), cursor.id(), window),
+                limit + 1);
+        }
+        if (rows.size() <= limit) {
+            return new HistoryPage(rows, null);
+        }
+        List<LedgerEntryResponseDTO> page = rows.subList(0, limit);
+        LedgerEntryResponseDTO last = page.get(limit - 1);
+        return new HistoryPage(page, new HistoryCursor(last.createdAt(), last.id()).encode());
     }
 
+    /**
+     * Streams every entry of the account in [from, to), oldest first, to {@code sink}
+     * while the transaction holds the cursor open. Rows are never collected, so heap
+     * use does not depend on history length. Returns the number of rows written.
+     */
     @Transactional(readOnly = true)
-    public List<LedgerEntry> accountHistory(UUID accountId, int page, int size) {
-        return ledgerEntryRepository.findByAccount_IdOrderByCreatedAtDesc(accountId, PageRequest.of(page, size));
+    public long exportAccountHistory(UUID accountId, Instant from, Instant to, Consumer<LedgerEntryResponseDTO> sink) {
+        Instant lower = from == null ? EXPORT_FROM : from;
+        Instant upper = to == null ? EXPORT_TO : to;
+        long rows = 0;
+        try (Stream<LedgerEntryResponseDTO> hot = ledgerEntryRepository.streamAccountHistory(accountId, lower, upper);
+             Stream<LedgerEntryResponseDTO> cold = ledgerArchiveRepository.streamAccountHistory(accountId, lower, upper)) {
+            // both cursors are ordered: a two-way merge keeps the output ordered without buffering
+            Iterator<LedgerEntryResponseDTO> a = hot.iterator();
+            Iterator<LedgerEntryResponseDTO> b = cold.iterator();
+            LedgerEntryResponseDTO nextA = a.hasNext() ? a.next() : null;
+            LedgerEntryResponseDTO nextB = b.hasNext() ? b.next() : null;
+            while (nextA != null || nextB != null) {
+                if (nextB == null || (nextA != null && OLDEST_FIRST.compare(nextA, nextB) <= 0)) {
+                    sink.accept(nextA);
+                    nextA = a.hasNext() ? a.next() : null;
+                } else {
+                    sink.accept(nextB);
+                    nextB = b.hasNext() ? b.next() : null;
+                }
+                rows++;
+            }
+        }
+        return rows;
+    }
+
+    private static List<LedgerEntryResponseDTO> toDtos(List<LedgerEntry> entries) {
+        return entries.stream().map(LedgerEntryResponseDTO::of).toList();
+    }
+
+    // both lists newest first; keeps the first max rows of their union
+    private static List<LedgerEntryResponseDTO> merge(List<LedgerEntryResponseDTO> hot,
+            List<LedgerEntryResponseDTO> cold, int max) {
+        if (cold.isEmpty()) {
+            return hot;
+        }
+        List<LedgerEntryResponseDTO> out = new ArrayList<>(Math.min(max, hot.size() + cold.size()));
+        int i = 0;
+        int j = 0;
+        while (out.size() < max && (i < hot.size() || j < cold.size())) {
+            if (j >= cold.size() || (i < hot.size() && NEWEST_FIRST.compare(hot.get(i), cold.get(j)) <= 0)) {
+                out.add(hot.get(i++));
+            } else {
+                out.add(cold.get(j++));
+            }
+        }
+        return out;
+    }
+
+    static int compareUuids(UUID x, UUID y) {
+        int high = Long.compareUnsigned(x.getMostSignificantBits(), y.getMostSignificantBits());
+        return high != 0 ? high : Long.compareUnsigned(x.getLeastSignificantBits(), y.getLeastSignificantBits());
     }
+
+    public static record HistoryPage(List<LedgerEntryResponseDTO> entries, String nextCursor) {}
 }
@@ -0,0 +1,344 @@
+package com.example.banking.service;
+
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.time.Instant;
+import java.time.YearMonth;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.stream.Stream;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.example.banking.dto.LedgerEntryResponseDTO;
+import com.example.banking.model.JournalStatus;
+import com.example.banking.model.StatementAccount;
+import com.example.banking.repository.AccountRepository;
+import com.example.banking.repository.BalanceCheckpointRepository;
+import com.example.banking.repository.LedgerArchiveRepository;
+import com.example.banking.repository.LedgerEntryRepository;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
+/**
+ * Account statements for a period [from, to), written as NDJSON files: one
+ * line per account opened before {@code to}, with its opening balance, the
+ * entries of posted journals created in the period over both ledger tiers,
+ * and its closing balance.
+ *
+ * The accounts are split into id ranges of {@code partition-size}, fixed in
+ * the run directory's partitions.txt the first time a period is generated.
+ * The ranges run in parallel on {@code parallelism} threads, each in one
+ * read-only transaction with a fixed number of queries: the opening balances
+ * of the whole range (as-of balances from the nearest checkpoint, see
+ * BalanceCheckpointService), one cursor over the range's hot entries, and an
+ * archive cursor only for accounts that have archived entries. Each range is
+ * written to its own file, renamed into place once complete. Those files are
+ * the checkpoints: generating the same period again (after a crash or a
+ * failed range) only does the ranges that have no file yet.
+ *
+ * Like as-of balances, entries belong to the period they were created in; a
+ * journal still pending when the statements are generated is left out.
+ */
+@Service
+public class StatementService {
+
+    private static final Logger log = LoggerFactory.getLogger(StatementService.class);
+
+    private static final DateTimeFormatter PERIOD_BOUND =
+        DateTimeFormatter.ofPattern("yyyyMMdd'T'HHmmss'Z'").withZone(ZoneOffset.UTC);
+    private static final UUID MIN_ID = new UUID(0, 0);
+    // all ones: never a generated (v4 or v7) id, so "< MAX_ID" closes the last range
+    private static final UUID MAX_ID = new UUID(-1L, -1L);
+
+    private final AccountRepository accountRepository;
+    private final BalanceCheckpointRepository balanceCheckpointRepository;
+    private final LedgerEntryRepository ledgerEntryRepository;
+    private final LedgerArchiveRepository ledgerArchiveRepository;
+    private final ObjectMapper objectMapper;
+    private final TransactionTemplate readOnlyTx;
+    private final Path dir;
+    private final int partitionSize;
+    private final int parallelism;
+    private final ZoneId zone;
+
+    private final Counter accountsWritten;
+    private final Timer partitionTimer;
+
+    public StatementService(AccountRepository accountRepository, BalanceCheckpointRepository balanceCheckpointRepository,
+            LedgerEntryRepository ledgerEntryRepository, LedgerArchiveRepository ledgerArchiveRepository,
+            ObjectMapper objectMapper,
+            PlatformTransactionManager transactionManager,
+            @Value("${banking.statements.dir:data/statements}") Path dir,
+            @Value("${banking.statements.partition-size:1000}") int partitionSize,
+            @Value("${banking.statements.parallelism:0}") int parallelism,
+            @Value("${banking.statements.zone:UTC}") ZoneId zone,
+            MeterRegistry meterRegistry) {
+        this.accountRepository = accountRepository;
+        this.balanceCheckpointRepository = balanceCheckpointRepository;
+        this.ledgerEntryRepository = ledgerEntryRepository;
+        this.ledgerArchiveRepository = ledgerArchiveRepository;
+        this.objectMapper = objectMapper;
+        this.readOnlyTx = new TransactionTemplate(transactionManager);
+        this.readOnlyTx.setReadOnly(true);
+        this.dir = dir;
+        this.partitionSize = Math.max(1, partitionSize);
+        this.parallelism = parallelism > 0 ? parallelism : Runtime.getRuntime().availableProcessors();
+        this.zone = zone;
+        this.accountsWritten = Counter.builder("banking.statements.accounts")
+            .description("Account statements written").register(meterRegistry);
+        this.partitionTimer = Timer.builder("banking.statements.partition")
+            .description("Time spent writing the statements of one account range").register(meterRegistry);
+    }
+
+    /** Statements for the previous calendar month in {@code banking.statements.zone}. */
+    @Scheduled(cron = "${banking.statements.cron:-}", zone = "${banking.statements.zone:UTC}")
+    public void generatePreviousMonth() {
+        ZonedDateTime start = YearMonth.now(zone).minusMonths(1).atDay(1).atStartOfDay(zone);
+        generate(start.toInstant(), start.plusMonths(1).toInstant());
+    }
+
+    /**
+     * Writes (or finishes writing) the statements of [from, to) under
+     * {@code banking.statements.dir}. A failed range fails the run once the
+     * ranges already running are done; everything written so far is kept.
+     */
+    public StatementRun generate(Instant from, Instant to) {
+        if (!from.isBefore(to)) {
+            throw new IllegalArgumentException("Statement period must end after it starts");
+        }
+        Path runDir = dir.resolve(PERIOD_BOUND.format(from) + "-" + PERIOD_BOUND.format(to));
+        List<UUID> bounds = partitionBounds(runDir, from, to);
+
+        ExecutorService pool = Executors.newFixedThreadPool(parallelism, new CustomizableThreadFactory("statements-"));
+        List<Future<Written>> running = new ArrayList<>(bounds.size());
+        int resumed = 0;
+        try {
+            for (int i = 0; i < bounds.size(); i++) {
+                if (Files.exists(partitionFile(runDir, i))) {
+                    resumed++;
+                    continue;
+                }
+                int index = i;
+                UUID fromId = bounds.get(i);
+                UUID toId = i + 1 < bounds.size() ? bounds.get(i + 1) : MAX_ID;
+                running.add(pool.submit(() -> writePartition(runDir, index, fromId, toId, from, to)));
+            }
+            long accounts = 0;
+            long entries = 0;
+            for (Future<Written> f : running) {
+                Written w = f.get();
+                accounts += w.accounts();
+                entries += w.entries();
+            }
+            log.info("Wrote statements for {} accounts ({} entries) in {} of {} ranges to {}",
+                accounts, entries, running.size(), bounds.size(), runDir);
+            return new StatementRun(runDir, bounds.size(), resumed, accounts, entries);
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Statement run " + runDir + " failed; generating the same period again resumes it",
+                e.getCause());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Statement run " + runDir + " interrupted", e);
+        } finally {
+            // ranges not started yet are dropped; running ones finish and keep their files
+            running.forEach(f -> f.cancel(false));
+            pool.shutdown();
+        }
+    }
+
+    // first account id of each range, after a "from to" header line; read back from partitions.txt
+    // when the period was started before
+    private List<UUID> partitionBounds(Path runDir, Instant from, Instant to) {
+        Path manifest = runDir.resolve("partitions.txt");
+        String period = from + " " + to;
+        try {
+            if (Files.exists(manifest)) {
+                List<String> lines = Files.readAllLines(manifest);
+                if (!lines.get(0).equals(period)) {
+                    // the directory name only has second precision
+                    throw new IllegalStateException(runDir + " holds statements for " + lines.get(0) + ", not " + period);
+                }
+                return lines.stream().skip(1).map(UUID::fromString).toList();
+            }
+            Files.createDirectories(runDir);
+            List<UUID> bounds = new ArrayList<>();
+            UUID after = MIN_ID;
+            while (true) {
+                List<UUID> page = accountRepository.findIdsAfter(after, to, PageRequest.of(0, partitionSize));
+                if (page.isEmpty()) break;
+                bounds.add(page.get(0));
+                after = page.get(page.size() - 1);
+                if (page.size() < partitionSize) break;
+            }
+            List<String> lines = new ArrayList<>(bounds.size() + 1);
+            lines.add(period);
+            bounds.forEach(id -> lines.add(id.toString()));
+            Path temp = runDir.resolve("partitions.txt.tmp");
+            Files.write(temp, lines);
+            Files.move(temp, manifest, StandardCopyOption.ATOMIC_MOVE);
+            return bounds;
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot prepare statement run " + runDir, e);
+        }
+    }
+
+    private Written writePartition(Path runDir, int index, UUID fromId, UUID toId, Instant from, Instant to) {
+        Timer.Sample sample = Timer.start();
+        Path target = partitionFile(runDir, index);
+        Path temp = runDir.resolve(target.getFileName() + ".tmp");
+        Written written;
+        try (OutputStream out = new BufferedOutputStream(Files.newOutputStream(temp), 64 * 1024);
+             JsonGenerator json = objectMapper.createGenerator(out)) {
+            json.setRootValueSeparator(null); // one statement per line, separated below
+            written = readOnlyTx.execute(status -> {
+                List<StatementAccount> accounts = balanceCheckpointRepository.findStatementAccounts(fromId, toId, to,
+                    from, JournalStatus.POSTED, Instant.EPOCH);
+                long entries = 0;
+                try (Stream<LedgerEntryResponseDTO> hot = ledgerEntryRepository.streamRangeHistory(fromId, toId,
+                        JournalStatus.POSTED, from, to)) {
+                    Iterator<LedgerEntryResponseDTO> rows = hot.iterator();
+                    LedgerEntryResponseDTO next = rows.hasNext() ? rows.next() : null;
+                    for (StatementAccount account : accounts) {
+                        // entries of accounts opened after the period (not in the list) sort before it
+                        while (next != null && LedgerEntryService.compareUuids(next.accountId(), account.accountId()) < 0) {
+                            next = rows.hasNext() ? rows.next() : null;
+                        }
+                        Statement statement = new Statement(json, account, from, to);
+                        if (account.archived()) {
+                            next = statement.mergeArchive(next, rows);
+                        } else {
+                            while (next != null && next.accountId().equals(account.accountId())) {
+                                statement.line(next);
+                                next = rows.hasNext() ? rows.next() : null;
+                            }
+                        }
+                        entries += statement.close();
+                    }
+                }
+                return new Written(accounts.size(), entries);
+            });
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot write statements " + temp, e);
+        }
+        try {
+            Files.move(temp, target, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot install statements " + target, e);
+        }
+        sample.stop(partitionTimer);
+        accountsWritten.increment(written.accounts());
+        return written;
+    }
+
+    /**
+     * One output line:
+     * {"accountId":…,"currency":…,"from":…,"to":…,"openingBalanceCents":…,"entries":[…],"closingBalanceCents":…}
+     */
+    private final class Statement {
+
+        private final JsonGenerator json;
+        private final StatementAccount account;
+        private final Instant from;
+        private final Instant to;
+        private long balance;
+        private long lines;
+
+        Statement(JsonGenerator json, StatementAccount account, Instant from, Instant to) {
+            this.json = json;
+            this.account = account;
+            this.from = from;
+            this.to = to;
+            this.balance = account.openingBalanceCents();
+            try {
+                json.writeStartObject();
+                json.writeStringField("accountId", account.accountId().toString());
+                json.writeStringField("currency", account.currency());
+                json.writeStringField("from", from.toString());
+                json.writeStringField("to", to.toString());
+                json.writeNumberField("openingBalanceCents", balance);
+                json.writeArrayFieldStart("entries");
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+
+        void line(LedgerEntryResponseDTO e) {
+            balance += "credit".equals(e.side()) ? e.amountCents() : -e.amountCents();
+            lines++;
+            try {
+                json.writeObject(e);
+            } catch (IOException ex) {
+                throw new UncheckedIOException(ex);
+            }
+        }
+
+        // merges the account's archived entries with its hot ones (starting at next); returns the first hot row after them
+        LedgerEntryResponseDTO mergeArchive(LedgerEntryResponseDTO next, Iterator<LedgerEntryResponseDTO> rows) {
+            try (Stream<LedgerEntryResponseDTO> cold = ledgerArchiveRepository.streamAccountHistory(account.accountId(), from, to)) {
+                Iterator<LedgerEntryResponseDTO> archived = cold.iterator();
+                LedgerEntryResponseDTO nextArchived = archived.hasNext() ? archived.next() : null;
+                while (true) {
+                    boolean hotLeft = next != null && next.accountId().equals(account.accountId());
+                    if (!hotLeft && nextArchived == null) {
+                        return next;
+                    }
+                    if (hotLeft && (nextArchived == null || LedgerEntryService.OLDEST_FIRST.compare(next, nextArchived) <= 0)) {
+                        line(next);
+                        next = rows.hasNext() ? rows.next() : null;
+                    } else {
+                        line(nextArchived);
+                        nextArchived = archived.hasNext() ? archived.next() : null;
+                    }
+                }
+            }
+        }
+
+        long close() {
+            try {
+                json.writeEndArray();
+                json.writeNumberField("closingBalanceCents", balance);
+                json.writeEndObject();
+                json.writeRaw('\n');
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+            return lines;
+        }
+    }
+
+    private static Path partitionFile(Path runDir, int index) {
+        return runDir.resolve(String.format("statements-%05d.ndjson", index));
+    }
+
+    private record Written(long accounts, long entries) {}
+
+    public static record StatementRun(Path directory, int partitions, int resumed, long accounts, long entries) {}
+}
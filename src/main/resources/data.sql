@@ -39,48 +39,51 @@ VALUES
 -- =========================
 -- Journals
 -- =========================
-INSERT INTO journal (id, status, description, external_ref)
+INSERT INTO journal (id, status, description, external_ref, currency, debit_total_cents, credit_total_cents)
 VALUES
-  ('33333333-3333-3333-3333-333333333333', 'posted',  'Initial deposit for Alice',                    'init-alice-1'),
-  ('33333333-3333-3333-3333-333333333334', 'posted',  'Transfer from Alice checking to savings',       'alice-xfer-1'),
-  ('44444444-4444-4444-4444-444444444444', 'pending', 'Bob initial deposit (pending, not posted yet)', 'init-bob-1');
+  ('33333333-3333-3333-3333-333333333333', 'posted',  'Initial deposit for Alice',                    'init-alice-1', 'USD', 100000, 100000),
+  ('33333333-3333-3333-3333-333333333334', 'posted',  'Transfer from Alice checking to savings',       'alice-xfer-1', 'USD',  25000,  25000),
+  ('44444444-4444-4444-4444-444444444444', 'pending', 'Bob initial deposit (pending, not posted yet)', 'init-bob-1',   NULL,       0,      0);
 
 -- =========================
 -- Ledger Entries
 -- =========================
 
+-- balance_after_cents: running account balance once the journal is posted (see Cached Balances below)
+
 -- J1: Alice initial deposit: $1,000.00 USD
-INSERT INTO ledger_entry (id, journal_id, account_id, side, amount_cents, currency)
+INSERT INTO ledger_entry (id, journal_id, account_id, side, amount_cents, currency, balance_after_cents)
 VALUES
   -- Debit internal USD cash
   ('55555555-5555-5555-5555-555555555555', '33333333-3333-3333-3333-333333333333',
-   'ccccccc1-cccc-cccc-cccc-ccccccccccc1', 'debit',  100000, 'USD'),
+   'ccccccc1-cccc-cccc-cccc-ccccccccccc1', 'debit',  100000, 'USD', -100000),
   -- Credit Alice checking
   ('66666666-6666-6666-6666-666666666666', '33333333-3333-3333-3333-333333333333',
-   'aaaaaaa1-aaaa-aaaa-aaaa-aaaaaaaaaaa1', 'credit', 100000, 'USD');
+   'aaaaaaa1-aaaa-aaaa-aaaa-aaaaaaaaaaa1', 'credit', 100000, 'USD',  100000);
 
 -- J2: Alice transfer from checking -> savings: $250.00 USD
-INSERT INTO ledger_entry (id, journal_id, account_id, side, amount_cents, currency)
+INSERT INTO ledger_entry (id, journal_id, account_id, side, amount_cents, currency, balance_after_cents)
 VALUES
-  -- Debit Alice savings (increase)
+  -- Debit Alice checking (decrease)
   ('77777777-7777-7777-7777-777777777777', '33333333-3333-3333-3333-333333333334',
-   'aaaaaaa2-aaaa-aaaa-aaaa-aaaaaaaaaaa2', 'debit',  25000, 'USD'),
-  -- Credit Alice checking (decrease)
+   'aaaaaaa1-aaaa-aaaa-aaaa-aaaaaaaaaaa1', 'debit',  25000, 'USD',  75000),
+  -- Credit Alice savings (increase)
   ('88888888-8888-8888-8888-888888888888', '33333333-3333-3333-3333-333333333334',
-   'aaaaaaa1-aaaa-aaaa-aaaa-aaaaaaaaaaa1', 'credit', 25000, 'USD');
+   'aaaaaaa2-aaaa-aaaa-aaaa-aaaaaaaaaaa2', 'credit', 25000, 'USD',  25000);
 
 -- =========================
--- Cached Balances
--- - Alice checking:  +100000 (J1 credit) - 25000 (J2 credit against checking) = 75000
--- - Alice savings:   +25000  (J2 debit)  = 25000
--- - Internal USD:    +100000 (J1 debit)  = 100000
+-- Cached Balances (posted journals only; credits increase, debits decrease,
+-- same convention as LedgerEntryRepository.netAmountForAccount)
+-- - Alice checking:  +100000 (J1 credit) - 25000 (J2 debit) = 75000
+-- - Alice savings:   +25000  (J2 credit) = 25000
+-- - Internal USD:    -100000 (J1 debit)  = -100000
 -- - Bob checking EUR: 0 (no posted journals)
 -- - Internal EUR:      0
 -- =========================
 INSERT INTO account_balance (account_id, balance_cents, currency)
 VALUES
-  ('aaaaaaa1-aaaa-aaaa-aaaa-aaaaaaaaaaa1',  75000,  'USD'),  -- Alice checking
-  ('aaaaaaa2-aaaa-aaaa-aaaa-aaaaaaaaaaa2',  25000,  'USD'),  -- Alice savings
-  ('bbbbbbb1-bbbb-bbbb-bbbb-bbbbbbbbbbb1',      0,  'EUR'),  -- Bob checking
-  ('ccccccc1-cccc-cccc-cccc-ccccccccccc1', 100000,  'USD'),  -- internal USD cash
-  ('ccccccc2-cccc-cccc-cccc-ccccccccccc2',      0,  'EUR');  -- internal EUR cash
+  ('aaaaaaa1-aaaa-aaaa-aaaa-aaaaaaaaaaa1',   75000,  'USD'),  -- Alice checking
+  ('aaaaaaa2-aaaa-aaaa-aaaa-aaaaaaaaaaa2',   25000,  'USD'),  -- Alice savings
+  ('bbbbbbb1-bbbb-bbbb-bbbb-bbbbbbbbbbb1',       0,  'EUR'),  -- Bob checking
+  ('ccccccc1-cccc-cccc-cccc-ccccccccccc1', -100000,  'USD'),  -- internal USD cash
+  ('ccccccc2-cccc-cccc-cccc-ccccccccccc2',       0,  'EUR');  -- internal EUR cash
@@ -35,9 +35,18 @@ CREATE TABLE journal (
     description  VARCHAR(500),
     external_ref VARCHAR(120) UNIQUE,
     created_at   TIMESTAMP   DEFAULT CURRENT_TIMESTAMP,
-    posted_at    TIMESTAMP
+    posted_at    TIMESTAMP,
+    -- running totals maintained on addEntry (see Journal entity)
+    currency           CHAR(3),
+    debit_total_cents  BIGINT NOT NULL DEFAULT 0,
+    credit_total_cents BIGINT NOT NULL DEFAULT 0
 );
 
+-- Journal search (keyset, newest first): with a status filter, and without one.
+-- externalRef prefix searches range-scan the external_ref unique index.
+CREATE INDEX journal_by_status  ON journal(status, created_at, id);
+CREATE INDEX journal_by_created ON journal(created_at, id);
+
 -- Ledger entries
 CREATE TABLE ledger_entry (
     id           UUID PRIMARY KEY,
@@ -46,12 +55,13 @@ CREATE TABLE ledger_entry (
     side         VARCHAR(6) NOT NULL CHECK (side IN ('debit','credit')),
     amount_cents BIGINT    NOT NULL CHECK (amount_cents > 0),
     currency     CHAR(3)   NOT NULL,
-    created_at   TIMESTAMP  DEFAULT CURRENT_TIMESTAMP,
+    created_at   TIMESTAMP  DEFAULT CURRENT_TIMESTAMP, -- when added; the journal's posted_at once posted
+    balance_after_cents BIGINT,                     -- account balance right after posting; NULL while pending
     CONSTRAINT fk_le_journal FOREIGN KEY (journal_id) REFERENCES journal(id) ON DELETE CASCADE,
     CONSTRAINT fk_le_account FOREIGN KEY (account_id)  REFERENCES account(id)
 );
 
-CREATE INDEX le_by_acct    ON ledger_entry(account_id, created_at);
+CREATE INDEX le_by_acct    ON ledger_entry(account_id, created_at, id); -- id: keyset tiebreak
 CREATE INDEX le_by_journal ON ledger_entry(journal_id);
 
 -- Cached balances
@@ -59,5 +69,97 @@ CREATE TABLE account_balance (
     account_id    UUID PRIMARY KEY,
     balance_cents BIGINT   DEFAULT 0,
     currency      CHAR(3)  NOT NULL,
+    version       BIGINT   NOT NULL DEFAULT 0,      -- optimistic lock, bumped by every posting
+    held_cents    BIGINT   NOT NULL DEFAULT 0,      -- sum of active funds_hold amounts
     CONSTRAINT fk_ab_account FOREIGN KEY (account_id) REFERENCES account(id) ON DELETE CASCADE
 );
+
+-- Funds holds (authorize / capture / release); active holds reduce the available balance
+CREATE TABLE funds_hold (
+    id           UUID PRIMARY KEY,
+    account_id   UUID         NOT NULL,
+    amount_cents BIGINT       NOT NULL CHECK (amount_cents > 0),
+    currency     CHAR(3)      NOT NULL,
+    status       VARCHAR(16)  NOT NULL CHECK (status IN ('active','captured','released','expired')),
+    description  VARCHAR(500),
+    created_at   TIMESTAMP    DEFAULT CURRENT_TIMESTAMP,
+    expires_at   TIMESTAMP    NOT NULL,
+    closed_at    TIMESTAMP,
+    captured_cents BIGINT,                           -- <= amount_cents; the rest was released
+    journal_id   UUID,                               -- capture journal (in journal or, once archived, journal_archive)
+    CONSTRAINT fk_fh_account FOREIGN KEY (account_id) REFERENCES account(id) ON DELETE CASCADE
+);
+
+CREATE INDEX fh_active_by_expiry ON funds_hold(status, expires_at);
+CREATE INDEX fh_by_account       ON funds_hold(account_id, status);
+
+-- Idempotency-Key responses for mutating endpoints (see IdempotencyFilter)
+CREATE TABLE idempotency_key (
+    cache_key     CHAR(64)     PRIMARY KEY,         -- sha-256(principal, method, path, key)
+    fingerprint   CHAR(64)     NOT NULL,            -- sha-256 of the request (query + body)
+    status_code   INT,                              -- NULL while the first request is in flight
+    reserved_at   TIMESTAMP    NOT NULL,            -- start of the in-flight request's lease
+    content_type  VARCHAR(100),
+    response_headers VARCHAR(2000),                 -- replayed headers (Location, ETag, ...), one "Name: value" per line
+    response_body BLOB,
+    created_at    TIMESTAMP    DEFAULT CURRENT_TIMESTAMP,
+    expires_at    TIMESTAMP    NOT NULL
+);
+
+CREATE INDEX idx_idempotency_expiry ON idempotency_key(expires_at);
+
+-- Periodic per-account balance checkpoints: sum of posted entries created before as_of.
+-- As-of balance queries start from the nearest checkpoint and scan le_by_acct from there.
+CREATE TABLE balance_checkpoint (
+    account_id    UUID      NOT NULL,
+    as_of         TIMESTAMP NOT NULL,
+    balance_cents BIGINT    NOT NULL,
+    PRIMARY KEY (account_id, as_of),
+    CONSTRAINT fk_bc_account FOREIGN KEY (account_id) REFERENCES account(id) ON DELETE CASCADE
+);
+
+-- Cold tier: posted journals older than the archive cutoff move here with their entries
+-- (see LedgerArchiveService), so ledger_entry and its indexes only hold recent activity.
+-- Rows are copied unchanged and never updated; only the lookups the read paths need are indexed.
+CREATE TABLE journal_archive (
+    id                 UUID PRIMARY KEY,
+    description        VARCHAR(500),
+    external_ref       VARCHAR(120) UNIQUE,          -- still reserved: new journals cannot reuse it
+    created_at         TIMESTAMP    NOT NULL,
+    posted_at          TIMESTAMP    NOT NULL,
+    currency           CHAR(3),
+    debit_total_cents  BIGINT       NOT NULL,
+    credit_total_cents BIGINT       NOT NULL,
+    archived_at        TIMESTAMP    DEFAULT CURRENT_TIMESTAMP
+);
+
+CREATE TABLE ledger_entry_archive (
+    id           UUID PRIMARY KEY,
+    journal_id   UUID       NOT NULL,
+    account_id   UUID       NOT NULL,
+    side         VARCHAR(6) NOT NULL,
+    amount_cents BIGINT     NOT NULL,
+    currency     CHAR(3)    NOT NULL,
+    created_at   TIMESTAMP  NOT NULL,
+    balance_after_cents BIGINT,
+    CONSTRAINT fk_lea_journal FOREIGN KEY (journal_id) REFERENCES journal_archive(id) ON DELETE CASCADE,
+    CONSTRAINT fk_lea_account FOREIGN KEY (account_id) REFERENCES account(id)
+);
+
+CREATE INDEX lea_by_acct ON ledger_entry_archive(account_id, created_at, id);
+
+-- Per-account net (credits minus debits) of everything in ledger_entry_archive, maintained by each
+-- archive batch, so balance rebuild/verify never have to scan the cold tier
+CREATE TABLE account_archive_total (
+    account_id    UUID   PRIMARY KEY,
+    balance_cents BIGINT NOT NULL DEFAULT 0,
+    CONSTRAINT fk_aat_account FOREIGN KEY (account_id) REFERENCES account(id) ON DELETE CASCADE
+);
+
+-- Write-behind position of the in-memory ledger engine (see LedgerEngine): every transfer in its
+-- log up to applied_seq is in journal / ledger_entry / account_balance. No row: the engine has never
+-- written to this database, so its log and snapshots belong to another one.
+CREATE TABLE ledger_engine_offset (
+    id          INT    PRIMARY KEY CHECK (id = 1),
+    applied_seq BIGINT NOT NULL
+);
@@ -0,0 +1,150 @@
+package com.example.banking.config;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.List;
+import java.util.UUID;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+import com.example.banking.repository.AccountRepository;
+import com.example.banking.service.AccountService;
+import com.zaxxer.hikari.HikariDataSource;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
+// The replica pools open the test's own in-memory database, like the profile's stand-ins do for the default one
+@SpringBootTest(properties = {
+	"spring.datasource.url=jdbc:h2:mem:replica-tests",
+	"banking.datasource.replica.urls=jdbc:h2:mem:replica-tests,jdbc:h2:mem:replica-tests"
+})
+@ActiveProfiles("replica")
+class ReplicaRoutingTests {
+
+	static final UUID ALICE = UUID.fromString("11111111-1111-1111-1111-111111111111");
+
+	@Autowired
+	private AccountRepository accountRepository;
+
+	@Autowired
+	private AccountService accountService;
+
+	@Autowired
+	private PlatformTransactionManager transactionManager;
+
+	@Autowired
+	private MeterRegistry meterRegistry;
+
+	@Autowired
+	private ReplicaRoutingDataSource replicaRoutingDataSource;
+
+	@AfterEach
+	void clearPrincipal() {
+		SecurityContextHolder.clearContext();
+	}
+
+	@Test
+	void readOnlyTransactionsUseAReplica() {
+		double toReplica = routed("replica");
+		double toPrimary = routed("primary");
+		long replicaAcquisitions = acquisitions("replica-0") + acquisitions("replica-1");
+
+		List<String> pools = poolsInUse(true);
+
+		assertThat(pools).hasSize(1).allMatch(pool -> pool.startsWith("replica-"));
+		assertThat(routed("replica")).isEqualTo(toReplica + 1);
+		assertThat(routed("primary")).isEqualTo(toPrimary);
+		assertThat(acquisitions("replica-0") + acquisitions("replica-1")).isEqualTo(replicaAcquisitions + 1);
+	}
+
+	@Test
+	void readWriteTransactionsUseThePrimary() {
+		double toReplica = routed("replica");
+		double toPrimary = routed("primary");
+		long primaryAcquisitions = acquisitions("primary");
+
+		List<String> pools = poolsInUse(false);
+
+		assertThat(pools).containsExactly("primary");
+		assertThat(acquisitions("primary")).isGreaterThan(primaryAcquisitions);
+		// not a read-only connection, so not a routing decision
+		assertThat(routed("replica")).isEqualTo(toReplica);
+		assertThat(routed("primary")).isEqualTo(toPrimary);
+	}
+
+	@Test
+	void readsRightAfterAWriteStayOnThePrimary() {
+		signIn("replica-writer");
+		accountService.openAccount(ALICE, "checking", "USD");
+		double toReplica = routed("replica");
+		double toPrimary = routed("primary");
+		long primaryAcquisitions = acquisitions("primary");
+
+		// the writer's next read in the same request
+		List<String> pools = poolsInUse(true);
+
+		assertThat(pools).containsExactly("primary");
+		assertThat(acquisitions("primary")).isGreaterThan(primaryAcquisitions);
+		assertThat(routed("primary")).isEqualTo(toPrimary + 1);
+		assertThat(routed("replica")).isEqualTo(toReplica);
+
+		// and in a later request within the sticky window
+		newRequest();
+		assertThat(poolsInUse(true)).containsExactly("primary");
+		assertThat(routed("primary")).isEqualTo(toPrimary + 2);
+
+		// another principal that has not written reads from a replica
+		newRequest();
+		signIn("replica-reader");
+		assertThat(poolsInUse(true)).hasSize(1).allMatch(pool -> pool.startsWith("replica-"));
+		assertThat(routed("replica")).isEqualTo(toReplica + 1);
+	}
+
+	// the test context binds one mock request to the test thread; start another
+	private void newRequest() {
+		RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(new MockHttpServletRequest()));
+	}
+
+	private void signIn(String username) {
+		SecurityContextHolder.getContext().setAuthentication(
+			UsernamePasswordAuthenticationToken.authenticated(username, null, List.of()));
+	}
+
+	// Runs a query in a transaction and returns the pools with a connection checked out while it
+	// is still open: connections are held until the transaction ends (see ReadReplicaConfig). Read
+	// from the pools themselves; the hikaricp.connections.active gauge is refreshed once a second
+	private List<String> poolsInUse(boolean readOnly) {
+		TransactionTemplate tx = new TransactionTemplate(transactionManager);
+		tx.setReadOnly(readOnly);
+		return tx.execute(status -> {
+			accountRepository.count();
+			return replicaRoutingDataSource.getResolvedDataSources().values().stream()
+				.map(HikariDataSource.class::cast)
+				.filter(pool -> pool.isRunning() && pool.getHikariPoolMXBean().getActiveConnections() > 0)
+				.map(HikariDataSource::getPoolName)
+				.toList();
+		});
+	}
+
+	// a pool opens, and registers its meters, on its first connection
+	private long acquisitions(String pool) {
+		Timer acquire = meterRegistry.find("hikaricp.connections.acquire").tag("pool", pool).timer();
+		return acquire == null ? 0 : acquire.count();
+	}
+
+	private double routed(String target) {
+		return meterRegistry.get("banking.datasource.read.routed").tag("target", target).counter().count();
+	}
+}
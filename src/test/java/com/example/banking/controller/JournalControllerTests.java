@@ -0,0 +1,106 @@
+package com.example.banking.controller;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.hamcrest.Matchers.containsString;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+// same context as the other MockMvc tests
+@SpringBootTest(properties = "spring.datasource.url=jdbc:h2:mem:mockmvc-tests")
+@AutoConfigureMockMvc
+class JournalControllerTests {
+
+	private static final String AUTH = "Basic c3ByaW5nOnNlY3JldA==";
+
+	@Autowired
+	private MockMvc mockMvc;
+
+	@Autowired
+	private ObjectMapper objectMapper;
+
+	@Test
+	void unchangedJournalAnswersNotModified() throws Exception {
+		String journalId = createPendingJournal();
+
+		String etag = mockMvc.perform(get("/journals/{id}", journalId).header(HttpHeaders.AUTHORIZATION, AUTH))
+			.andExpect(status().isOk())
+			.andExpect(header().exists(HttpHeaders.ETAG))
+			.andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+
+		mockMvc.perform(get("/journals/{id}", journalId)
+				.header(HttpHeaders.AUTHORIZATION, AUTH)
+				.header(HttpHeaders.IF_NONE_MATCH, etag))
+			.andExpect(status().isNotModified())
+			.andExpect(header().string(HttpHeaders.ETAG, etag))
+			.andExpect(content().string(""));
+	}
+
+	@Test
+	void newEntryChangesTheTag() throws Exception {
+		String journalId = createPendingJournal();
+		String before = mockMvc.perform(get("/journals/{id}/entries", journalId).header(HttpHeaders.AUTHORIZATION, AUTH))
+			.andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+
+		mockMvc.perform(post("/journals/{id}/entries", journalId)
+				.header(HttpHeaders.AUTHORIZATION, AUTH)
+				.contentType(MediaType.APPLICATION_JSON)
+				.content("""
+					{"accountId":"ccccccc1-cccc-cccc-cccc-ccccccccccc1","side":"debit","amountCents":50,"currency":"USD"}
+					"""))
+			.andExpect(status().isCreated());
+
+		String after = mockMvc.perform(get("/journals/{id}/entries", journalId)
+				.header(HttpHeaders.AUTHORIZATION, AUTH)
+				.header(HttpHeaders.IF_NONE_MATCH, before))
+			.andExpect(status().isOk())
+			.andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+		assertThat(after).isNotEqualTo(before);
+	}
+
+	@Test
+	void postedJournalIsCachedAsImmutable() throws Exception {
+		String submitted = mockMvc.perform(post("/journals/submit")
+				.header(HttpHeaders.AUTHORIZATION, AUTH)
+				.contentType(MediaType.APPLICATION_JSON)
+				.content(submitBody(true)))
+			.andExpect(status().isCreated())
+			.andReturn().getResponse().getContentAsString();
+		String journalId = objectMapper.readTree(submitted).path("journal").path("id").asText();
+
+		mockMvc.perform(get("/journals/{id}", journalId).header(HttpHeaders.AUTHORIZATION, AUTH))
+			.andExpect(status().isOk())
+			.andExpect(header().string(HttpHeaders.CACHE_CONTROL, containsString("immutable")));
+	}
+
+	private String createPendingJournal() throws Exception {
+		String submitted = mockMvc.perform(post("/journals/submit")
+				.header(HttpHeaders.AUTHORIZATION, AUTH)
+				.contentType(MediaType.APPLICATION_JSON)
+				.content(submitBody(false)))
+			.andExpect(status().isCreated())
+			.andReturn().getResponse().getContentAsString();
+		return objectMapper.readTree(submitted).path("journal").path("id").asText();
+	}
+
+	private static String submitBody(boolean post) {
+		return """
+			{"description":"etag test","post":%s,"entries":[
+			  {"accountId":"ccccccc1-cccc-cccc-cccc-ccccccccccc1","side":"debit","amountCents":100,"currency":"USD"},
+			  {"accountId":"aaaaaaa2-aaaa-aaaa-aaaa-aaaaaaaaaaa2","side":"credit","amountCents":100,"currency":"USD"}]}
+			""".formatted(post);
+	}
+
+}
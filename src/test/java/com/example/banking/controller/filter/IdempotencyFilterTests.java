@@ -0,0 +1,65 @@
+package com.example.banking.controller.filter;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import java.util.UUID;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+// MockMvc tests share a context on their own database; a second context must not re-run schema.sql on the default one
+@SpringBootTest(properties = "spring.datasource.url=jdbc:h2:mem:mockmvc-tests")
+@AutoConfigureMockMvc
+class IdempotencyFilterTests {
+
+	private static final String AUTH = "Basic c3ByaW5nOnNlY3JldA==";
+
+	@Autowired
+	private MockMvc mockMvc;
+
+	@Autowired
+	private ObjectMapper objectMapper;
+
+	@Test
+	void replayedAcceptedPostingKeepsItsLocation() throws Exception {
+		String submitted = mockMvc.perform(post("/journals/submit")
+				.header(HttpHeaders.AUTHORIZATION, AUTH)
+				.contentType(MediaType.APPLICATION_JSON)
+				.content("""
+					{"description":"idempotent replay","post":false,"entries":[
+					  {"accountId":"ccccccc1-cccc-cccc-cccc-ccccccccccc1","side":"debit","amountCents":100,"currency":"USD"},
+					  {"accountId":"aaaaaaa2-aaaa-aaaa-aaaa-aaaaaaaaaaa2","side":"credit","amountCents":100,"currency":"USD"}]}
+					"""))
+			.andExpect(status().isCreated())
+			.andReturn().getResponse().getContentAsString();
+		String journalId = objectMapper.readTree(submitted).path("journal").path("id").asText();
+		String key = UUID.randomUUID().toString();
+		String location = "/journals/" + journalId + "/posting";
+
+		String first = mockMvc.perform(post("/journals/{id}/post-async", journalId)
+				.header(HttpHeaders.AUTHORIZATION, AUTH)
+				.header(IdempotencyFilter.HEADER, key))
+			.andExpect(status().isAccepted())
+			.andExpect(header().string(HttpHeaders.LOCATION, location))
+			.andReturn().getResponse().getContentAsString();
+
+		mockMvc.perform(post("/journals/{id}/post-async", journalId)
+				.header(HttpHeaders.AUTHORIZATION, AUTH)
+				.header(IdempotencyFilter.HEADER, key))
+			.andExpect(status().isAccepted())
+			.andExpect(header().string("Idempotent-Replayed", "true"))
+			.andExpect(header().string(HttpHeaders.LOCATION, location))
+			.andExpect(content().json(first));
+	}
+
+}
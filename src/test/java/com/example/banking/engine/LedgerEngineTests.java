@@ -0,0 +1,209 @@
+package com.example.banking.engine;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.example.banking.engine.LedgerEngine.AccountState;
+import com.example.banking.entity.FundsHold;
+import com.example.banking.exceptions.BankingExceptions.ExternalReferenceAlreadyExistsException;
+import com.example.banking.exceptions.BankingExceptions.InsufficientFundsException;
+import com.example.banking.model.HoldStatus;
+import com.example.banking.repository.BalanceCheckpointRepository;
+import com.example.banking.service.AccountService;
+import com.example.banking.service.BalanceCheckpointService;
+import com.example.banking.service.HoldService;
+import com.example.banking.service.JournalService;
+import com.example.banking.service.JournalService.EntryLine;
+
+@SpringBootTest(properties = {
+	"spring.datasource.url=jdbc:h2:mem:engine-tests",
+	"banking.ledger.engine.enabled=true",
+	"banking.ledger.engine.dir=target/ledger-engine-tests",
+	"banking.balance.checkpoint-lag=0s"
+})
+class LedgerEngineTests {
+
+	static final UUID ALICE = UUID.fromString("11111111-1111-1111-1111-111111111111");
+	static final UUID BANK_CASH_USD = UUID.fromString("ccccccc1-cccc-cccc-cccc-ccccccccccc1");
+
+	@Autowired
+	private LedgerEngine ledgerEngine;
+
+	@Autowired
+	private HoldService holdService;
+
+	@Autowired
+	private AccountService accountService;
+
+	@Autowired
+	private JournalService journalService;
+
+	@Autowired
+	private BalanceCheckpointService balanceCheckpointService;
+
+	@Autowired
+	private BalanceCheckpointRepository balanceCheckpointRepository;
+
+	@Autowired
+	private JdbcTemplate jdbcTemplate;
+
+	@Autowired
+	private PlatformTransactionManager transactionManager;
+
+	private UUID payer;
+	private UUID payee;
+
+	@BeforeEach
+	void openAccounts() {
+		payer = accountService.openAccount(ALICE, "checking", "USD").getId();
+		payee = accountService.openAccount(ALICE, "savings", "USD").getId();
+		journalService.transfer(BANK_CASH_USD, payer, "USD", 10_000, "engine test funding", null);
+	}
+
+	@Test
+	void captureSpendsTheHoldItReleases() {
+		FundsHold hold = holdService.authorize(payer, 10_000, "USD", null, null);
+		assertThat(ledgerEngine.account(payer)).isEqualTo(new AccountState(10_000, 10_000));
+
+		FundsHold captured = holdService.capture(hold.getId(), payee, null);
+
+		assertThat(captured.getStatus()).isEqualTo(HoldStatus.CAPTURED);
+		assertThat(ledgerEngine.account(payer)).isEqualTo(new AccountState(0, 0));
+		assertThat(ledgerEngine.account(payee)).isEqualTo(new AccountState(10_000, 0));
+	}
+
+	@Test
+	void partialCaptureLeavesTheRemainderAvailable() {
+		FundsHold hold = holdService.authorize(payer, 5_000, "USD", null, null);
+
+		holdService.capture(hold.getId(), payee, 2_000L);
+
+		assertThat(ledgerEngine.account(payer)).isEqualTo(new AccountState(8_000, 0));
+		assertThat(ledgerEngine.account(payee)).isEqualTo(new AccountState(2_000, 0));
+	}
+
+	@Test
+	void heldFundsCannotBeTransferred() {
+		holdService.authorize(payer, 7_000, "USD", null, null);
+
+		assertThatThrownBy(() -> journalService.transfer(payer, payee, "USD", 3_001, "over", null))
+			.isInstanceOf(InsufficientFundsException.class);
+		assertThat(ledgerEngine.account(payer)).isEqualTo(new AccountState(10_000, 7_000));
+	}
+
+	@Test
+	void checkpointCutoffWaitsForTheWriteBehindWriter() throws Exception {
+		awaitWritten();
+		UUID[] journalId = new UUID[1];
+		Instant asOf = whileWriterBlocked(payee, () -> {
+			journalId[0] = journalService.transfer(payer, payee, "USD", 1_500, "lagging", null).journal().getId();
+			Thread.sleep(50);
+			assertThat(ledgerEngine.oldestUnwrittenAt()).isNotNull();
+			balanceCheckpointService.createCheckpoints();
+			return balanceCheckpointRepository.findLatestAsOf();
+		});
+		awaitWritten();
+		// compared as stored: the column rounds both to the same precision
+		Instant createdAt = jdbcTemplate.queryForObject("SELECT created_at FROM journal WHERE id = ?", Instant.class, journalId[0]);
+		assertThat(asOf).isBeforeOrEqualTo(createdAt);
+		balanceCheckpointService.createCheckpoints();
+
+		assertThat(balanceCheckpointService.balanceAsOf(payee, Instant.now().plusSeconds(1))).isEqualTo(1_500);
+		assertThat(balanceCheckpointService.balanceAsOf(payer, Instant.now().plusSeconds(1))).isEqualTo(8_500);
+	}
+
+	@Test
+	void submitCannotTakeTheReferenceOfAnUnwrittenTransfer() throws Exception {
+		String ref = "engine-ref-" + UUID.randomUUID();
+		whileWriterBlocked(payee, () -> {
+			journalService.transfer(payer, payee, "USD", 1_000, "engine", ref);
+			assertThatThrownBy(() -> journalService.submitJournal("jpa", ref, List.of(
+				new EntryLine(payer, "debit", "USD", 1_000),
+				new EntryLine(payee, "credit", "USD", 1_000)), true))
+				.isInstanceOf(ExternalReferenceAlreadyExistsException.class);
+			assertThatThrownBy(() -> journalService.createJournal("jpa", ref))
+				.isInstanceOf(ExternalReferenceAlreadyExistsException.class);
+			return null;
+		});
+		awaitWritten();
+
+		assertThat(jdbcTemplate.queryForObject("SELECT count(*) FROM journal WHERE external_ref = ?", Long.class, ref))
+			.isEqualTo(1);
+		assertThat(ledgerEngine.account(payer)).isEqualTo(new AccountState(9_000, 0));
+	}
+
+	@Test
+	void transferCannotTakeTheReferenceOfAnUncommittedSubmit() throws Exception {
+		String ref = "jpa-ref-" + UUID.randomUUID();
+		ExecutorService other = Executors.newSingleThreadExecutor();
+		try {
+			new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+				journalService.createJournal("jpa", ref);
+				// another request, outside this still-open transaction
+				Future<?> transfer = other.submit(() -> journalService.transfer(payer, payee, "USD", 1_000, "engine", ref));
+				assertThatThrownBy(() -> transfer.get(10, TimeUnit.SECONDS))
+					.hasCauseInstanceOf(ExternalReferenceAlreadyExistsException.class);
+			});
+			Future<?> again = other.submit(() -> journalService.transfer(payer, payee, "USD", 1_000, "engine", ref));
+			assertThatThrownBy(() -> again.get(10, TimeUnit.SECONDS))
+				.hasCauseInstanceOf(ExternalReferenceAlreadyExistsException.class);
+		} finally {
+			other.shutdownNow();
+		}
+		assertThat(ledgerEngine.account(payer)).isEqualTo(new AccountState(10_000, 0));
+	}
+
+	// runs body while another transaction holds the account's balance row, so the writer cannot commit
+	private <T> T whileWriterBlocked(UUID accountId, Callable<T> body) throws Exception {
+		ExecutorService locker = Executors.newSingleThreadExecutor();
+		CountDownLatch locked = new CountDownLatch(1);
+		CountDownLatch unlock = new CountDownLatch(1);
+		try {
+			Future<?> holder = locker.submit(() -> new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+				jdbcTemplate.queryForList("SELECT balance_cents FROM account_balance WHERE account_id = ? FOR UPDATE", accountId);
+				locked.countDown();
+				try {
+					unlock.await();
+				} catch (InterruptedException e) {
+					Thread.currentThread().interrupt();
+				}
+			}));
+			assertThat(locked.await(10, TimeUnit.SECONDS)).isTrue();
+			T result = body.call();
+			unlock.countDown();
+			holder.get(10, TimeUnit.SECONDS);
+			return result;
+		} finally {
+			unlock.countDown();
+			locker.shutdownNow();
+		}
+	}
+
+	private void awaitWritten() throws InterruptedException {
+		long deadline = System.nanoTime() + Duration.ofSeconds(30).toNanos();
+		while (ledgerEngine.oldestUnwrittenAt() != null) {
+			assertThat(System.nanoTime()).isLessThan(deadline);
+			Thread.sleep(10);
+		}
+	}
+
+}
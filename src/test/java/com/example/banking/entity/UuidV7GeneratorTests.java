@@ -0,0 +1,83 @@
+package com.example.banking.entity;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.junit.jupiter.api.Test;
+
+class UuidV7GeneratorTests {
+
+	// how H2 orders UUID columns: the 128 bits as an unsigned number
+	private static final Comparator<UUID> UNSIGNED = Comparator
+		.comparing(UUID::getMostSignificantBits, Long::compareUnsigned)
+		.thenComparing(UUID::getLeastSignificantBits, Long::compareUnsigned);
+
+	@Test
+	void hasVersionSevenAndTheRfcVariant() {
+		UUID id = UuidV7Generator.next();
+
+		assertThat(id.version()).isEqualTo(7);
+		assertThat(id.variant()).isEqualTo(2);
+	}
+
+	@Test
+	void carriesTheCurrentUnixMillis() {
+		long before = System.currentTimeMillis();
+		UUID id = UuidV7Generator.next();
+		long after = System.currentTimeMillis();
+
+		long millis = id.getMostSignificantBits() >>> 16;
+		// a burst may borrow a few milliseconds ahead of the clock
+		assertThat(millis).isBetween(before, after + 1_000);
+	}
+
+	@Test
+	void strictlyIncreasesWithinAMillisecond() {
+		// far more ids than fit in one millisecond's 4096 sequence values
+		List<UUID> ids = new ArrayList<>();
+		for (int i = 0; i < 20_000; i++) {
+			ids.add(UuidV7Generator.next());
+		}
+
+		for (int i = 1; i < ids.size(); i++) {
+			assertThat(UNSIGNED.compare(ids.get(i - 1), ids.get(i))).as("id %d", i).isNegative();
+		}
+		long distinctMillis = ids.stream().map(id -> id.getMostSignificantBits() >>> 16).distinct().count();
+		assertThat(distinctMillis).isLessThan(ids.size()); // several ids really did share a millisecond
+	}
+
+	@Test
+	void staysUniqueAcrossThreads() throws Exception {
+		ConcurrentLinkedQueue<UUID> ids = new ConcurrentLinkedQueue<>();
+		ExecutorService pool = Executors.newFixedThreadPool(8);
+		try {
+			List<Future<?>> results = new ArrayList<>();
+			for (int t = 0; t < 8; t++) {
+				results.add(pool.submit(() -> {
+					for (int i = 0; i < 5_000; i++) {
+						ids.add(UuidV7Generator.next());
+					}
+				}));
+			}
+			for (Future<?> result : results) {
+				result.get();
+			}
+		} finally {
+			pool.shutdownNow();
+		}
+
+		Set<UUID> distinct = new HashSet<>(ids);
+		assertThat(distinct).hasSize(40_000);
+	}
+
+}
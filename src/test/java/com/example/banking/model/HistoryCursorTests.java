@@ -0,0 +1,63 @@
+package com.example.banking.model;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.nio.ByteBuffer;
+import java.time.Instant;
+import java.util.Base64;
+import java.util.UUID;
+
+import org.junit.jupiter.api.Test;
+
+import com.example.banking.exceptions.BankingExceptions.InvalidCursorException;
+
+class HistoryCursorTests {
+
+	@Test
+	void encodeDecodeRoundTrips() {
+		HistoryCursor cursor = new HistoryCursor(Instant.parse("2024-03-01T12:34:56.123456789Z"), UUID.randomUUID());
+
+		String token = cursor.encode();
+
+		assertThat(token).doesNotContain("=", "+", "/");
+		assertThat(HistoryCursor.decode(token)).isEqualTo(cursor);
+	}
+
+	@Test
+	void roundTripsPreEpochInstants() {
+		HistoryCursor cursor = new HistoryCursor(Instant.parse("1969-12-31T23:59:59.5Z"), new UUID(0L, 0L));
+
+		assertThat(HistoryCursor.decode(cursor.encode())).isEqualTo(cursor);
+	}
+
+	@Test
+	void rejectsMalformedBase64() {
+		assertThatThrownBy(() -> HistoryCursor.decode("not base64!"))
+			.isInstanceOf(InvalidCursorException.class);
+	}
+
+	@Test
+	void rejectsWrongLength() {
+		String shortToken = Base64.getUrlEncoder().withoutPadding().encodeToString(new byte[12]);
+		String longToken = Base64.getUrlEncoder().withoutPadding().encodeToString(new byte[29]);
+
+		assertThatThrownBy(() -> HistoryCursor.decode(shortToken)).isInstanceOf(InvalidCursorException.class);
+		assertThatThrownBy(() -> HistoryCursor.decode(longToken)).isInstanceOf(InvalidCursorException.class);
+		assertThatThrownBy(() -> HistoryCursor.decode("")).isInstanceOf(InvalidCursorException.class);
+	}
+
+	@Test
+	void rejectsOutOfRangeInstant() {
+		byte[] raw = ByteBuffer.allocate(28)
+			.putLong(Long.MAX_VALUE)
+			.putInt(0)
+			.putLong(1L)
+			.putLong(2L)
+			.array();
+		String token = Base64.getUrlEncoder().withoutPadding().encodeToString(raw);
+
+		assertThatThrownBy(() -> HistoryCursor.decode(token)).isInstanceOf(InvalidCursorException.class);
+	}
+
+}
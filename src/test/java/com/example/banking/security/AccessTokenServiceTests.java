@@ -0,0 +1,96 @@
+package com.example.banking.security;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Base64;
+import java.util.UUID;
+
+import org.junit.jupiter.api.Test;
+
+import com.example.banking.security.AccessTokenService.IssuedToken;
+
+class AccessTokenServiceTests {
+
+	private static final String SECRET = Base64.getEncoder().encodeToString(new byte[32]);
+
+	private static final UUID CUSTOMER = UUID.fromString("11111111-1111-1111-1111-111111111111");
+
+	private final AccessTokenService tokens = new AccessTokenService(SECRET, Duration.ofMinutes(15));
+
+	@Test
+	void issuedTokenVerifiesToItsCustomer() {
+		IssuedToken token = tokens.issue(CUSTOMER);
+
+		assertThat(token.expiresAt()).isAfter(Instant.now().plus(Duration.ofMinutes(14)));
+		assertThat(tokens.verify(token.value())).isEqualTo(CUSTOMER);
+	}
+
+	@Test
+	void tokenSurvivesARestartWithTheSameSecret() {
+		IssuedToken token = tokens.issue(CUSTOMER);
+
+		AccessTokenService restarted = new AccessTokenService(SECRET, Duration.ofMinutes(15));
+
+		assertThat(restarted.verify(token.value())).isEqualTo(CUSTOMER);
+	}
+
+	@Test
+	void expiredTokenIsRejected() {
+		AccessTokenService expired = new AccessTokenService(SECRET, Duration.ofSeconds(-1));
+
+		assertThat(expired.verify(expired.issue(CUSTOMER).value())).isNull();
+	}
+
+	@Test
+	void tamperedPayloadIsRejected() {
+		String value = tokens.issue(CUSTOMER).value();
+		// flip a customer-id character so the payload still decodes but no longer matches the signature
+		char c = value.charAt(5);
+		String tampered = value.substring(0, 5) + (c == 'A' ? 'B' : 'A') + value.substring(6);
+
+		assertThat(tokens.verify(tampered)).isNull();
+	}
+
+	@Test
+	void tamperedSignatureIsRejected() {
+		String value = tokens.issue(CUSTOMER).value();
+		// the first signature character carries only signature bits (the last one also carries padding bits)
+		int at = value.indexOf('.') + 1;
+		char c = value.charAt(at);
+		String tampered = value.substring(0, at) + (c == 'A' ? 'B' : 'A') + value.substring(at + 1);
+
+		assertThat(tokens.verify(tampered)).isNull();
+	}
+
+	@Test
+	void tokenFromAnotherKeyIsRejected() {
+		byte[] other = new byte[32];
+		other[0] = 1;
+		AccessTokenService otherKey = new AccessTokenService(Base64.getEncoder().encodeToString(other), Duration.ofMinutes(15));
+
+		assertThat(tokens.verify(otherKey.issue(CUSTOMER).value())).isNull();
+	}
+
+	@Test
+	void malformedTokensAreRejected() {
+		String value = tokens.issue(CUSTOMER).value();
+
+		assertThat(tokens.verify(null)).isNull();
+		assertThat(tokens.verify("")).isNull();
+		assertThat(tokens.verify(value.substring(1))).isNull();
+		assertThat(tokens.verify(value.replace('.', '!'))).isNull();
+		assertThat(tokens.verify(value.substring(0, value.length() - 1) + "*")).isNull();
+	}
+
+	@Test
+	void shortSecretIsRefused() {
+		String shortSecret = Base64.getEncoder().encodeToString(new byte[16]);
+
+		assertThatThrownBy(() -> new AccessTokenService(shortSecret, Duration.ofMinutes(15)))
+			.isInstanceOf(IllegalStateException.class);
+	}
+
+}
@@ -0,0 +1,65 @@
+package com.example.banking.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.time.Instant;
+import java.util.UUID;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import com.example.banking.repository.BalanceCheckpointRepository;
+
+@SpringBootTest(properties = {
+	"spring.datasource.url=jdbc:h2:mem:checkpoint-tests",
+	"banking.balance.checkpoint-lag=0s"
+})
+class BalanceCheckpointServiceTests {
+
+	static final UUID ALICE = UUID.fromString("11111111-1111-1111-1111-111111111111");
+	static final UUID BANK_CASH_USD = UUID.fromString("ccccccc1-cccc-cccc-cccc-ccccccccccc1");
+
+	@Autowired
+	private BalanceCheckpointService balanceCheckpointService;
+
+	@Autowired
+	private BalanceCheckpointRepository balanceCheckpointRepository;
+
+	@Autowired
+	private JournalService journalService;
+
+	@Autowired
+	private AccountService accountService;
+
+	@Autowired
+	private JdbcTemplate jdbcTemplate;
+
+	@Test
+	void pendingJournalDoesNotHoldTheCutoffBack() throws Exception {
+		UUID account = accountService.openAccount(ALICE, "checking", "USD").getId();
+		UUID pending = journalService.createJournal("left pending", null).getId();
+		journalService.addEntry(pending, BANK_CASH_USD, "debit", "USD", 100);
+		journalService.addEntry(pending, account, "credit", "USD", 100);
+		journalService.transfer(BANK_CASH_USD, account, "USD", 50, "posted", null);
+		Thread.sleep(5);
+
+		balanceCheckpointService.createCheckpoints();
+		Instant asOf = balanceCheckpointRepository.findLatestAsOf();
+		// compared as stored: the column rounds both to the same precision
+		Instant pendingSince = jdbcTemplate.queryForObject("SELECT created_at FROM journal WHERE id = ?", Instant.class, pending);
+		assertThat(asOf).isAfter(pendingSince);
+		assertThat(balanceCheckpointService.balanceAsOf(account, asOf)).isEqualTo(50);
+
+		// posting it later lands after the cutoff instead of rewriting the checkpointed past
+		journalService.postJournal(pending);
+		Thread.sleep(5);
+		balanceCheckpointService.createCheckpoints();
+
+		assertThat(balanceCheckpointService.balanceAsOf(account, asOf)).isEqualTo(50);
+		assertThat(balanceCheckpointService.balanceAsOf(account, Instant.now())).isEqualTo(150);
+		assertThat(balanceCheckpointRepository.findFirstByAccountIdAndAsOfLessThanEqualOrderByAsOfDesc(account, Instant.now()))
+			.hasValueSatisfying(checkpoint -> assertThat(checkpoint.getBalanceCents()).isEqualTo(150));
+	}
+}
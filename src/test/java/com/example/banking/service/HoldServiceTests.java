@@ -0,0 +1,136 @@
+package com.example.banking.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.time.Instant;
+import java.util.UUID;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import com.example.banking.entity.AccountBalance;
+import com.example.banking.entity.FundsHold;
+import com.example.banking.exceptions.BankingExceptions.HoldNotActiveException;
+import com.example.banking.exceptions.BankingExceptions.InsufficientFundsException;
+import com.example.banking.exceptions.BankingExceptions.InvalidAmountException;
+import com.example.banking.exceptions.BankingExceptions.InvalidHoldExpiryException;
+import com.example.banking.model.HoldStatus;
+
+@SpringBootTest
+class HoldServiceTests {
+
+	static final UUID ALICE = UUID.fromString("11111111-1111-1111-1111-111111111111");
+	static final UUID BANK_CASH_USD = UUID.fromString("ccccccc1-cccc-cccc-cccc-ccccccccccc1");
+
+	@Autowired
+	private HoldService holdService;
+
+	@Autowired
+	private AccountService accountService;
+
+	@Autowired
+	private AccountBalanceService accountBalanceService;
+
+	@Autowired
+	private JournalService journalService;
+
+	private UUID payer;
+	private UUID payee;
+
+	@BeforeEach
+	void openAccounts() {
+		payer = accountService.openAccount(ALICE, "checking", "USD").getId();
+		payee = accountService.openAccount(ALICE, "savings", "USD").getId();
+		journalService.transfer(BANK_CASH_USD, payer, "USD", 10_000, "hold test funding", null);
+	}
+
+	@Test
+	void authorizeReservesAndReleaseReturnsTheAmount() {
+		FundsHold hold = holdService.authorize(payer, 4_000, "USD", "card", null);
+
+		assertThat(hold.getStatus()).isEqualTo(HoldStatus.ACTIVE);
+		assertThat(row(payer).getBalanceCents()).isEqualTo(10_000);
+		assertThat(row(payer).getAvailableCents()).isEqualTo(6_000);
+
+		FundsHold released = holdService.release(hold.getId());
+
+		assertThat(released.getStatus()).isEqualTo(HoldStatus.RELEASED);
+		assertThat(row(payer).getHeldCents()).isZero();
+		assertThat(row(payer).getAvailableCents()).isEqualTo(10_000);
+		assertThatThrownBy(() -> holdService.release(hold.getId())).isInstanceOf(HoldNotActiveException.class);
+	}
+
+	@Test
+	void authorizeBeyondTheAvailableBalanceIsRefused() {
+		holdService.authorize(payer, 7_000, "USD", null, null);
+
+		assertThatThrownBy(() -> holdService.authorize(payer, 3_001, "USD", null, null))
+			.isInstanceOf(InsufficientFundsException.class);
+		assertThat(row(payer).getHeldCents()).isEqualTo(7_000);
+	}
+
+	@Test
+	void captureOfTheWholeAvailableBalancePostsTheJournal() {
+		FundsHold hold = holdService.authorize(payer, 10_000, "USD", null, null);
+
+		FundsHold captured = holdService.capture(hold.getId(), payee, null);
+
+		assertThat(captured.getStatus()).isEqualTo(HoldStatus.CAPTURED);
+		assertThat(captured.getCapturedCents()).isEqualTo(10_000);
+		assertThat(captured.getJournalId()).isNotNull();
+		assertThat(row(payer).getBalanceCents()).isZero();
+		assertThat(row(payer).getHeldCents()).isZero();
+		assertThat(row(payee).getBalanceCents()).isEqualTo(10_000);
+		assertThatThrownBy(() -> holdService.capture(hold.getId(), payee, null))
+			.isInstanceOf(HoldNotActiveException.class);
+	}
+
+	@Test
+	void partialCaptureReleasesTheRemainder() {
+		FundsHold hold = holdService.authorize(payer, 5_000, "USD", null, null);
+
+		holdService.capture(hold.getId(), payee, 2_000L);
+
+		assertThat(row(payer).getBalanceCents()).isEqualTo(8_000);
+		assertThat(row(payer).getHeldCents()).isZero();
+		assertThat(row(payee).getBalanceCents()).isEqualTo(2_000);
+	}
+
+	@Test
+	void captureAboveTheHeldAmountIsRefused() {
+		FundsHold hold = holdService.authorize(payer, 5_000, "USD", null, null);
+
+		assertThatThrownBy(() -> holdService.capture(hold.getId(), payee, 5_001L))
+			.isInstanceOf(InvalidAmountException.class);
+		assertThat(holdService.getHold(hold.getId()).getStatus()).isEqualTo(HoldStatus.ACTIVE);
+		assertThat(row(payer).getHeldCents()).isEqualTo(5_000);
+	}
+
+	@Test
+	void authorizeWithAnExpiryThatHasPassedIsRefused() {
+		assertThatThrownBy(() -> holdService.authorize(payer, 1_000, "USD", null, Instant.now().minusSeconds(1)))
+			.isInstanceOf(InvalidHoldExpiryException.class);
+		assertThat(holdService.activeHolds(payer)).isEmpty();
+		assertThat(row(payer).getHeldCents()).isZero();
+	}
+
+	@Test
+	void expiredHoldsAreReleasedBySweep() throws InterruptedException {
+		FundsHold hold = holdService.authorize(payer, 3_000, "USD", null, Instant.now().plusMillis(100));
+		Thread.sleep(150);
+
+		holdService.expireHolds();
+
+		assertThat(holdService.getHold(hold.getId()).getStatus()).isEqualTo(HoldStatus.EXPIRED);
+		assertThat(row(payer).getHeldCents()).isZero();
+		assertThat(row(payer).getAvailableCents()).isEqualTo(10_000);
+	}
+
+	private AccountBalance row(UUID accountId) {
+		return accountBalanceService.getBalanceRow(accountId, "USD");
+	}
+
+}
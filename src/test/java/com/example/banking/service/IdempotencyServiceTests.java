@@ -0,0 +1,91 @@
+package com.example.banking.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.Map;
+import java.util.UUID;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import com.example.banking.entity.IdempotencyRecord;
+import com.example.banking.repository.IdempotencyRecordRepository;
+import com.example.banking.service.IdempotencyService.Outcome;
+import com.example.banking.service.IdempotencyService.Reservation;
+import com.example.banking.service.IdempotencyService.StoredResponse;
+
+@SpringBootTest
+class IdempotencyServiceTests {
+
+	@Autowired
+	private IdempotencyService idempotencyService;
+
+	@Autowired
+	private IdempotencyRecordRepository idempotencyRecordRepository;
+
+	@Test
+	void inFlightKeyIsRejectedAndCompletedKeyIsReplayed() {
+		String key = UUID.randomUUID().toString();
+
+		Reservation first = idempotencyService.reserve(key, "fp");
+		assertThat(first.outcome()).isEqualTo(Outcome.ACQUIRED);
+		assertThat(idempotencyService.reserve(key, "fp").outcome()).isEqualTo(Outcome.IN_PROGRESS);
+
+		idempotencyService.complete(key, first, new StoredResponse("fp", 201, "application/json", Map.of(), new byte[] { '{', '}' }));
+
+		Reservation retry = idempotencyService.reserve(key, "fp");
+		assertThat(retry.outcome()).isEqualTo(Outcome.REPLAY);
+		assertThat(retry.response().statusCode()).isEqualTo(201);
+	}
+
+	@Test
+	void abandonedReservationIsReclaimedAfterItsLease() {
+		String key = UUID.randomUUID().toString();
+		Instant abandonedAt = Instant.now().minus(Duration.ofMinutes(5)).truncatedTo(ChronoUnit.MILLIS);
+		idempotencyRecordRepository.saveAndFlush(
+			new IdempotencyRecord(key, "fp", abandonedAt, abandonedAt.plus(Duration.ofHours(24))));
+
+		Reservation retry = idempotencyService.reserve(key, "fp");
+		assertThat(retry.outcome()).isEqualTo(Outcome.ACQUIRED);
+		assertThat(idempotencyService.reserve(key, "fp").outcome()).isEqualTo(Outcome.IN_PROGRESS);
+
+		// the abandoned request finishing late must neither store its response nor free the retry's lease
+		Reservation stale = new Reservation(Outcome.ACQUIRED, null, abandonedAt);
+		idempotencyService.complete(key, stale, new StoredResponse("fp", 500, null, Map.of(), null));
+		idempotencyService.release(key, stale);
+		assertThat(idempotencyService.reserve(key, "fp").outcome()).isEqualTo(Outcome.IN_PROGRESS);
+
+		idempotencyService.complete(key, retry, new StoredResponse("fp", 200, null, Map.of(), null));
+		assertThat(idempotencyService.reserve(key, "fp").response().statusCode()).isEqualTo(200);
+	}
+
+	@Test
+	void storedHeadersAreReplayedFromTheTable() {
+		String key = UUID.randomUUID().toString();
+		Instant reservedAt = Instant.now().truncatedTo(ChronoUnit.MILLIS);
+		IdempotencyRecord record = new IdempotencyRecord(key, "fp", reservedAt, reservedAt.plus(Duration.ofHours(24)));
+		record.complete(202, "application/json", "Location: /journals/1/posting\nETag: \"abc\"\n", new byte[0]);
+		idempotencyRecordRepository.saveAndFlush(record);
+
+		Reservation replay = idempotencyService.reserve(key, "fp");
+
+		assertThat(replay.outcome()).isEqualTo(Outcome.REPLAY);
+		assertThat(replay.response().headers())
+			.containsExactly(Map.entry("Location", "/journals/1/posting"), Map.entry("ETag", "\"abc\""));
+	}
+
+	@Test
+	void releasedKeyCanBeReservedAgain() {
+		String key = UUID.randomUUID().toString();
+
+		Reservation first = idempotencyService.reserve(key, "fp");
+		idempotencyService.release(key, first);
+
+		assertThat(idempotencyService.reserve(key, "fp").outcome()).isEqualTo(Outcome.ACQUIRED);
+	}
+
+}
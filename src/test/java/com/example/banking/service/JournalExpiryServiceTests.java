@@ -0,0 +1,52 @@
+package com.example.banking.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.UUID;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import com.example.banking.repository.JournalRepository;
+
+@SpringBootTest(properties = {
+	"spring.datasource.url=jdbc:h2:mem:journal-expiry-tests",
+	"banking.journal.pending-ttl=2s"
+})
+class JournalExpiryServiceTests {
+
+	static final UUID ALICE = UUID.fromString("11111111-1111-1111-1111-111111111111");
+	static final UUID BANK_CASH_USD = UUID.fromString("ccccccc1-cccc-cccc-cccc-ccccccccccc1");
+
+	@Autowired
+	private JournalExpiryService journalExpiryService;
+
+	@Autowired
+	private JournalService journalService;
+
+	@Autowired
+	private AccountService accountService;
+
+	@Autowired
+	private JournalRepository journalRepository;
+
+	@Test
+	void ttlRunsFromTheLatestEntry() throws InterruptedException {
+		UUID account = accountService.openAccount(ALICE, "checking", "USD").getId();
+		UUID abandoned = journalService.createJournal("abandoned", null).getId();
+		journalService.addEntry(abandoned, BANK_CASH_USD, "debit", "USD", 100);
+		UUID inProgress = journalService.createJournal("in progress", null).getId();
+		Thread.sleep(1_200);
+		journalService.addEntry(inProgress, BANK_CASH_USD, "debit", "USD", 100);
+		Thread.sleep(1_200);
+
+		journalExpiryService.expirePendingJournals();
+
+		// both were created more than the TTL ago; only the abandoned one has been idle that long
+		assertThat(journalRepository.existsById(abandoned)).isFalse();
+		assertThat(journalRepository.existsById(inProgress)).isTrue();
+		journalService.addEntry(inProgress, account, "credit", "USD", 100);
+		assertThat(journalService.postJournal(inProgress).getPostedAt()).isNotNull();
+	}
+}
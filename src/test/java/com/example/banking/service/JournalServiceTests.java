@@ -0,0 +1,153 @@
+package com.example.banking.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.example.banking.repository.LedgerEntryRepository;
+import com.example.banking.service.JournalService.EntryLine;
+
+import io.micrometer.core.instrument.MeterRegistry;
+
+@SpringBootTest
+class JournalServiceTests {
+
+	static final UUID ALICE = UUID.fromString("11111111-1111-1111-1111-111111111111");
+	static final UUID BANK_CASH_USD = UUID.fromString("ccccccc1-cccc-cccc-cccc-ccccccccccc1");
+
+	@Autowired
+	private JournalService journalService;
+
+	@Autowired
+	private AccountService accountService;
+
+	@Autowired
+	private LedgerEntryRepository ledgerEntryRepository;
+
+	@Autowired
+	private JdbcTemplate jdbcTemplate;
+
+	@Autowired
+	private PlatformTransactionManager transactionManager;
+
+	@Autowired
+	private AccountBalanceService accountBalanceService;
+
+	@Autowired
+	private MeterRegistry meterRegistry;
+
+	@Test
+	void liveRunningBalancesMatchTheRebuild() {
+		UUID account = accountService.openAccount(ALICE, "checking", "USD").getId();
+
+		// pending journals posted as one batch, in a different order than they were created
+		UUID first = pending(account, 1_000);
+		UUID second = pending(account, 20);
+		UUID third = pending(account, 300);
+		assertThat(journalService.postJournals(List.of(third, first, second))).isEmpty();
+
+		// one submission touching the same account several times
+		journalService.submitJournal("multi-line", null, List.of(
+			new EntryLine(account, "credit", "USD", 100),
+			new EntryLine(account, "debit", "USD", 30),
+			new EntryLine(account, "credit", "USD", 5),
+			new EntryLine(BANK_CASH_USD, "debit", "USD", 75)), true);
+
+		// single postings and transfers in between
+		UUID fourth = pending(account, 4);
+		journalService.transfer(account, BANK_CASH_USD, "USD", 7, "out", null);
+		journalService.postJournal(fourth);
+
+		Map<UUID, Long> live = postedBalanceAfter();
+		new TransactionTemplate(transactionManager).executeWithoutResult(
+			status -> ledgerEntryRepository.recomputeBalanceAfter());
+		Map<UUID, Long> rebuilt = postedBalanceAfter();
+
+		assertThat(rebuilt).isEqualTo(live);
+		assertThat(jdbcTemplate.queryForObject(
+			"""
+			SELECT e.balance_after_cents FROM ledger_entry e JOIN journal j ON j.id = e.journal_id
+			WHERE e.account_id = ? ORDER BY j.posted_at DESC, e.created_at DESC, e.id DESC LIMIT 1
+			""",
+			Long.class, account)).isEqualTo(1_000 + 20 + 300 + 75 + 4 - 7);
+	}
+
+	@Test
+	void opposingConcurrentTransfersConserveTheTotal() throws Exception {
+		UUID a = accountService.openAccount(ALICE, "checking", "USD").getId();
+		UUID b = accountService.openAccount(ALICE, "savings", "USD").getId();
+		journalService.transfer(BANK_CASH_USD, a, "USD", 10_000, "funding", null);
+		journalService.transfer(BANK_CASH_USD, b, "USD", 10_000, "funding", null);
+		double exhaustedBefore = meterRegistry.counter("banking.posting.retries.exhausted").count();
+
+		int threads = 8;
+		int transfersPerThread = 50;
+		ExecutorService pool = Executors.newFixedThreadPool(threads);
+		CountDownLatch start = new CountDownLatch(1);
+		List<Future<?>> results = new ArrayList<>();
+		try {
+			for (int t = 0; t < threads; t++) {
+				UUID from = t % 2 == 0 ? a : b;
+				UUID to = t % 2 == 0 ? b : a;
+				long amount = t + 1;
+				results.add(pool.submit(() -> {
+					start.await();
+					for (int i = 0; i < transfersPerThread; i++) {
+						journalService.transfer(from, to, "USD", amount, "race", null);
+					}
+					return null;
+				}));
+			}
+			start.countDown();
+			for (Future<?> result : results) {
+				result.get(2, TimeUnit.MINUTES); // rethrows any failed or exhausted posting
+			}
+		} finally {
+			pool.shutdownNow();
+		}
+
+		long balanceA = accountBalanceService.getBalance(a);
+		long balanceB = accountBalanceService.getBalance(b);
+		assertThat(balanceA + balanceB).isEqualTo(20_000);
+		// odd-numbered threads send 2, 4, 6, 8 from b; even-numbered ones 1, 3, 5, 7 from a
+		assertThat(balanceA).isEqualTo(10_000 + (2 + 4 + 6 + 8 - 1 - 3 - 5 - 7) * transfersPerThread);
+		assertThat(accountService.computeBalance(a)).isEqualTo(balanceA);
+		assertThat(accountService.computeBalance(b)).isEqualTo(balanceB);
+		assertThat(meterRegistry.counter("banking.posting.retries.exhausted").count()).isEqualTo(exhaustedBefore);
+	}
+
+	private UUID pending(UUID account, long amountCents) {
+		UUID journalId = journalService.createJournal("pending " + amountCents, null).getId();
+		journalService.addEntry(journalId, BANK_CASH_USD, "debit", "USD", amountCents);
+		journalService.addEntry(journalId, account, "credit", "USD", amountCents);
+		return journalId;
+	}
+
+	private Map<UUID, Long> postedBalanceAfter() {
+		Map<UUID, Long> balances = new HashMap<>();
+		jdbcTemplate.query("""
+			SELECT e.id, e.balance_after_cents FROM ledger_entry e
+			JOIN journal j ON j.id = e.journal_id WHERE j.status = 'posted'
+			""", rs -> {
+				balances.put(rs.getObject(1, UUID.class), rs.getLong(2));
+			});
+		return balances;
+	}
+
+}
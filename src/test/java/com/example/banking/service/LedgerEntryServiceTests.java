@@ -0,0 +1,85 @@
+package com.example.banking.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.UUID;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import com.example.banking.exceptions.BankingExceptions.PageTooDeepException;
+
+@SpringBootTest
+class LedgerEntryServiceTests {
+
+	static final UUID ALICE = UUID.fromString("11111111-1111-1111-1111-111111111111");
+	static final UUID BANK_CASH_USD = UUID.fromString("ccccccc1-cccc-cccc-cccc-ccccccccccc1");
+
+	@Autowired
+	private LedgerEntryService ledgerEntryService;
+
+	@Autowired
+	private AccountService accountService;
+
+	@Autowired
+	private JournalService journalService;
+
+	@Autowired
+	private JdbcTemplate jdbcTemplate;
+
+	@Test
+	void offsetPagingOverArchivedAccountsIsBounded() {
+		UUID archived = archivedAccount();
+
+		assertThat(ledgerEntryService.accountHistory(archived, 0, 20)).hasSize(1);
+		// size is clamped to 500, so a huge size is still a shallow page
+		assertThat(ledgerEntryService.accountHistory(archived, 0, 1_000_000)).hasSize(1);
+		assertThat(ledgerEntryService.accountHistory(archived, 19, 500)).isEmpty();
+		assertThatThrownBy(() -> ledgerEntryService.accountHistory(archived, 20, 500))
+			.isInstanceOf(PageTooDeepException.class);
+		assertThatThrownBy(() -> ledgerEntryService.accountHistory(archived, Integer.MAX_VALUE, 500))
+			.isInstanceOf(PageTooDeepException.class);
+		// the keyset form serves any depth
+		assertThat(ledgerEntryService.accountHistory(archived, null, 500).entries()).hasSize(1);
+	}
+
+	@Test
+	void offsetPageSizeIsClampedWithoutArchive() {
+		UUID account = accountService.openAccount(ALICE, "checking", "USD").getId();
+		for (int i = 0; i < 3; i++) {
+			journalService.transfer(BANK_CASH_USD, account, "USD", 1, "paging", null);
+		}
+
+		assertThat(ledgerEntryService.accountHistory(account, 0, 1_000_000)).hasSize(3);
+		assertThat(ledgerEntryService.accountHistory(account, 1, 2)).hasSize(1);
+		assertThat(ledgerEntryService.accountHistory(account, 100_000, 500)).isEmpty();
+	}
+
+	// an archived two-leg journal between two new accounts, with the totals and balances the
+	// archiver would have left behind
+	private UUID archivedAccount() {
+		UUID from = accountService.openAccount(ALICE, "checking", "USD").getId();
+		UUID to = accountService.openAccount(ALICE, "savings", "USD").getId();
+		UUID journalId = UUID.randomUUID();
+		Timestamp at = Timestamp.from(Instant.now().minus(400, ChronoUnit.DAYS));
+		jdbcTemplate.update("""
+			INSERT INTO journal_archive (id, description, created_at, posted_at, currency, debit_total_cents, credit_total_cents)
+			VALUES (?, 'archived', ?, ?, 'USD', 100, 100)
+			""", journalId, at, at);
+		jdbcTemplate.update("""
+			INSERT INTO ledger_entry_archive (id, journal_id, account_id, side, amount_cents, currency, created_at, balance_after_cents)
+			VALUES (?, ?, ?, 'debit', 100, 'USD', ?, -100), (?, ?, ?, 'credit', 100, 'USD', ?, 100)
+			""", UUID.randomUUID(), journalId, from, at, UUID.randomUUID(), journalId, to, at);
+		jdbcTemplate.update("INSERT INTO account_archive_total (account_id, balance_cents) VALUES (?, -100), (?, 100)", from, to);
+		jdbcTemplate.update("UPDATE account_balance SET balance_cents = -100 WHERE account_id = ?", from);
+		jdbcTemplate.update("UPDATE account_balance SET balance_cents = 100 WHERE account_id = ?", to);
+		return to;
+	}
+
+}